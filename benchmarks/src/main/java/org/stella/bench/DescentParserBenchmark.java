@@ -0,0 +1,52 @@
+package org.stella.bench;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.antlr.v4.runtime.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.stella.DescentParser;
+import org.syntax.stella.stellaLexer;
+
+/**
+ * Runs {@link DescentParser} over the same pre-lexed tokens as {@link ParserBenchmark}, so the two
+ * report comparable numbers for the hand-written and the generated parser. The few corpus programs
+ * that use syntax this grammar lacks are skipped here, while ANTLR recovers from them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss256m")
+public class DescentParserBenchmark {
+    @Param({"tests", "synthetic-100", "synthetic-1000", "synthetic-10000"})
+    public String source;
+
+    private List<List<Token>> tokens;
+
+    @Setup
+    public void setUp() throws IOException {
+        tokens = new ArrayList<>();
+        for (var program : Sources.load(source)) {
+            var stream = new CommonTokenStream(new stellaLexer(CharStreams.fromString(program)));
+            stream.fill();
+            try {
+                DescentParser.parse(new ListTokenSource(stream.getTokens()));
+            } catch (RuntimeException e) {
+                continue;
+            }
+            tokens.add(stream.getTokens());
+        }
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (var programTokens : tokens) {
+            blackhole.consume(DescentParser.parse(new ListTokenSource(programTokens)));
+        }
+    }
+}
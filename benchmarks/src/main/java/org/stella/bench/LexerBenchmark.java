@@ -0,0 +1,54 @@
+package org.stella.bench;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.Token;
+import org.openjdk.jmh.annotations.*;
+import org.stella.TableLexer;
+import org.syntax.stella.stellaLexer;
+
+/**
+ * Tokenizes every input with {@link stellaLexer}, or with {@link TableLexer} in {@code tableLex};
+ * returns the number of tokens produced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss256m")
+public class LexerBenchmark {
+    @Param({"tests", "synthetic-100", "synthetic-1000", "synthetic-10000"})
+    public String source;
+
+    private List<String> programs;
+
+    @Setup
+    public void setUp() throws IOException {
+        programs = Sources.load(source);
+    }
+
+    @Benchmark
+    public int lex() {
+        var tokens = 0;
+        for (var program : programs) {
+            var lexer = new stellaLexer(CharStreams.fromString(program));
+            while (lexer.nextToken().getType() != Token.EOF) {
+                tokens++;
+            }
+        }
+        return tokens;
+    }
+
+    @Benchmark
+    public int tableLex() {
+        var tokens = 0;
+        for (var program : programs) {
+            tokens += TableLexer.lex(CharStreams.fromString(program)).size() - 1;
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,76 @@
+package org.stella.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.stella.typecheck.TypeCheck;
+import org.syntax.stella.Absyn.Program;
+
+/**
+ * Typechecking time of one function whose body is a single match with many arms, so that the
+ * exhaustiveness and redundancy check dominates. The shapes are a variant with one arm per label, a
+ * {@code Nat} matched literal by literal and a pair of {@code Nat} and {@code Bool} matched on both
+ * components; each match is exhaustive and has no redundant arm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss256m")
+public class MatchBenchmark {
+    @Param({"100", "500", "2000"})
+    public int arms;
+
+    @Param({"variant", "nat", "tuple"})
+    public String shape;
+
+    private Program program;
+
+    @Setup
+    public void setUp() throws Exception {
+        program = TypeCheckBenchmark.parseAll(List.of(source(shape, arms))).get(0);
+        TypeCheck.typecheckProgram(program);
+    }
+
+    @Benchmark
+    public Program typecheck() throws Exception {
+        TypeCheck.typecheckProgram(program);
+        return program;
+    }
+
+    static String source(String shape, int arms) {
+        var type = new StringBuilder();
+        var cases = new StringBuilder();
+        switch (shape) {
+            case "variant" -> {
+                type.append("<| ");
+                for (var i = 0; i < arms; i++) {
+                    type.append(i == 0 ? "" : ", ").append("l").append(i).append(" : Nat");
+                    cases.append(i == 0 ? "" : " | ").append("<| l").append(i).append(" = n |> => n");
+                }
+                type.append(" |>");
+            }
+            case "nat" -> {
+                type.append("Nat");
+                for (var i = 0; i < arms - 1; i++) {
+                    cases.append(i).append(" => 0 | ");
+                }
+                cases.append("n => n");
+            }
+            case "tuple" -> {
+                type.append("{Nat, Bool}");
+                for (var i = 0; i < arms / 2; i++) {
+                    cases.append("{").append(i).append(", true} => 0 | {").append(i).append(", false} => 0 | ");
+                }
+                cases.append("x => 0");
+            }
+            default -> throw new IllegalArgumentException(shape);
+        }
+        return "language core;\n"
+                + "extend with #structural-patterns, #variants, #tuples, #natural-literals;\n"
+                + "fn f(input : " + type + ") -> Nat {\n  return match input {\n    " + cases + "\n  }\n}\n"
+                + "fn main(n : Nat) -> Nat { return n }\n";
+    }
+}
@@ -0,0 +1,51 @@
+package org.stella.bench;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.stella.ParallelParser;
+
+/**
+ * Lexes and parses whole programs with {@link ParallelParser} on pools of {@code threads} workers;
+ * with one worker every chunk is parsed in turn, which is the baseline the others scale from.
+ * Lexing stays sequential and is part of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss256m")
+public class ParallelParserBenchmark {
+    @Param({"synthetic-1000", "synthetic-10000"})
+    public String source;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private List<String> programs;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() throws IOException {
+        programs = Sources.load(source);
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (var program : programs) {
+            blackhole.consume(ParallelParser.parse(CharStreams.fromString(program), pool));
+        }
+    }
+}
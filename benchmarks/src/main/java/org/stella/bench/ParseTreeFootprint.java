@@ -0,0 +1,68 @@
+package org.stella.bench;
+
+import java.lang.ref.Reference;
+import java.util.List;
+
+import org.antlr.v4.runtime.*;
+import org.syntax.stella.stellaLexer;
+import org.syntax.stella.stellaParser;
+
+/**
+ * Measures how much heap {@code stellaParser.start_Program} holds on to when it returns, with and
+ * without parse tree construction. That is the heap a parse adds at its peak, as the tree and the
+ * AST are both alive until the start rule finishes.
+ * <p>
+ * Run with {@code java -cp target/benchmarks.jar org.stella.bench.ParseTreeFootprint [source...]},
+ * where each source is a name understood by {@link Sources}.
+ */
+public final class ParseTreeFootprint {
+    private ParseTreeFootprint() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        var sources = args.length == 0 ? new String[] {"synthetic-1000", "synthetic-10000"} : args;
+        var thread = new Thread(null, () -> {
+            try {
+                for (var source : sources) {
+                    measure(source);
+                }
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }, "footprint", 256L << 20);
+        thread.start();
+        thread.join();
+    }
+
+    private static void measure(String source) throws Exception {
+        var program = Sources.load(source).get(0);
+        var stream = new CommonTokenStream(new stellaLexer(CharStreams.fromString(program)));
+        stream.fill();
+        var tokens = stream.getTokens();
+        // Fill the shared DFA cache first so it does not count towards either mode.
+        retained(tokens, true);
+        var withTree = retained(tokens, true);
+        var withoutTree = retained(tokens, false);
+        System.out.printf("%s (%d tokens): %.1f MB with parse tree, %.1f MB without (%.0f%% less)%n",
+                source, tokens.size(), withTree / 1e6, withoutTree / 1e6, 100.0 * (withTree - withoutTree) / withTree);
+    }
+
+    private static long retained(List<Token> tokens, boolean buildParseTree) {
+        var before = usedAfterGc();
+        var parser = new stellaParser(new CommonTokenStream(new ListTokenSource(tokens)));
+        parser.removeErrorListeners();
+        parser.setBuildParseTree(buildParseTree);
+        var context = parser.start_Program();
+        var after = usedAfterGc();
+        Reference.reachabilityFence(context);
+        return after - before;
+    }
+
+    private static long usedAfterGc() {
+        var runtime = Runtime.getRuntime();
+        for (var i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
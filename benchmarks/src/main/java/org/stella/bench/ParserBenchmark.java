@@ -0,0 +1,53 @@
+package org.stella.bench;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.antlr.v4.runtime.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.stella.ProgramParser;
+import org.syntax.stella.stellaLexer;
+import org.syntax.stella.stellaParser;
+
+/**
+ * Runs {@code stellaParser.start_Program} over tokens lexed during setup, so lexing is not
+ * part of the measurement. {@code strategy} compares plain LL prediction with SLL first and LL
+ * only on failure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss256m")
+public class ParserBenchmark {
+    @Param({"tests", "synthetic-100", "synthetic-1000", "synthetic-10000"})
+    public String source;
+
+    @Param({"LL", "SLL_THEN_LL"})
+    public ProgramParser.Strategy strategy;
+
+    private List<List<Token>> tokens;
+
+    @Setup
+    public void setUp() throws IOException {
+        tokens = new ArrayList<>();
+        for (var program : Sources.load(source)) {
+            var stream = new CommonTokenStream(new stellaLexer(CharStreams.fromString(program)));
+            stream.fill();
+            tokens.add(stream.getTokens());
+        }
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (var programTokens : tokens) {
+            var parser = new stellaParser(new CommonTokenStream(new ListTokenSource(programTokens)));
+            parser.removeErrorListeners();
+            blackhole.consume(ProgramParser.parse(parser, strategy));
+        }
+    }
+}
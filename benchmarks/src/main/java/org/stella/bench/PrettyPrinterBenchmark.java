@@ -0,0 +1,40 @@
+package org.stella.bench;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.syntax.stella.Absyn.Program;
+import org.syntax.stella.PrettyPrinter;
+
+/**
+ * Prints programs parsed during setup with {@link PrettyPrinter#print}; returns the total length
+ * of the output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss256m")
+public class PrettyPrinterBenchmark {
+    @Param({"tests", "synthetic-100", "synthetic-1000", "synthetic-10000"})
+    public String source;
+
+    private List<Program> programs;
+
+    @Setup
+    public void setUp() throws IOException {
+        programs = TypeCheckBenchmark.parseAll(Sources.load(source));
+    }
+
+    @Benchmark
+    public int print() {
+        var length = 0;
+        for (var program : programs) {
+            length += PrettyPrinter.print(program).length();
+        }
+        return length;
+    }
+}
@@ -0,0 +1,53 @@
+package org.stella.bench;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.stella.gen.ProgramGenerator;
+import org.stella.typecheck.TypeCheck;
+import org.syntax.stella.Absyn.Program;
+
+/**
+ * Typechecking time of generated programs as each size knob grows; plotting the average time
+ * against one parameter shows whether the checker stays linear in it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss256m")
+public class ScalingBenchmark {
+    @Param({"10", "100", "1000"})
+    public int functions;
+
+    @Param({"4", "64"})
+    public int letDepth;
+
+    @Param({"4", "64"})
+    public int width;
+
+    /** Check top-level function bodies in parallel on the common pool. */
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private Program program;
+
+    @Setup
+    public void setUp() {
+        var options = new ProgramGenerator.Options(functions, letDepth, 3, width, width);
+        // Checked straight from the generator's AST: parsing is not what is measured here.
+        program = new ProgramGenerator(Sources.SEED, options).generate().program();
+    }
+
+    @Benchmark
+    public Program typecheck() throws Exception {
+        if (parallel) {
+            TypeCheck.typecheckProgram(program, ForkJoinPool.commonPool());
+        } else {
+            TypeCheck.typecheckProgram(program);
+        }
+        return program;
+    }
+}
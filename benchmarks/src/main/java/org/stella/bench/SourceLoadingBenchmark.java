@@ -0,0 +1,63 @@
+package org.stella.bench;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.antlr.v4.runtime.*;
+import org.openjdk.jmh.annotations.*;
+import org.stella.MappedCharStream;
+import org.syntax.stella.stellaLexer;
+
+/**
+ * Loads a large generated program from a file and tokenizes it, either through the
+ * {@link ANTLRInputStream} and {@link FileReader} path {@code Main} used to take or through a
+ * {@link MappedCharStream}. Returns the number of tokens produced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss256m")
+public class SourceLoadingBenchmark {
+    @Param({"synthetic-1000", "synthetic-10000", "synthetic-100000"})
+    public String source;
+
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("stella-bench", ".stella");
+        Files.writeString(file, Sources.load(source).get(0));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public int antlrInputStream() throws IOException {
+        try (var reader = new FileReader(file.toFile())) {
+            return lex(new ANTLRInputStream(reader));
+        }
+    }
+
+    @Benchmark
+    public int mapped() throws IOException {
+        return lex(MappedCharStream.open(file));
+    }
+
+    private static int lex(CharStream input) {
+        var lexer = new stellaLexer(input);
+        var tokens = 0;
+        while (lexer.nextToken().getType() != Token.EOF) {
+            tokens++;
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,55 @@
+package org.stella.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.stella.BatchTypeCheck;
+import org.stella.gen.ProgramGenerator;
+
+/**
+ * Benchmark inputs, selected by name:
+ * <ul>
+ *   <li>{@code tests} - every well-typed program of the {@code tests/} corpus;</li>
+ *   <li>{@code synthetic-N} - one program with {@code N} top-level functions from {@link ProgramGenerator}.</li>
+ * </ul>
+ * The corpus is looked up in {@code ./tests} or {@code ../tests}, or wherever the
+ * {@code stella.tests} system property points.
+ */
+final class Sources {
+    static final long SEED = 20240101L;
+
+    private Sources() {
+    }
+
+    static List<String> load(String name) throws IOException {
+        if (name.equals("tests")) {
+            var programs = new ArrayList<String>();
+            for (var file : BatchTypeCheck.discover(testsRoot())) {
+                if (file.toString().contains("well-typed")) {
+                    programs.add(Files.readString(file));
+                }
+            }
+            return programs;
+        } else if (name.startsWith("synthetic-")) {
+            var functions = Integer.parseInt(name.substring("synthetic-".length()));
+            return List.of(new ProgramGenerator(SEED, ProgramGenerator.Options.ofSize(functions)).generate().source());
+        }
+        throw new IllegalArgumentException("unknown benchmark source: " + name);
+    }
+
+    private static Path testsRoot() {
+        var configured = System.getProperty("stella.tests");
+        if (configured != null) {
+            return Path.of(configured);
+        }
+        for (var candidate : List.of(Path.of("tests"), Path.of("..", "tests"))) {
+            if (Files.isDirectory(candidate)) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("tests/ corpus not found; set -Dstella.tests=<dir>");
+    }
+}
@@ -0,0 +1,45 @@
+package org.stella.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.stella.gen.Towers;
+import org.stella.typecheck.TypeCheck;
+import org.syntax.stella.Absyn.Program;
+
+/**
+ * Typechecking time of one {@code fix} or {@code List::head} nested {@code depth} times; see
+ * {@link Towers}. A rule that checked its operand twice would make the time double with every level,
+ * so the average time should grow linearly in {@code depth}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss256m")
+public class TowerBenchmark {
+    @Param({"10", "100", "1000"})
+    public int depth;
+
+    @Param({"fix", "head"})
+    public String shape;
+
+    private Program program;
+
+    @Setup
+    public void setUp() throws Exception {
+        program = switch (shape) {
+            case "fix" -> Towers.fix(depth);
+            case "head" -> Towers.head(depth);
+            default -> throw new IllegalArgumentException(shape);
+        };
+        TypeCheck.typecheckProgram(program);
+    }
+
+    @Benchmark
+    public Program typecheck() throws Exception {
+        TypeCheck.typecheckProgram(program);
+        return program;
+    }
+}
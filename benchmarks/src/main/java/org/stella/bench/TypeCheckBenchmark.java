@@ -0,0 +1,70 @@
+package org.stella.bench;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.openjdk.jmh.annotations.*;
+import org.stella.typecheck.StellaTypeError;
+import org.stella.typecheck.TypeCheck;
+import org.syntax.stella.Absyn.Program;
+import org.syntax.stella.stellaLexer;
+import org.syntax.stella.stellaParser;
+
+/**
+ * Runs {@link TypeCheck#typecheckProgram} over programs parsed during setup; returns the number of
+ * programs that were rejected. Programs the checker cannot handle at all (it fails with something
+ * other than a type error) are dropped during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss256m")
+public class TypeCheckBenchmark {
+    @Param({"tests", "synthetic-100", "synthetic-1000", "synthetic-10000"})
+    public String source;
+
+    private List<Program> programs;
+
+    @Setup
+    public void setUp() throws IOException {
+        programs = new ArrayList<>();
+        for (var program : parseAll(Sources.load(source))) {
+            try {
+                TypeCheck.typecheckProgram(program);
+            } catch (StellaTypeError e) {
+                // still a meaningful input
+            } catch (Exception e) {
+                continue;
+            }
+            programs.add(program);
+        }
+    }
+
+    @Benchmark
+    public int typecheck() throws Exception {
+        var rejected = 0;
+        for (var program : programs) {
+            try {
+                TypeCheck.typecheckProgram(program);
+            } catch (StellaTypeError e) {
+                rejected++;
+            }
+        }
+        return rejected;
+    }
+
+    static List<Program> parseAll(List<String> sources) {
+        var programs = new ArrayList<Program>(sources.size());
+        for (var source : sources) {
+            var parser = new stellaParser(new CommonTokenStream(new stellaLexer(CharStreams.fromString(source))));
+            programs.add(parser.start_Program().result);
+        }
+        return programs;
+    }
+}
@@ -0,0 +1,44 @@
+package org.stella.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.stella.gen.WidePrograms;
+import org.stella.typecheck.TypeCheck;
+import org.syntax.stella.Absyn.Program;
+
+/**
+ * Typechecking time of a record of {@code width} fields or an application to {@code width}
+ * arguments; see {@link WidePrograms}. The average time should grow linearly in {@code width}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss256m")
+public class WideBenchmark {
+    @Param({"100", "2000", "20000"})
+    public int width;
+
+    @Param({"record", "application"})
+    public String shape;
+
+    private Program program;
+
+    @Setup
+    public void setUp() throws Exception {
+        program = switch (shape) {
+            case "record" -> WidePrograms.record(width);
+            case "application" -> WidePrograms.application(width);
+            default -> throw new IllegalArgumentException(shape);
+        };
+        TypeCheck.typecheckProgram(program);
+    }
+
+    @Benchmark
+    public Program typecheck() throws Exception {
+        TypeCheck.typecheckProgram(program);
+        return program;
+    }
+}
@@ -0,0 +1,122 @@
+package org.stella;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Typechecks every {@code .stella} file under a directory on a {@link ForkJoinPool}.
+ * <p>
+ * One line is printed per file as soon as it has been checked, so lines appear in completion order:
+ * <pre>
+ * tests/core/well-typed/factorial.stella	OK	1.234ms
+ * tests/pairs/ill-typed/bad-pairs-1.stella	TYPE_ERROR	ERROR_UNEXPECTED_TUPLE	0.456ms
+ * </pre>
+ * Each file is lexed, parsed and checked entirely inside its own task through {@link StellaCompiler},
+ * which reuses each worker thread's lexer and parser.
+ */
+public final class BatchTypeCheck {
+    private final List<Path> files;
+    private final PrintStream out;
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(CompileResult.Status.values().length);
+
+    private BatchTypeCheck(List<Path> files, PrintStream out) {
+        this.files = files;
+        this.out = out;
+    }
+
+    public static List<Path> discover(Path root) throws IOException {
+        try (var paths = Files.walk(root)) {
+            return paths.filter(path -> path.toString().endsWith(".stella") && Files.isRegularFile(path))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Checks all programs under {@code root}, streaming results to {@code out} and a summary to {@code err}.
+     *
+     * @return the number of files that could not be checked at all (I/O or internal errors)
+     */
+    public static int run(Path root, PrintStream out, PrintStream err) throws IOException {
+        var batch = new BatchTypeCheck(discover(root), out);
+        var parseStats = ProgramParser.stats();
+        var poolStats = ParserPool.stats();
+        var start = System.nanoTime();
+        var pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            pool.invoke(batch.new CheckFiles(0, batch.files.size()));
+        } finally {
+            pool.shutdown();
+        }
+        var elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        err.printf("checked %d files in %dms: %d ok, %d type errors, %d syntax errors, %d internal errors%n",
+                batch.files.size(), elapsedMillis,
+                batch.count(CompileResult.Status.OK),
+                batch.count(CompileResult.Status.TYPE_ERROR),
+                batch.count(CompileResult.Status.SYNTAX_ERROR),
+                batch.count(CompileResult.Status.INTERNAL_ERROR));
+        var parseStatsAfter = ProgramParser.stats();
+        err.printf("%d of %d parses fell back from SLL to full LL prediction%n",
+                parseStatsAfter.fallbacks() - parseStats.fallbacks(), parseStatsAfter.parses() - parseStats.parses());
+        var poolStatsAfter = ParserPool.stats();
+        err.printf("%d of %d parses reused a worker's lexer and parser%n",
+                poolStatsAfter.reuses() - poolStats.reuses(), poolStatsAfter.parses() - poolStats.parses());
+        var dfa = DfaCache.stats();
+        err.printf("parser DFA cache: %d states in %d decisions, %d cached prediction contexts%n",
+                dfa.states(), dfa.decisions().size(), dfa.contexts());
+        return batch.count(CompileResult.Status.INTERNAL_ERROR);
+    }
+
+    private int count(CompileResult.Status status) {
+        return counts.get(status.ordinal());
+    }
+
+    private void check(Path file) {
+        CompileResult result;
+        try {
+            result = StellaCompiler.typecheck(file);
+        } catch (IOException | RuntimeException e) {
+            result = CompileResult.internalError(e, 0, 0);
+        }
+        counts.incrementAndGet(result.status().ordinal());
+        var line = new StringBuilder().append(file).append('\t').append(result.status());
+        if (result.error() != null) {
+            line.append('\t').append(result.error());
+        }
+        if (result.line() >= 0) {
+            line.append('\t').append(result.line()).append(':').append(result.column());
+        }
+        line.append('\t').append(String.format("%.3fms", result.totalNanos() / 1e6));
+        synchronized (out) {
+            out.println(line);
+        }
+    }
+
+    private class CheckFiles extends RecursiveAction {
+        private final int from;
+        private final int to;
+
+        CheckFiles(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) {
+                    check(files.get(from));
+                }
+                return;
+            }
+            var middle = (from + to) >>> 1;
+            invokeAll(new CheckFiles(from, middle), new CheckFiles(middle, to));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.stella;
+
+import org.stella.typecheck.StellaTypeError;
+
+/**
+ * Outcome of typechecking a single Stella program through {@link StellaCompiler}.
+ * <p>
+ * {@code error} holds the error code for type errors (e.g. {@code ERROR_UNDEFINED_VARIABLE}) and the
+ * parser message for syntax errors; {@code line} and {@code column} are {@code -1} when unknown.
+ */
+public record CompileResult(Status status, String error, int line, int column, long parseNanos, long typecheckNanos) {
+    public enum Status {
+        OK, SYNTAX_ERROR, TYPE_ERROR, INTERNAL_ERROR
+    }
+
+    static CompileResult ok(long parseNanos, long typecheckNanos) {
+        return new CompileResult(Status.OK, null, -1, -1, parseNanos, typecheckNanos);
+    }
+
+    static CompileResult syntaxError(String message, int line, int column, long parseNanos) {
+        return new CompileResult(Status.SYNTAX_ERROR, message, line, column, parseNanos, 0);
+    }
+
+    static CompileResult typeError(StellaTypeError error, long parseNanos, long typecheckNanos) {
+        return new CompileResult(Status.TYPE_ERROR, error.code().name(), error.line(), error.column(), parseNanos, typecheckNanos);
+    }
+
+    static CompileResult internalError(Throwable cause, long parseNanos, long typecheckNanos) {
+        return new CompileResult(Status.INTERNAL_ERROR, cause.toString(), -1, -1, parseNanos, typecheckNanos);
+    }
+
+    public boolean isOk() {
+        return status == Status.OK;
+    }
+
+    public long totalNanos() {
+        return parseNanos + typecheckNanos;
+    }
+}
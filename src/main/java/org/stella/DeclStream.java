@@ -0,0 +1,96 @@
+package org.stella;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.antlr.v4.runtime.*;
+
+import org.syntax.stella.stellaLexer;
+import org.syntax.stella.Absyn.*;
+
+/**
+ * The top-level declarations of a program, lexed and parsed a few at a time as they are asked for.
+ * <p>
+ * Tokens are pulled from a {@code stellaLexer} up to the next top-level declaration boundary, found
+ * as in {@link ParallelParser}, and only that chunk is parsed: the first one, with the
+ * {@code language} and {@code extend} header, with {@code start_Program} and the rest with
+ * {@code start_ListDecl}. Neither the whole token stream nor the whole {@link Program} is ever
+ * held, so a consumer that drops each declaration once done with it needs memory only for the
+ * largest declaration. A syntax error is thrown as {@link TestError} from {@link #hasNext()} or
+ * {@link #next()}; it may be reported differently than by a whole-program parse.
+ */
+final class DeclStream implements Iterator<Decl> {
+    private final stellaLexer lexer;
+    private Token lookahead;
+    private int depth;
+    private boolean header = true;
+    private ListDecl chunk;
+    private int next;
+    private long parseNanos;
+
+    DeclStream(CharStream input) {
+        lexer = Lexers.newLexer(input);
+        lookahead = lexer.nextToken();
+    }
+
+    /**
+     * Time spent lexing and parsing so far.
+     */
+    long parseNanos() {
+        return parseNanos;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while ((chunk == null || next == chunk.size()) && (header || lookahead.getType() != Token.EOF)) {
+            var start = System.nanoTime();
+            var source = new ListTokenSource(readChunk());
+            if (header) {
+                header = false;
+                chunk = ((AProgram) ParserPool.parse(source)).listdecl_;
+            } else {
+                chunk = ParserPool.parseDecls(source);
+            }
+            next = 0;
+            parseNanos += System.nanoTime() - start;
+        }
+        return chunk != null && next < chunk.size();
+    }
+
+    @Override
+    public Decl next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        var decl = chunk.get(next);
+        // Let the declaration go as soon as the consumer does.
+        chunk.set(next++, null);
+        return decl;
+    }
+
+    /**
+     * Tokens from the lookahead up to, but not including, the next top-level declaration boundary
+     * or EOF.
+     */
+    private ArrayList<Token> readChunk() {
+        var tokens = new ArrayList<Token>();
+        var previous = 0;
+        var token = lookahead;
+        for (; token.getType() != Token.EOF; token = lexer.nextToken()) {
+            var type = token.getType();
+            if (depth == 0 && previous == Lexers.RBRACE && ParallelParser.startsDecl(type)) {
+                break;
+            }
+            if (type == Lexers.LBRACE) {
+                depth++;
+            } else if (type == Lexers.RBRACE) {
+                depth--;
+            }
+            tokens.add(token);
+            previous = type;
+        }
+        lookahead = token;
+        return tokens;
+    }
+}
@@ -0,0 +1,927 @@
+package org.stella;
+
+import java.util.ArrayList;
+
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenSource;
+
+import org.syntax.stella.stellaLexer;
+import org.syntax.stella.Absyn.*;
+
+/**
+ * Hand-written recursive-descent parser for Stella programs, an alternative to {@code stellaParser}
+ * that builds the identical {@link Program}.
+ * <p>
+ * Each rule of the grammar {@code stellaParser} was generated from is one method. The left-recursive
+ * levels ({@code Expr3}, {@code Expr4} and {@code Expr6}) parse a primary and then loop over their
+ * suffix alternatives, so operators associate to the left as in the ANTLR parser. Where the grammar needs
+ * more than one token of lookahead, the decision is made with a fixed peek: {@code Expr}'s trailing
+ * {@code ;} is a {@code Sequence} exactly when an expression follows it, and an opening brace
+ * starts a record rather than a tuple when an identifier and {@code =} (or {@code :} in types)
+ * follow.
+ * Separator lists accept a trailing separator wherever BNFC's grammar does.
+ * <p>
+ * The first syntax error is thrown as a {@link TestError} at the offending token; messages are not
+ * worded like ANTLR's.
+ */
+public final class DescentParser {
+    private static final int COMMA = stellaLexer.Surrogate_id_SYMB_0;
+    private static final int SEMI = stellaLexer.Surrogate_id_SYMB_1;
+    private static final int LPAREN = stellaLexer.Surrogate_id_SYMB_2;
+    private static final int RPAREN = stellaLexer.Surrogate_id_SYMB_3;
+    private static final int LBRACE = stellaLexer.Surrogate_id_SYMB_4;
+    private static final int RBRACE = stellaLexer.Surrogate_id_SYMB_5;
+    private static final int LBRACKET = stellaLexer.Surrogate_id_SYMB_6;
+    private static final int RBRACKET = stellaLexer.Surrogate_id_SYMB_7;
+    private static final int EQUALS = stellaLexer.Surrogate_id_SYMB_8;
+    private static final int COLON = stellaLexer.Surrogate_id_SYMB_9;
+    private static final int ARROW = stellaLexer.Surrogate_id_SYMB_10;
+    private static final int DOUBLE_ARROW = stellaLexer.Surrogate_id_SYMB_11;
+    private static final int BAR = stellaLexer.Surrogate_id_SYMB_12;
+    private static final int LVARIANT = stellaLexer.Surrogate_id_SYMB_13;
+    private static final int RVARIANT = stellaLexer.Surrogate_id_SYMB_14;
+    private static final int ASSIGN = stellaLexer.Surrogate_id_SYMB_15;
+    private static final int LESS = stellaLexer.Surrogate_id_SYMB_16;
+    private static final int LESS_EQUAL = stellaLexer.Surrogate_id_SYMB_17;
+    private static final int GREATER = stellaLexer.Surrogate_id_SYMB_18;
+    private static final int GREATER_EQUAL = stellaLexer.Surrogate_id_SYMB_19;
+    private static final int EQUAL = stellaLexer.Surrogate_id_SYMB_20;
+    private static final int NOT_EQUAL = stellaLexer.Surrogate_id_SYMB_21;
+    private static final int PLUS = stellaLexer.Surrogate_id_SYMB_22;
+    private static final int MINUS = stellaLexer.Surrogate_id_SYMB_23;
+    private static final int STAR = stellaLexer.Surrogate_id_SYMB_24;
+    private static final int SLASH = stellaLexer.Surrogate_id_SYMB_25;
+    private static final int DOT = stellaLexer.Surrogate_id_SYMB_26;
+    private static final int LIST_HEAD = stellaLexer.Surrogate_id_SYMB_27;
+    private static final int LIST_ISEMPTY = stellaLexer.Surrogate_id_SYMB_28;
+    private static final int LIST_TAIL = stellaLexer.Surrogate_id_SYMB_29;
+    private static final int PANIC = stellaLexer.Surrogate_id_SYMB_30;
+    private static final int NAT_PRED = stellaLexer.Surrogate_id_SYMB_31;
+    private static final int NAT_ISZERO = stellaLexer.Surrogate_id_SYMB_32;
+    private static final int NAT_REC = stellaLexer.Surrogate_id_SYMB_33;
+    private static final int AMPERSAND = stellaLexer.Surrogate_id_SYMB_34;
+    private static final int BOOL = stellaLexer.Surrogate_id_SYMB_35;
+    private static final int BOT = stellaLexer.Surrogate_id_SYMB_36;
+    private static final int NAT = stellaLexer.Surrogate_id_SYMB_37;
+    private static final int TOP = stellaLexer.Surrogate_id_SYMB_38;
+    private static final int UNIT_TYPE = stellaLexer.Surrogate_id_SYMB_39;
+    private static final int AND = stellaLexer.Surrogate_id_SYMB_40;
+    private static final int AS = stellaLexer.Surrogate_id_SYMB_41;
+    private static final int CAST = stellaLexer.Surrogate_id_SYMB_42;
+    private static final int CATCH = stellaLexer.Surrogate_id_SYMB_43;
+    private static final int CONS = stellaLexer.Surrogate_id_SYMB_44;
+    private static final int CORE = stellaLexer.Surrogate_id_SYMB_45;
+    private static final int ELSE = stellaLexer.Surrogate_id_SYMB_46;
+    private static final int EXCEPTION = stellaLexer.Surrogate_id_SYMB_47;
+    private static final int EXTEND = stellaLexer.Surrogate_id_SYMB_48;
+    private static final int FALSE = stellaLexer.Surrogate_id_SYMB_49;
+    private static final int FIX = stellaLexer.Surrogate_id_SYMB_50;
+    private static final int FN = stellaLexer.Surrogate_id_SYMB_51;
+    private static final int FOLD = stellaLexer.Surrogate_id_SYMB_52;
+    private static final int FORALL = stellaLexer.Surrogate_id_SYMB_53;
+    private static final int GENERIC = stellaLexer.Surrogate_id_SYMB_54;
+    private static final int IF = stellaLexer.Surrogate_id_SYMB_55;
+    private static final int IN = stellaLexer.Surrogate_id_SYMB_56;
+    private static final int INL = stellaLexer.Surrogate_id_SYMB_57;
+    private static final int INLINE = stellaLexer.Surrogate_id_SYMB_58;
+    private static final int INR = stellaLexer.Surrogate_id_SYMB_59;
+    private static final int LANGUAGE = stellaLexer.Surrogate_id_SYMB_60;
+    private static final int LET = stellaLexer.Surrogate_id_SYMB_61;
+    private static final int LETREC = stellaLexer.Surrogate_id_SYMB_62;
+    private static final int MATCH = stellaLexer.Surrogate_id_SYMB_63;
+    private static final int NEW = stellaLexer.Surrogate_id_SYMB_64;
+    private static final int NOT = stellaLexer.Surrogate_id_SYMB_65;
+    private static final int OR = stellaLexer.Surrogate_id_SYMB_66;
+    private static final int RETURN = stellaLexer.Surrogate_id_SYMB_67;
+    private static final int SUCC = stellaLexer.Surrogate_id_SYMB_68;
+    private static final int THEN = stellaLexer.Surrogate_id_SYMB_69;
+    private static final int THROW = stellaLexer.Surrogate_id_SYMB_70;
+    private static final int THROWS = stellaLexer.Surrogate_id_SYMB_71;
+    private static final int TRUE = stellaLexer.Surrogate_id_SYMB_72;
+    private static final int TRY = stellaLexer.Surrogate_id_SYMB_73;
+    private static final int TYPE = stellaLexer.Surrogate_id_SYMB_74;
+    private static final int UNFOLD = stellaLexer.Surrogate_id_SYMB_75;
+    private static final int UNIT = stellaLexer.Surrogate_id_SYMB_76;
+    private static final int VARIANT = stellaLexer.Surrogate_id_SYMB_77;
+    private static final int WITH = stellaLexer.Surrogate_id_SYMB_78;
+    private static final int MU = stellaLexer.Surrogate_id_SYMB_79;
+    private static final int IDENT = stellaLexer.StellaIdent;
+    private static final int EXTENSION_NAME = stellaLexer.ExtensionName;
+    private static final int MEMORY_ADDRESS = stellaLexer.MemoryAddress;
+    private static final int INTEGER = stellaLexer.INTEGER;
+
+    private static final boolean[] STARTS_EXPR = tokenSet(
+            LET, LETREC, GENERIC, IF, FN, LVARIANT, MATCH, LBRACKET, NEW, STAR, LBRACE, CONS, LIST_HEAD,
+            LIST_ISEMPTY, LIST_TAIL, PANIC, THROW, TRY, INL, INR, SUCC, NOT, NAT_PRED, NAT_ISZERO, FIX,
+            NAT_REC, FOLD, UNFOLD, TRUE, FALSE, UNIT, INTEGER, MEMORY_ADDRESS, IDENT, LPAREN);
+    private static final boolean[] STARTS_TYPE = tokenSet(
+            FN, FORALL, MU, LBRACE, LVARIANT, LBRACKET, BOOL, NAT, UNIT_TYPE, TOP, BOT, AMPERSAND,
+            IDENT, LPAREN);
+    private static final boolean[] STARTS_PATTERN = tokenSet(
+            LVARIANT, INL, INR, LBRACE, LBRACKET, LPAREN, FALSE, TRUE, UNIT, INTEGER, SUCC, IDENT);
+
+    private final Token[] tokens;
+    private int position;
+
+    private DescentParser(Token[] tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * Parses a whole program from {@code source}, which must end with an EOF token.
+     */
+    public static Program parse(TokenSource source) {
+        var tokens = new ArrayList<Token>();
+        Token token;
+        do {
+            token = source.nextToken();
+            if (token.getChannel() == Token.DEFAULT_CHANNEL) {
+                tokens.add(token);
+            }
+        } while (token.getType() != Token.EOF);
+        var parser = new DescentParser(tokens.toArray(new Token[0]));
+        var program = parser.program();
+        parser.expect(Token.EOF, "<EOF>");
+        return program;
+    }
+
+    private static boolean[] tokenSet(int... types) {
+        var set = new boolean[stellaLexer.VOCABULARY.getMaxTokenType() + 1];
+        for (var type : types) {
+            set[type] = true;
+        }
+        return set;
+    }
+
+    // Token access
+
+    private int peek() {
+        return tokens[position].getType();
+    }
+
+    private int peek(int offset) {
+        var index = Math.min(position + offset, tokens.length - 1);
+        return tokens[index].getType();
+    }
+
+    private static boolean in(boolean[] set, int type) {
+        return type >= 0 && type < set.length && set[type];
+    }
+
+    private boolean accept(int type) {
+        if (peek() == type) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private Token expect(int type, String what) {
+        if (peek() != type) {
+            throw unexpected(what);
+        }
+        return tokens[position++];
+    }
+
+    private String identifier() {
+        return expect(IDENT, "an identifier").getText();
+    }
+
+    private int integer() {
+        return Integer.parseInt(expect(INTEGER, "an integer").getText());
+    }
+
+    private TestError unexpected(String expected) {
+        var token = tokens[position];
+        var text = token.getType() == Token.EOF ? "<EOF>" : token.getText();
+        return new TestError("mismatched input '" + text + "' expecting " + expected,
+                token.getLine(), token.getCharPositionInLine());
+    }
+
+    // Program and declarations
+
+    private Program program() {
+        expect(LANGUAGE, "'language'");
+        expect(CORE, "'core'");
+        expect(SEMI, "';'");
+        var extensions = new ListExtension();
+        while (accept(EXTEND)) {
+            expect(WITH, "'with'");
+            var names = new ListExtensionName();
+            while (peek() == EXTENSION_NAME) {
+                names.addLast(tokens[position++].getText());
+                if (!accept(COMMA)) {
+                    break;
+                }
+            }
+            extensions.addLast(new AnExtension(names));
+            expect(SEMI, "';'");
+        }
+        return new AProgram(new LanguageCore(), extensions, decls());
+    }
+
+    private ListDecl decls() {
+        var decls = new ListDecl();
+        while (true) {
+            var type = peek();
+            if (type != INLINE && type != FN && type != GENERIC && type != TYPE && type != EXCEPTION) {
+                return decls;
+            }
+            decls.addLast(decl());
+        }
+    }
+
+    private Decl decl() {
+        if (accept(TYPE)) {
+            var name = identifier();
+            expect(EQUALS, "'='");
+            return new DeclTypeAlias(name, type());
+        }
+        if (accept(EXCEPTION)) {
+            if (accept(TYPE)) {
+                expect(EQUALS, "'='");
+                return new DeclExceptionType(type());
+            }
+            expect(VARIANT, "'type' or 'variant'");
+            var name = identifier();
+            expect(COLON, "':'");
+            return new DeclExceptionVariant(name, type());
+        }
+        var annotations = new ListAnnotation();
+        while (accept(INLINE)) {
+            annotations.addLast(new InlineAnnotation());
+        }
+        if (accept(GENERIC)) {
+            expect(FN, "'fn'");
+            var name = identifier();
+            expect(LBRACKET, "'['");
+            var typeParams = identifiers();
+            expect(RBRACKET, "']'");
+            expect(LPAREN, "'('");
+            var params = paramDecls();
+            expect(RPAREN, "')'");
+            var returnType = returnType();
+            var throwType = throwType();
+            expect(LBRACE, "'{'");
+            var locals = decls();
+            expect(RETURN, "'return'");
+            var body = expr();
+            expect(RBRACE, "'}'");
+            return new DeclFunGeneric(annotations, name, typeParams, params, returnType, throwType, locals, body);
+        }
+        expect(FN, "'fn'");
+        var name = identifier();
+        expect(LPAREN, "'('");
+        var params = paramDecls();
+        expect(RPAREN, "')'");
+        var returnType = returnType();
+        var throwType = throwType();
+        expect(LBRACE, "'{'");
+        var locals = decls();
+        expect(RETURN, "'return'");
+        var body = expr();
+        expect(RBRACE, "'}'");
+        return new DeclFun(annotations, name, params, returnType, throwType, locals, body);
+    }
+
+    private ListStellaIdent identifiers() {
+        var names = new ListStellaIdent();
+        while (peek() == IDENT) {
+            names.addLast(tokens[position++].getText());
+            if (!accept(COMMA)) {
+                break;
+            }
+        }
+        return names;
+    }
+
+    private ListParamDecl paramDecls() {
+        var params = new ListParamDecl();
+        while (peek() == IDENT) {
+            var name = identifier();
+            expect(COLON, "':'");
+            params.addLast(new AParamDecl(name, type()));
+            if (!accept(COMMA)) {
+                break;
+            }
+        }
+        return params;
+    }
+
+    private ReturnType returnType() {
+        return accept(ARROW) ? new SomeReturnType(type()) : new NoReturnType();
+    }
+
+    private ThrowType throwType() {
+        if (!accept(THROWS)) {
+            return new NoThrowType();
+        }
+        var types = new ListType();
+        do {
+            types.addLast(type());
+        } while (accept(COMMA));
+        return new SomeThrowType(types);
+    }
+
+    // Expressions
+
+    private Expr expr() {
+        switch (peek()) {
+            case LET, LETREC -> {
+                var recursive = tokens[position++].getType() == LETREC;
+                var bindings = new ListPatternBinding();
+                do {
+                    var pattern = pattern();
+                    expect(EQUALS, "'='");
+                    bindings.addLast(new APatternBinding(pattern, expr()));
+                } while (accept(COMMA));
+                expect(IN, "'in'");
+                var body = expr();
+                return recursive ? new LetRec(bindings, body) : new Let(bindings, body);
+            }
+            case GENERIC -> {
+                position++;
+                expect(LBRACKET, "'['");
+                var names = identifiers();
+                expect(RBRACKET, "']'");
+                return new TypeAbstraction(names, expr());
+            }
+            default -> {
+                var first = expr1();
+                if (!accept(SEMI)) {
+                    return first;
+                }
+                return in(STARTS_EXPR, peek()) ? new Sequence(first, expr()) : first;
+            }
+        }
+    }
+
+    private ListExpr exprs() {
+        var exprs = new ListExpr();
+        while (in(STARTS_EXPR, peek())) {
+            exprs.addLast(expr());
+            if (!accept(COMMA)) {
+                break;
+            }
+        }
+        return exprs;
+    }
+
+    private Expr expr1() {
+        if (accept(IF)) {
+            var condition = expr1();
+            expect(THEN, "'then'");
+            var then = expr1();
+            expect(ELSE, "'else'");
+            return new If(condition, then, expr1());
+        }
+        var target = expr2();
+        return accept(ASSIGN) ? new Assign(target, expr1()) : target;
+    }
+
+    private Expr expr2() {
+        var left = expr3();
+        return switch (peek()) {
+            case LESS -> new LessThan(left, operand());
+            case LESS_EQUAL -> new LessThanOrEqual(left, operand());
+            case GREATER -> new GreaterThan(left, operand());
+            case GREATER_EQUAL -> new GreaterThanOrEqual(left, operand());
+            case EQUAL -> new Equal(left, operand());
+            case NOT_EQUAL -> new NotEqual(left, operand());
+            default -> left;
+        };
+    }
+
+    /**
+     * Consumes a comparison operator and parses its right operand.
+     */
+    private Expr operand() {
+        position++;
+        return expr3();
+    }
+
+    private Expr expr3() {
+        Expr expr;
+        switch (peek()) {
+            case FN -> {
+                position++;
+                expect(LPAREN, "'('");
+                var params = paramDecls();
+                expect(RPAREN, "')'");
+                expect(LBRACE, "'{'");
+                expect(RETURN, "'return'");
+                var body = expr();
+                expect(RBRACE, "'}'");
+                expr = new Abstraction(params, body);
+            }
+            case LVARIANT -> {
+                position++;
+                var label = identifier();
+                ExprData data = accept(EQUALS) ? new SomeExprData(expr()) : new NoExprData();
+                expect(RVARIANT, "'|>'");
+                expr = new Variant(label, data);
+            }
+            case MATCH -> {
+                position++;
+                var scrutinee = expr2();
+                expect(LBRACE, "'{'");
+                var cases = new ListMatchCase();
+                while (in(STARTS_PATTERN, peek())) {
+                    var pattern = pattern();
+                    expect(DOUBLE_ARROW, "'=>'");
+                    cases.addLast(new AMatchCase(pattern, expr()));
+                    if (!accept(BAR)) {
+                        break;
+                    }
+                }
+                expect(RBRACE, "'}'");
+                expr = new Match(scrutinee, cases);
+            }
+            case LBRACKET -> {
+                position++;
+                var items = exprs();
+                expect(RBRACKET, "']'");
+                expr = new org.syntax.stella.Absyn.List(items);
+            }
+            default -> expr = expr4();
+        }
+        while (true) {
+            switch (peek()) {
+                case AS -> {
+                    position++;
+                    expr = new TypeAsc(expr, type2());
+                }
+                case CAST -> {
+                    position++;
+                    expect(AS, "'as'");
+                    expr = new TypeCast(expr, type2());
+                }
+                case PLUS -> {
+                    position++;
+                    expr = new Add(expr, expr4());
+                }
+                case MINUS -> {
+                    position++;
+                    expr = new Subtract(expr, expr4());
+                }
+                case OR -> {
+                    position++;
+                    expr = new LogicOr(expr, expr4());
+                }
+                default -> {
+                    return expr;
+                }
+            }
+        }
+    }
+
+    private Expr expr4() {
+        var expr = expr5();
+        while (true) {
+            switch (peek()) {
+                case STAR -> {
+                    position++;
+                    expr = new Multiply(expr, expr5());
+                }
+                case SLASH -> {
+                    position++;
+                    expr = new Divide(expr, expr5());
+                }
+                case AND -> {
+                    position++;
+                    expr = new LogicAnd(expr, expr5());
+                }
+                default -> {
+                    return expr;
+                }
+            }
+        }
+    }
+
+    private Expr expr5() {
+        if (accept(NEW)) {
+            return new Ref(parenthesized());
+        }
+        if (accept(STAR)) {
+            return new Deref(expr5());
+        }
+        return expr6();
+    }
+
+    private Expr expr6() {
+        var expr = primary6();
+        while (true) {
+            switch (peek()) {
+                case LPAREN -> {
+                    position++;
+                    var arguments = exprs();
+                    expect(RPAREN, "')'");
+                    expr = new Application(expr, arguments);
+                }
+                case LBRACKET -> {
+                    position++;
+                    var types = types();
+                    expect(RBRACKET, "']'");
+                    expr = new TypeApplication(expr, types);
+                }
+                case DOT -> {
+                    position++;
+                    if (peek() == INTEGER) {
+                        expr = new DotTuple(expr, integer());
+                    } else {
+                        expr = new DotRecord(expr, identifier());
+                    }
+                }
+                default -> {
+                    return expr;
+                }
+            }
+        }
+    }
+
+    private Expr primary6() {
+        switch (peek()) {
+            case LBRACE -> {
+                position++;
+                if (peek() == IDENT && peek(1) == EQUALS) {
+                    var bindings = new ListBinding();
+                    do {
+                        var label = identifier();
+                        expect(EQUALS, "'='");
+                        bindings.addLast(new ABinding(label, expr()));
+                    } while (accept(COMMA));
+                    expect(RBRACE, "'}'");
+                    return new org.syntax.stella.Absyn.Record(bindings);
+                }
+                var items = exprs();
+                expect(RBRACE, "'}'");
+                return new Tuple(items);
+            }
+            case CONS -> {
+                position++;
+                expect(LPAREN, "'('");
+                var head = expr();
+                expect(COMMA, "','");
+                var tail = expr();
+                expect(RPAREN, "')'");
+                return new ConsList(head, tail);
+            }
+            case LIST_HEAD -> {
+                position++;
+                return new Head(parenthesized());
+            }
+            case LIST_ISEMPTY -> {
+                position++;
+                return new IsEmpty(parenthesized());
+            }
+            case LIST_TAIL -> {
+                position++;
+                return new Tail(parenthesized());
+            }
+            case PANIC -> {
+                position++;
+                return new Panic();
+            }
+            case THROW -> {
+                position++;
+                return new Throw(parenthesized());
+            }
+            case TRY -> {
+                position++;
+                var body = braced();
+                if (accept(CATCH)) {
+                    expect(LBRACE, "'{'");
+                    var pattern = pattern();
+                    expect(DOUBLE_ARROW, "'=>'");
+                    var handler = expr();
+                    expect(RBRACE, "'}'");
+                    return new TryCatch(body, pattern, handler);
+                }
+                expect(WITH, "'catch' or 'with'");
+                return new TryWith(body, braced());
+            }
+            case INL -> {
+                position++;
+                return new Inl(parenthesized());
+            }
+            case INR -> {
+                position++;
+                return new Inr(parenthesized());
+            }
+            case SUCC -> {
+                position++;
+                return new Succ(parenthesized());
+            }
+            case NOT -> {
+                position++;
+                return new LogicNot(parenthesized());
+            }
+            case NAT_PRED -> {
+                position++;
+                return new Pred(parenthesized());
+            }
+            case NAT_ISZERO -> {
+                position++;
+                return new IsZero(parenthesized());
+            }
+            case FIX -> {
+                position++;
+                return new Fix(parenthesized());
+            }
+            case NAT_REC -> {
+                position++;
+                expect(LPAREN, "'('");
+                var n = expr();
+                expect(COMMA, "','");
+                var initial = expr();
+                expect(COMMA, "','");
+                var step = expr();
+                expect(RPAREN, "')'");
+                return new NatRec(n, initial, step);
+            }
+            case FOLD, UNFOLD -> {
+                var fold = tokens[position++].getType() == FOLD;
+                expect(LBRACKET, "'['");
+                var type = type();
+                expect(RBRACKET, "']'");
+                var expr = expr7();
+                return fold ? new Fold(type, expr) : new Unfold(type, expr);
+            }
+            default -> {
+                return expr7();
+            }
+        }
+    }
+
+    private Expr expr7() {
+        var token = tokens[position];
+        switch (token.getType()) {
+            case TRUE -> {
+                position++;
+                return new ConstTrue();
+            }
+            case FALSE -> {
+                position++;
+                return new ConstFalse();
+            }
+            case UNIT -> {
+                position++;
+                return new ConstUnit();
+            }
+            case INTEGER -> {
+                return new ConstInt(integer());
+            }
+            case MEMORY_ADDRESS -> {
+                position++;
+                return new ConstMemory(token.getText());
+            }
+            case IDENT -> {
+                position++;
+                return new Var(token.getText());
+            }
+            case LPAREN -> {
+                return parenthesized();
+            }
+            default -> throw unexpected("an expression");
+        }
+    }
+
+    private Expr parenthesized() {
+        expect(LPAREN, "'('");
+        var expr = expr();
+        expect(RPAREN, "')'");
+        return expr;
+    }
+
+    private Expr braced() {
+        expect(LBRACE, "'{'");
+        var expr = expr();
+        expect(RBRACE, "'}'");
+        return expr;
+    }
+
+    // Patterns
+
+    private Pattern pattern() {
+        var token = tokens[position];
+        switch (token.getType()) {
+            case LVARIANT -> {
+                position++;
+                var label = identifier();
+                PatternData data = accept(EQUALS) ? new SomePatternData(pattern()) : new NoPatternData();
+                expect(RVARIANT, "'|>'");
+                return new PatternVariant(label, data);
+            }
+            case INL -> {
+                position++;
+                return new PatternInl(parenthesizedPattern());
+            }
+            case INR -> {
+                position++;
+                return new PatternInr(parenthesizedPattern());
+            }
+            case LBRACE -> {
+                position++;
+                if (peek() == IDENT && peek(1) == EQUALS) {
+                    var fields = new ListLabelledPattern();
+                    do {
+                        var label = identifier();
+                        expect(EQUALS, "'='");
+                        fields.addLast(new ALabelledPattern(label, pattern()));
+                    } while (accept(COMMA));
+                    expect(RBRACE, "'}'");
+                    return new PatternRecord(fields);
+                }
+                var items = patterns();
+                expect(RBRACE, "'}'");
+                return new PatternTuple(items);
+            }
+            case LBRACKET -> {
+                position++;
+                var items = patterns();
+                expect(RBRACKET, "']'");
+                return new PatternList(items);
+            }
+            case LPAREN -> {
+                position++;
+                var first = pattern();
+                if (accept(COMMA)) {
+                    var tail = pattern();
+                    expect(RPAREN, "')'");
+                    return new PatternCons(first, tail);
+                }
+                expect(RPAREN, "')'");
+                return first;
+            }
+            case FALSE -> {
+                position++;
+                return new PatternFalse();
+            }
+            case TRUE -> {
+                position++;
+                return new PatternTrue();
+            }
+            case UNIT -> {
+                position++;
+                return new PatternUnit();
+            }
+            case INTEGER -> {
+                return new PatternInt(integer());
+            }
+            case SUCC -> {
+                position++;
+                return new PatternSucc(parenthesizedPattern());
+            }
+            case IDENT -> {
+                position++;
+                return new PatternVar(token.getText());
+            }
+            default -> throw unexpected("a pattern");
+        }
+    }
+
+    private ListPattern patterns() {
+        var patterns = new ListPattern();
+        while (in(STARTS_PATTERN, peek())) {
+            patterns.addLast(pattern());
+            if (!accept(COMMA)) {
+                break;
+            }
+        }
+        return patterns;
+    }
+
+    private Pattern parenthesizedPattern() {
+        expect(LPAREN, "'('");
+        var pattern = pattern();
+        expect(RPAREN, "')'");
+        return pattern;
+    }
+
+    // Types
+
+    private Type type() {
+        switch (peek()) {
+            case FN -> {
+                position++;
+                expect(LPAREN, "'('");
+                var params = types();
+                expect(RPAREN, "')'");
+                expect(ARROW, "'->'");
+                return new TypeFun(params, type());
+            }
+            case FORALL -> {
+                position++;
+                var names = identifiers();
+                expect(DOT, "'.'");
+                return new TypeForAll(names, type());
+            }
+            case MU -> {
+                position++;
+                var name = identifier();
+                expect(DOT, "'.'");
+                return new TypeRec(name, type());
+            }
+            default -> {
+                var left = type2();
+                return accept(PLUS) ? new TypeSum(left, type2()) : left;
+            }
+        }
+    }
+
+    private ListType types() {
+        var types = new ListType();
+        while (in(STARTS_TYPE, peek())) {
+            types.addLast(type());
+            if (!accept(COMMA)) {
+                break;
+            }
+        }
+        return types;
+    }
+
+    private Type type2() {
+        switch (peek()) {
+            case LBRACE -> {
+                position++;
+                if (peek() == IDENT && peek(1) == COLON) {
+                    var fields = new ListRecordFieldType();
+                    do {
+                        var label = identifier();
+                        expect(COLON, "':'");
+                        fields.addLast(new ARecordFieldType(label, type()));
+                    } while (accept(COMMA));
+                    expect(RBRACE, "'}'");
+                    return new TypeRecord(fields);
+                }
+                var items = types();
+                expect(RBRACE, "'}'");
+                return new TypeTuple(items);
+            }
+            case LVARIANT -> {
+                position++;
+                var fields = new ListVariantFieldType();
+                while (peek() == IDENT) {
+                    var label = identifier();
+                    OptionalTyping typing = accept(COLON) ? new SomeTyping(type()) : new NoTyping();
+                    fields.addLast(new AVariantFieldType(label, typing));
+                    if (!accept(COMMA)) {
+                        break;
+                    }
+                }
+                expect(RVARIANT, "'|>'");
+                return new TypeVariant(fields);
+            }
+            case LBRACKET -> {
+                position++;
+                var element = type();
+                expect(RBRACKET, "']'");
+                return new TypeList(element);
+            }
+            default -> {
+                return type3();
+            }
+        }
+    }
+
+    private Type type3() {
+        var token = tokens[position];
+        switch (token.getType()) {
+            case BOOL -> {
+                position++;
+                return new TypeBool();
+            }
+            case NAT -> {
+                position++;
+                return new TypeNat();
+            }
+            case UNIT_TYPE -> {
+                position++;
+                return new TypeUnit();
+            }
+            case TOP -> {
+                position++;
+                return new TypeTop();
+            }
+            case BOT -> {
+                position++;
+                return new TypeBottom();
+            }
+            case AMPERSAND -> {
+                position++;
+                return new TypeRef(type2());
+            }
+            case IDENT -> {
+                position++;
+                return new TypeVar(token.getText());
+            }
+            case LPAREN -> {
+                position++;
+                var type = type();
+                expect(RPAREN, "')'");
+                return type;
+            }
+            default -> throw unexpected("a type");
+        }
+    }
+}
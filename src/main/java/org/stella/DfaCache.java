@@ -0,0 +1,147 @@
+package org.stella;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.antlr.v4.runtime.atn.ParserATNSimulator;
+import org.antlr.v4.runtime.atn.PredictionContextCache;
+import org.antlr.v4.runtime.dfa.DFA;
+
+import org.syntax.stella.stellaParser;
+
+/**
+ * Inspects and bounds the prediction cache that every {@link stellaParser} shares through its static
+ * {@code _decisionToDFA} and {@code _sharedContextCache} fields.
+ * <p>
+ * Both only grow: each new lookahead sequence adds DFA states, and each state built with full-context
+ * prediction adds its prediction contexts. A long-running process can call {@link #setLimit(Limit)}
+ * once; {@link ParserPool} then calls {@link #enforceLimit()} after every parse, which empties the
+ * cache when either bound is exceeded. The cache refills from the same inputs within a few parses,
+ * so steady-state throughput is unchanged as long as the bounds are well above what one workload
+ * needs.
+ * <p>
+ * The context cache is not split by decision, so only its total size is reported.
+ */
+public final class DfaCache {
+    /**
+     * DFA state count of one parser decision and the rule it belongs to.
+     */
+    public record Decision(int decision, String rule, int states) {
+    }
+
+    public record Stats(List<Decision> decisions, int contexts, long resets) {
+        public int states() {
+            var states = 0;
+            for (var decision : decisions) {
+                states += decision.states();
+            }
+            return states;
+        }
+    }
+
+    /**
+     * Bounds on the total DFA states and cached prediction contexts; {@code 0} means unbounded.
+     */
+    public record Limit(int maxStates, int maxContexts) {
+        public static final Limit NONE = new Limit(0, 0);
+
+        public Limit {
+            if (maxStates < 0 || maxContexts < 0) {
+                throw new IllegalArgumentException("DFA cache limits must not be negative: " + this);
+            }
+        }
+    }
+
+    /** {@link #enforceLimit()} measures the cache only once per this many calls. */
+    private static final int CHECK_INTERVAL = 64;
+
+    /** Any parser's simulator exposes the shared, otherwise protected, static cache. */
+    private static final ParserATNSimulator simulator = new stellaParser(null).getInterpreter();
+
+    private static final LongAdder resets = new LongAdder();
+    private static final AtomicInteger untilCheck = new AtomicInteger(CHECK_INTERVAL);
+    private static volatile Limit limit = Limit.NONE;
+
+    private DfaCache() {
+    }
+
+    public static Stats stats() {
+        var dfas = simulator.decisionToDFA;
+        var decisions = new ArrayList<Decision>(dfas.length);
+        for (var dfa : dfas) {
+            var rule = stellaParser.ruleNames[dfa.atnStartState.ruleIndex];
+            decisions.add(new Decision(dfa.decision, rule, dfa.states.size()));
+        }
+        return new Stats(decisions, simulator.getSharedContextCache().size(), resets.sum());
+    }
+
+    public static Limit limit() {
+        return limit;
+    }
+
+    public static void setLimit(Limit limit) {
+        DfaCache.limit = limit;
+    }
+
+    /**
+     * Empties the DFA of every decision and the shared context cache. Parses already running keep
+     * the DFAs they started with; later predictions start from empty ones.
+     */
+    public static void reset() {
+        var dfas = simulator.decisionToDFA;
+        for (var i = 0; i < dfas.length; i++) {
+            dfas[i] = new DFA(stellaParser._ATN.getDecisionState(i), i);
+        }
+        var contexts = simulator.getSharedContextCache();
+        synchronized (contexts) {
+            contextMap(contexts).clear();
+        }
+        resets.increment();
+    }
+
+    /**
+     * Resets the cache if it exceeds the current {@link Limit}. Cheap enough to call after every parse.
+     *
+     * @return whether the cache was reset
+     */
+    public static boolean enforceLimit() {
+        var current = limit;
+        if (current.equals(Limit.NONE) || untilCheck.decrementAndGet() > 0) {
+            return false;
+        }
+        untilCheck.set(CHECK_INTERVAL);
+        var overStates = current.maxStates() > 0 && totalStates() > current.maxStates();
+        var overContexts = current.maxContexts() > 0 && simulator.getSharedContextCache().size() > current.maxContexts();
+        if (!overStates && !overContexts) {
+            return false;
+        }
+        reset();
+        return true;
+    }
+
+    private static int totalStates() {
+        var states = 0;
+        for (var dfa : simulator.decisionToDFA) {
+            states += dfa.states.size();
+        }
+        return states;
+    }
+
+    /**
+     * {@link PredictionContextCache} has no public way to clear it, so its map is reached by
+     * reflection. ANTLR itself synchronizes on the cache while updating it.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<Object, Object> contextMap(PredictionContextCache contexts) {
+        try {
+            var field = PredictionContextCache.class.getDeclaredField("cache");
+            field.setAccessible(true);
+            return (Map<Object, Object>) field.get(contexts);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("cannot clear the ANTLR prediction context cache", e);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.stella;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.DecisionInfo;
+
+import org.syntax.stella.*;
+
+/**
+ * Parses every {@code .stella} file under a directory with ANTLR's {@code ProfilingATNSimulator}
+ * and prints the parser decisions ranked by total prediction time:
+ * <pre>
+ * rank  decision  rule      invocations  time(ms)  SLL look(total/max)  LL fallbacks  LL look(total/max)  ambiguities  context-sensitive  errors
+ *    1        23  expr2            6421    8916.0            58265/271             0                 0/0            0                  0       0
+ * </pre>
+ * Files are parsed one after another on the calling thread, with full LL prediction and no error
+ * listeners, so files with syntax errors are profiled up to where error recovery gives up. Lookahead
+ * is counted in tokens and includes predictions answered from the warm DFA cache.
+ */
+public final class GrammarProfiler {
+    private final List<Decision> decisions = new ArrayList<>();
+    private int files;
+
+    private GrammarProfiler() {
+    }
+
+    /**
+     * Profiles all programs under {@code root}, printing the report to {@code out} and problems to {@code err}.
+     *
+     * @return the number of files that could not be read
+     */
+    public static int run(Path root, PrintStream out, PrintStream err) throws IOException {
+        var profiler = new GrammarProfiler();
+        var unreadable = 0;
+        for (var file : BatchTypeCheck.discover(root)) {
+            try {
+                profiler.profile(MappedCharStream.open(file));
+            } catch (IOException e) {
+                err.println(file + ": " + e.getMessage());
+                unreadable++;
+            }
+        }
+        profiler.report(out);
+        return unreadable;
+    }
+
+    private void profile(CharStream input) {
+        var lexer = new stellaLexer(input);
+        lexer.removeErrorListeners();
+        var parser = new stellaParser(new CommonTokenStream(lexer));
+        parser.removeErrorListeners();
+        parser.setProfile(true);
+        try {
+            ProgramParser.parse(parser, ProgramParser.Strategy.LL);
+        } catch (RuntimeException e) {
+            // Grammar actions can fail on the incomplete contexts left by error recovery; the
+            // predictions made up to that point are still recorded.
+        }
+        files++;
+
+        var info = parser.getParseInfo().getDecisionInfo();
+        while (decisions.size() < info.length) {
+            var decision = decisions.size();
+            decisions.add(new Decision(decision, stellaParser.ruleNames[parser.getATN().getDecisionState(decision).ruleIndex]));
+        }
+        for (var decision : info) {
+            decisions.get(decision.decision).add(decision);
+        }
+    }
+
+    private void report(PrintStream out) {
+        var ranked = new ArrayList<>(decisions);
+        ranked.removeIf(decision -> decision.invocations == 0);
+        ranked.sort(Comparator.comparingLong((Decision decision) -> decision.nanos).reversed());
+        out.printf("profiled %d decisions over %d files%n", ranked.size(), files);
+        out.printf("%4s  %8s  %-22s  %11s  %9s  %19s  %12s  %18s  %11s  %17s  %6s%n",
+                "rank", "decision", "rule", "invocations", "time(ms)", "SLL look(total/max)",
+                "LL fallbacks", "LL look(total/max)", "ambiguities", "context-sensitive", "errors");
+        for (var i = 0; i < ranked.size(); i++) {
+            var decision = ranked.get(i);
+            out.printf("%4d  %8d  %-22s  %11d  %9.1f  %19s  %12d  %18s  %11d  %17d  %6d%n",
+                    i + 1, decision.decision, decision.rule, decision.invocations, decision.nanos / 1e6,
+                    decision.sllTotalLook + "/" + decision.sllMaxLook, decision.llFallbacks,
+                    decision.llTotalLook + "/" + decision.llMaxLook, decision.ambiguities,
+                    decision.contextSensitivities, decision.errors);
+        }
+    }
+
+    /**
+     * {@link DecisionInfo} of one decision summed over all profiled files.
+     */
+    private static final class Decision {
+        final int decision;
+        final String rule;
+        long invocations;
+        long nanos;
+        long sllTotalLook;
+        long sllMaxLook;
+        long llFallbacks;
+        long llTotalLook;
+        long llMaxLook;
+        long ambiguities;
+        long contextSensitivities;
+        long errors;
+
+        Decision(int decision, String rule) {
+            this.decision = decision;
+            this.rule = rule;
+        }
+
+        void add(DecisionInfo info) {
+            invocations += info.invocations;
+            nanos += info.timeInPrediction;
+            sllTotalLook += info.SLL_TotalLook;
+            sllMaxLook = Math.max(sllMaxLook, info.SLL_MaxLook);
+            llFallbacks += info.LL_Fallback;
+            llTotalLook += info.LL_TotalLook;
+            llMaxLook = Math.max(llMaxLook, info.LL_MaxLook);
+            ambiguities += info.ambiguities.size();
+            contextSensitivities += info.contextSensitivities.size();
+            errors += info.errors.size();
+        }
+    }
+}
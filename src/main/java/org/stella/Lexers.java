@@ -0,0 +1,29 @@
+package org.stella;
+
+import org.antlr.v4.runtime.*;
+
+import org.syntax.stella.stellaLexer;
+
+/**
+ * The {@code stellaLexer} setup shared by the parsers that lex a file themselves, and the token
+ * types they use to find top-level declaration boundaries.
+ */
+final class Lexers {
+    static final int LBRACE = stellaLexer.Surrogate_id_SYMB_4;
+    static final int RBRACE = stellaLexer.Surrogate_id_SYMB_5;
+
+    private Lexers() {
+    }
+
+    /**
+     * A lexer for {@code input} that throws {@link TestError} on the first lexer error and interns
+     * identifiers in a fresh {@link Symbols} table.
+     */
+    static stellaLexer newLexer(CharStream input) {
+        var lexer = new stellaLexer(input);
+        lexer.removeErrorListeners();
+        lexer.addErrorListener(new BNFCErrorListener());
+        lexer.setTokenFactory(new Symbols().tokenFactory());
+        return lexer;
+    }
+}
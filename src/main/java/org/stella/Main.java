@@ -20,11 +20,10 @@ public class Main
     {
         try
         {
-            Reader input;
-            if (args.length == 0) input = new InputStreamReader(System.in);
-            else input = new FileReader(args[0]);
-            l = new stellaLexer(new ANTLRInputStream(input));
-            l.addErrorListener(new BNFCErrorListener());
+            CharStream input;
+            if (args.length == 0) input = CharStreams.fromStream(System.in);
+            else input = MappedCharStream.open(java.nio.file.Path.of(args[0]));
+            l = Lexers.newLexer(input);
         }
         catch(IOException e)
         {
@@ -45,23 +44,45 @@ public class Main
        matchCase, listMatchCase, pattern, listPattern, labelledPattern,
        listLabelledPattern, binding, listBinding, type, listType,
        fieldType, listFieldType, typing */
-        stellaParser.Start_ProgramContext pc = p.start_Program();
-        Program ast = pc.result;
-        return ast;
+        if (StellaCompiler.DESCENT || StellaCompiler.PARALLEL || StellaCompiler.TABLE_LEXER)
+        {
+            l.reset(); /* constructing p already pulled the first token */
+            return StellaCompiler.parse(l.getInputStream());
+        }
+        return ProgramParser.parse(p, ProgramParser.Strategy.SLL_THEN_LL);
     }
 
     public static void main(String args[]) throws Exception
     {
+        if (args.length == 2 && args[0].equals("--batch"))
+        {
+            int failures = BatchTypeCheck.run(java.nio.file.Path.of(args[1]), System.out, System.err);
+            if (failures > 0) System.exit(1);
+            return;
+        }
+        if (args.length == 2 && args[0].equals("--profile-grammar"))
+        {
+            int failures = GrammarProfiler.run(java.nio.file.Path.of(args[1]), System.out, System.err);
+            if (failures > 0) System.exit(1);
+            return;
+        }
         Main t = new Main(args);
         try
         {
             Program ast = t.parse();
-            TypeCheck.typecheckProgram(ast);
+            if (StellaCompiler.PARALLEL_CHECK)
+            {
+                TypeCheck.typecheckProgram(ast, java.util.concurrent.ForkJoinPool.commonPool());
+            }
+            else
+            {
+                TypeCheck.typecheckProgram(ast);
+            }
 
             if (args.length > 0) {
                 stellaLexer l;
                 stellaParser p;
-                l = new stellaLexer(new ANTLRInputStream(new InputStreamReader(System.in)));
+                l = new stellaLexer(CharStreams.fromStream(System.in));
                 l.addErrorListener(new BNFCErrorListener());
                 p = new stellaParser(new CommonTokenStream(l));
                 p.addErrorListener(new BNFCErrorListener());
@@ -80,38 +101,3 @@ public class Main
         }
     }
 }
-
-class TestError extends RuntimeException
-{
-    int line;
-    int column;
-    public TestError(String msg, int l, int c)
-    {
-        super(msg);
-        line = l;
-        column = c;
-    }
-}
-
-class BNFCErrorListener implements ANTLRErrorListener
-{
-    @Override
-    public void syntaxError(Recognizer<?, ?> recognizer, Object o, int i, int i1, String s, RecognitionException e)
-    {
-        throw new TestError(s,i,i1);
-    }
-    @Override
-    public void reportAmbiguity(Parser parser, DFA dfa, int i, int i1, boolean b, BitSet bitSet, ATNConfigSet atnConfigSet)
-    {
-        throw new TestError("Ambiguity at",i,i1);
-    }
-    @Override
-    public void reportAttemptingFullContext(Parser parser, DFA dfa, int i, int i1, BitSet bitSet, ATNConfigSet atnConfigSet)
-    {
-    }
-    @Override
-    public void reportContextSensitivity(Parser parser, DFA dfa, int i, int i1, int i2, ATNConfigSet atnConfigSet)
-    {
-    }
-}
-
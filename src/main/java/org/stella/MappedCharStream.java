@@ -0,0 +1,146 @@
+package org.stella;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.misc.Interval;
+
+/**
+ * A {@link CharStream} over a memory-mapped file with one byte per character.
+ * <p>
+ * The lexer reads straight from the mapping, so a source file is never copied into a heap
+ * {@code char[]} or {@code int[]}. This is only correct when every byte is a whole character:
+ * for Latin-1 files, and for ASCII or UTF-8 files that contain no bytes above {@code 0x7F}.
+ * {@link #open(Path, Charset)} checks this and otherwise falls back to
+ * {@link CharStreams#fromPath(Path, Charset)}.
+ */
+public final class MappedCharStream implements CharStream {
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private final ByteBuffer bytes;
+    private final int size;
+    private final String name;
+    private int position;
+
+    private MappedCharStream(ByteBuffer bytes, String name) {
+        this.bytes = bytes;
+        this.size = bytes.limit();
+        this.name = name;
+    }
+
+    /**
+     * Opens a UTF-8 source file.
+     */
+    public static CharStream open(Path path) throws IOException {
+        return open(path, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Maps {@code path} if its bytes are its characters in {@code charset}, or decodes it into a
+     * code point stream otherwise.
+     */
+    public static CharStream open(Path path, Charset charset) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var length = channel.size();
+            if (length <= Integer.MAX_VALUE) {
+                var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+                if (charset.equals(StandardCharsets.ISO_8859_1) || isAsciiCompatible(charset) && isAscii(buffer)) {
+                    return new MappedCharStream(buffer, path.toString());
+                }
+            }
+        }
+        return CharStreams.fromPath(path, charset);
+    }
+
+    private static boolean isAsciiCompatible(Charset charset) {
+        return charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII);
+    }
+
+    private static boolean isAscii(ByteBuffer buffer) {
+        var limit = buffer.limit();
+        var i = 0;
+        for (; i + Long.BYTES <= limit; i += Long.BYTES) {
+            if ((buffer.getLong(i) & HIGH_BITS) != 0) {
+                return false;
+            }
+        }
+        for (; i < limit; i++) {
+            if (buffer.get(i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String getText(Interval interval) {
+        var start = Math.max(interval.a, 0);
+        var stop = Math.min(interval.b, size - 1);
+        if (stop < start) {
+            return "";
+        }
+        var text = new byte[stop - start + 1];
+        bytes.get(start, text);
+        return new String(text, StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    public void consume() {
+        if (position >= size) {
+            throw new IllegalStateException("cannot consume EOF");
+        }
+        position++;
+    }
+
+    @Override
+    public int LA(int i) {
+        if (i == 0) {
+            return 0;
+        }
+        var index = i > 0 ? position + i - 1 : position + i;
+        if (index < 0 || index >= size) {
+            return IntStream.EOF;
+        }
+        return bytes.get(index) & 0xFF;
+    }
+
+    @Override
+    public int mark() {
+        return -1;
+    }
+
+    @Override
+    public void release(int marker) {
+    }
+
+    @Override
+    public int index() {
+        return position;
+    }
+
+    @Override
+    public void seek(int index) {
+        position = Math.min(Math.max(index, 0), size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String getSourceName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return getText(Interval.of(0, size - 1));
+    }
+}
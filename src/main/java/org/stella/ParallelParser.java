@@ -0,0 +1,162 @@
+package org.stella;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.antlr.v4.runtime.*;
+
+import org.syntax.stella.stellaLexer;
+import org.syntax.stella.Absyn.*;
+
+/**
+ * Parses the top-level declarations of one large program in parallel.
+ * <p>
+ * The input is lexed in full first. A pre-scan over the tokens then finds the top-level declaration
+ * boundaries: a token that can start a declaration ({@code fn}, {@code inline}, {@code generic},
+ * {@code type} or {@code exception}) right after a closing brace that brings the brace depth back to
+ * zero. Consecutive declarations are grouped into chunks of roughly equal token counts. The first
+ * chunk, which holds the {@code language} and {@code extend} header, is parsed with
+ * {@code start_Program} and the others with {@code start_ListDecl}, each on a {@link ForkJoinPool}
+ * task with that worker's {@link ParserPool} instances. Their declarations are appended to the first
+ * chunk's {@link AProgram} in source order.
+ * <p>
+ * A boundary that is not really one only makes a chunk fail to parse. If any chunk fails, the whole
+ * program is parsed again on the calling thread, so syntax errors are the ones a sequential parse
+ * reports and the resulting {@link Program} is always the one it builds.
+ */
+public final class ParallelParser {
+    private static final int EXCEPTION = stellaLexer.Surrogate_id_SYMB_47;
+    private static final int FN = stellaLexer.Surrogate_id_SYMB_51;
+    private static final int GENERIC = stellaLexer.Surrogate_id_SYMB_54;
+    private static final int INLINE = stellaLexer.Surrogate_id_SYMB_58;
+    private static final int TYPE = stellaLexer.Surrogate_id_SYMB_74;
+
+    /**
+     * Programs with fewer tokens per worker than this are parsed sequentially.
+     */
+    private static final int MIN_CHUNK_TOKENS = 4096;
+
+    private ParallelParser() {
+    }
+
+    /**
+     * Parses a whole program on {@code pool}, throwing {@link TestError} on the first lexer or parser
+     * error. Tokens come from {@link TableLexer} if {@code -Dstella.lexer=table} is set.
+     */
+    public static Program parse(CharStream input, ForkJoinPool pool) {
+        var start = input.index();
+        List<Token> tokens;
+        try {
+            tokens = lex(input);
+        } catch (TestError e) {
+            input.seek(start);
+            return ParserPool.parse(input);
+        }
+        var chunkTokens = Math.max(MIN_CHUNK_TOKENS, tokens.size() / (pool.getParallelism() * 4));
+        return parse(tokens, pool, chunkTokens);
+    }
+
+    static Program parse(List<Token> tokens, ForkJoinPool pool, int chunkTokens) {
+        var starts = split(tokens, chunkTokens);
+        if (starts.length == 1) {
+            return ParserPool.parse(new ListTokenSource(tokens));
+        }
+        var task = new ParseChunks(tokens, starts, 0, starts.length);
+        try {
+            pool.invoke(task);
+        } catch (TestError e) {
+            return ParserPool.parse(new ListTokenSource(tokens));
+        }
+        var program = (AProgram) task.program;
+        for (var decls : task.decls) {
+            if (decls != null) {
+                program.listdecl_.addAll(decls);
+            }
+        }
+        return program;
+    }
+
+    /**
+     * Drains a lexer for {@code input} into a list, without the final EOF token.
+     */
+    private static List<Token> lex(CharStream input) {
+        TokenSource source;
+        if (StellaCompiler.TABLE_LEXER) {
+            source = TableLexer.lex(input).source();
+        } else {
+            source = Lexers.newLexer(input);
+        }
+        var tokens = new ArrayList<Token>();
+        for (var token = source.nextToken(); token.getType() != Token.EOF; token = source.nextToken()) {
+            tokens.add(token);
+        }
+        return tokens;
+    }
+
+    /**
+     * Start indices of the chunks of {@code tokens}: the first is always 0, and every other one is a
+     * top-level declaration boundary at least {@code chunkTokens} tokens after the previous start.
+     */
+    static int[] split(List<Token> tokens, int chunkTokens) {
+        var starts = new ArrayList<Integer>();
+        starts.add(0);
+        var depth = 0;
+        for (var i = 0; i < tokens.size(); i++) {
+            var type = tokens.get(i).getType();
+            if (type == Lexers.LBRACE) {
+                depth++;
+            } else if (type == Lexers.RBRACE) {
+                depth--;
+            } else if (depth == 0 && i > 0 && tokens.get(i - 1).getType() == Lexers.RBRACE
+                    && startsDecl(type) && i - starts.get(starts.size() - 1) >= chunkTokens) {
+                starts.add(i);
+            }
+        }
+        return starts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    static boolean startsDecl(int type) {
+        return type == FN || type == INLINE || type == GENERIC || type == TYPE || type == EXCEPTION;
+    }
+
+    private static final class ParseChunks extends RecursiveAction {
+        private final List<Token> tokens;
+        private final int[] starts;
+        private final int from;
+        private final int to;
+        private final ListDecl[] decls;
+        private Program program;
+
+        ParseChunks(List<Token> tokens, int[] starts, int from, int to) {
+            this(tokens, starts, from, to, new ListDecl[starts.length]);
+        }
+
+        private ParseChunks(List<Token> tokens, int[] starts, int from, int to, ListDecl[] decls) {
+            this.tokens = tokens;
+            this.starts = starts;
+            this.from = from;
+            this.to = to;
+            this.decls = decls;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                var middle = (from + to) >>> 1;
+                var left = new ParseChunks(tokens, starts, from, middle, decls);
+                invokeAll(left, new ParseChunks(tokens, starts, middle, to, decls));
+                program = left.program;
+                return;
+            }
+            var end = from + 1 < starts.length ? starts[from + 1] : tokens.size();
+            var source = new ListTokenSource(tokens.subList(starts[from], end));
+            if (from == 0) {
+                program = ParserPool.parse(source);
+            } else {
+                decls[from] = ParserPool.parseDecls(source);
+            }
+        }
+    }
+}
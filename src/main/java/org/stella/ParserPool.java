@@ -0,0 +1,125 @@
+package org.stella;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.antlr.v4.runtime.*;
+
+import org.syntax.stella.*;
+import org.syntax.stella.Absyn.*;
+
+/**
+ * One reusable lexer, token stream and parser per thread.
+ * <p>
+ * {@link #parse(CharStream)} points the calling thread's lexer at the new input with
+ * {@code setInputStream} and a fresh {@link Symbols} table, rebinds the token stream, which keeps
+ * its buffer's capacity, and hands it to the parser, which resets itself. The prediction DFA lives
+ * in {@code stellaParser}'s static fields and is shared by every parser instance, so it stays warm
+ * across reuse. After each parse the instances drop their references to the input, its tokens and
+ * its symbols.
+ * <p>
+ * A nested call on a thread whose instances are busy parses with fresh instances instead. Every
+ * parse ends with {@link DfaCache#enforceLimit()}.
+ */
+public final class ParserPool {
+    /**
+     * Counts since startup of parses, of parses that reused a thread's instances, and of instance
+     * sets created.
+     */
+    public record Stats(long parses, long reuses, long created) {
+        public double reuseRate() {
+            return parses == 0 ? 0 : (double) reuses / parses;
+        }
+    }
+
+    private static final LongAdder parses = new LongAdder();
+    private static final LongAdder reuses = new LongAdder();
+    private static final LongAdder created = new LongAdder();
+
+    private static final ThreadLocal<Instances> local = new ThreadLocal<>();
+
+    private ParserPool() {
+    }
+
+    public static Stats stats() {
+        return new Stats(parses.sum(), reuses.sum(), created.sum());
+    }
+
+    /**
+     * Parses a whole program, throwing {@link TestError} on the first lexer or parser error.
+     */
+    public static Program parse(CharStream input) {
+        return instances().parse(input, null, parser -> ProgramParser.parse(parser, ProgramParser.Strategy.SLL_THEN_LL));
+    }
+
+    /**
+     * Parses a whole program from already lexed tokens, such as those of {@link TableLexer}.
+     */
+    public static Program parse(TokenSource source) {
+        return instances().parse(null, source, parser -> ProgramParser.parse(parser, ProgramParser.Strategy.SLL_THEN_LL));
+    }
+
+    /**
+     * Parses a run of top-level declarations from already lexed tokens, as {@link ParallelParser}
+     * does for each chunk of a program after the first.
+     */
+    public static ListDecl parseDecls(TokenSource source) {
+        return instances().parse(null, source, parser -> ProgramParser.parseDecls(parser, ProgramParser.Strategy.SLL_THEN_LL));
+    }
+
+    private static Instances instances() {
+        parses.increment();
+        var instances = local.get();
+        if (instances == null) {
+            instances = new Instances();
+            local.set(instances);
+        } else if (instances.busy) {
+            return new Instances();
+        } else {
+            reuses.increment();
+        }
+        return instances;
+    }
+
+    private static final class Instances {
+        private final stellaLexer lexer;
+        private final CommonTokenStream tokens;
+        private final stellaParser parser;
+        private boolean busy;
+
+        Instances() {
+            created.increment();
+            lexer = new stellaLexer(null);
+            lexer.removeErrorListeners();
+            lexer.addErrorListener(new BNFCErrorListener());
+            tokens = new CommonTokenStream(lexer);
+            parser = new stellaParser(tokens);
+            parser.removeErrorListeners();
+            parser.addErrorListener(new BNFCErrorListener());
+        }
+
+        /**
+         * Runs {@code rule} on {@code input} with the pooled lexer, or on the tokens of {@code source}
+         * if it is given.
+         */
+        <T> T parse(CharStream input, TokenSource source, Function<stellaParser, T> rule) {
+            busy = true;
+            try {
+                lexer.setInputStream(input);
+                if (input != null) {
+                    lexer.setTokenFactory(new Symbols().tokenFactory());
+                }
+                tokens.setTokenSource(source != null ? source : lexer);
+                parser.setTokenStream(tokens);
+                return rule.apply(parser);
+            } finally {
+                lexer.setInputStream(null);
+                lexer.setTokenFactory(CommonTokenFactory.DEFAULT);
+                tokens.setTokenSource(lexer);
+                parser.setTokenStream(tokens);
+                busy = false;
+                DfaCache.enforceLimit();
+            }
+        }
+    }
+}
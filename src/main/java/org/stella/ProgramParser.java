@@ -0,0 +1,99 @@
+package org.stella;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+import org.syntax.stella.*;
+import org.syntax.stella.Absyn.*;
+
+/**
+ * Runs {@code stellaParser.start_Program}, or {@code start_ListDecl} for a run of declarations,
+ * with a choice of prediction strategy.
+ * <p>
+ * {@link Strategy#SLL_THEN_LL} first parses in {@link PredictionMode#SLL} with a
+ * {@link BailErrorStrategy}, which never needs full-context prediction and stops at the first
+ * syntax error. Only if that fails is the input reparsed with full LL prediction and the parser's
+ * own error listeners and strategy, so syntax errors are reported exactly as before. Ambiguities
+ * are reported only during full-context prediction, so programs accepted in the SLL stage never
+ * trigger them.
+ * <p>
+ * Parse tree construction is switched off in either strategy. The grammar actions build the
+ * {@link Program} as they go, so the {@code ParserRuleContext} tree would only be garbage that stays
+ * reachable from the start rule's context until the parse finishes.
+ */
+public final class ProgramParser {
+    public enum Strategy {
+        LL, SLL_THEN_LL
+    }
+
+    /**
+     * Counts of {@link Strategy#SLL_THEN_LL} parses since startup and of those that fell back to LL.
+     */
+    public record Stats(long parses, long fallbacks) {
+    }
+
+    private static final LongAdder parses = new LongAdder();
+    private static final LongAdder fallbacks = new LongAdder();
+
+    private ProgramParser() {
+    }
+
+    public static Stats stats() {
+        return new Stats(parses.sum(), fallbacks.sum());
+    }
+
+    /**
+     * Parses a whole program from the start of the parser's token stream.
+     */
+    public static Program parse(stellaParser parser, Strategy strategy) {
+        return parse(parser, strategy, p -> p.start_Program().result);
+    }
+
+    /**
+     * Parses a run of top-level declarations, without the language and extension header, from the
+     * start of the parser's token stream.
+     */
+    public static ListDecl parseDecls(stellaParser parser, Strategy strategy) {
+        return parse(parser, strategy, p -> p.start_ListDecl().result);
+    }
+
+    private static <T> T parse(stellaParser parser, Strategy strategy, Function<stellaParser, T> rule) {
+        parser.setBuildParseTree(false);
+        if (strategy == Strategy.LL) {
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            return rule.apply(parser);
+        }
+        parses.increment();
+        List<? extends ANTLRErrorListener> listeners = List.copyOf(parser.getErrorListeners());
+        var errorHandler = parser.getErrorHandler();
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        try {
+            return rule.apply(parser);
+        } catch (ParseCancellationException e) {
+            fallbacks.increment();
+            parser.reset();
+            restore(parser, listeners, errorHandler);
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            return rule.apply(parser);
+        } finally {
+            if (parser.getErrorHandler() != errorHandler) {
+                restore(parser, listeners, errorHandler);
+            }
+        }
+    }
+
+    private static void restore(stellaParser parser, List<? extends ANTLRErrorListener> listeners, ANTLRErrorStrategy errorHandler) {
+        parser.removeErrorListeners();
+        for (var listener : listeners) {
+            parser.addErrorListener(listener);
+        }
+        parser.setErrorHandler(errorHandler);
+    }
+}
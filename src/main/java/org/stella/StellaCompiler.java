@@ -0,0 +1,144 @@
+package org.stella;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import org.antlr.v4.runtime.*;
+
+import org.stella.typecheck.StellaTypeError;
+import org.stella.typecheck.TypeCheck;
+import org.syntax.stella.Absyn.*;
+
+/**
+ * Embeddable entry point for the Stella typechecker.
+ * <p>
+ * Unlike {@link Main}, it never reads {@code System.in}, never prints and never exits the JVM:
+ * every outcome is reported as a {@link CompileResult}. Each call uses its thread's own lexer and
+ * parser from {@link ParserPool} and a fresh typechecking visitor, so it is safe to call
+ * concurrently from many threads.
+ */
+public final class StellaCompiler {
+    /**
+     * Whether programs are parsed with the hand-written {@link DescentParser} instead of the ANTLR
+     * parser; set with {@code -Dstella.parser=descent}.
+     */
+    static final boolean DESCENT = "descent".equals(System.getProperty("stella.parser"));
+
+    /**
+     * Whether programs are parsed with {@link ParallelParser} on the common pool; set with
+     * {@code -Dstella.parser=parallel}.
+     */
+    static final boolean PARALLEL = "parallel".equals(System.getProperty("stella.parser"));
+
+    /**
+     * Whether programs are lexed with the hand-written {@link TableLexer} instead of the ANTLR
+     * lexer; set with {@code -Dstella.lexer=table}.
+     */
+    static final boolean TABLE_LEXER = "table".equals(System.getProperty("stella.lexer"));
+
+    /**
+     * Whether programs are parsed and checked one top-level declaration at a time through
+     * {@link DeclStream}; set with {@code -Dstella.check=streaming}.
+     */
+    static final boolean STREAMING = "streaming".equals(System.getProperty("stella.check"));
+
+    /**
+     * Whether the bodies of top-level functions are checked in parallel on the common pool, through
+     * {@link TypeCheck#typecheckProgram(Program, ForkJoinPool)}; set with {@code -Dstella.check=parallel}.
+     */
+    static final boolean PARALLEL_CHECK = "parallel".equals(System.getProperty("stella.check"));
+
+    private StellaCompiler() {
+    }
+
+    public static CompileResult typecheck(CharSequence source) {
+        return typecheck(CharStreams.fromString(source.toString()));
+    }
+
+    public static CompileResult typecheck(Path path) throws IOException {
+        return typecheck(MappedCharStream.open(path));
+    }
+
+    public static CompileResult typecheck(CharStream input) {
+        if (STREAMING) {
+            return typecheckStreaming(input);
+        }
+        return typecheckWhole(input, PARALLEL_CHECK ? ForkJoinPool.commonPool() : null);
+    }
+
+    /**
+     * Parses {@code input} whole and checks it, with the bodies of top-level functions checked on
+     * {@code pool} unless it is {@code null}.
+     */
+    static CompileResult typecheckWhole(CharStream input, ForkJoinPool pool) {
+        var parseStart = System.nanoTime();
+        Program program;
+        try {
+            program = parse(input);
+        } catch (TestError e) {
+            return CompileResult.syntaxError(e.getMessage(), e.line, e.column, System.nanoTime() - parseStart);
+        }
+        var parseNanos = System.nanoTime() - parseStart;
+
+        var checkStart = System.nanoTime();
+        try {
+            if (pool == null) {
+                TypeCheck.typecheckProgram(program);
+            } else {
+                TypeCheck.typecheckProgram(program, pool);
+            }
+        } catch (StellaTypeError e) {
+            return CompileResult.typeError(e, parseNanos, System.nanoTime() - checkStart);
+        } catch (Exception e) {
+            return CompileResult.internalError(e, parseNanos, System.nanoTime() - checkStart);
+        }
+        return CompileResult.ok(parseNanos, System.nanoTime() - checkStart);
+    }
+
+    /**
+     * Checks the declarations of {@code input} as {@link DeclStream} parses them, so that memory is
+     * bounded by the largest declaration rather than the whole program. Programs with a syntax error
+     * or a redefined global name are parsed and checked again whole, so every result is the one
+     * {@link #typecheckWhole(CharStream, ForkJoinPool)} gives. Parse time is the time spent in {@link DeclStream};
+     * the rest is reported as typechecking time.
+     */
+    private static CompileResult typecheckStreaming(CharStream input) {
+        var start = System.nanoTime();
+        var position = input.index();
+        var decls = new DeclStream(input);
+        try {
+            if (TypeCheck.typecheckDecls(decls)) {
+                return CompileResult.ok(decls.parseNanos(), System.nanoTime() - start - decls.parseNanos());
+            }
+        } catch (TestError e) {
+            // Fall through to the whole-program parse, which words the error as usual.
+        } catch (StellaTypeError e) {
+            return CompileResult.typeError(e, decls.parseNanos(), System.nanoTime() - start - decls.parseNanos());
+        } catch (Exception e) {
+            return CompileResult.internalError(e, decls.parseNanos(), System.nanoTime() - start - decls.parseNanos());
+        }
+        input.seek(position);
+        return typecheckWhole(input, null);
+    }
+
+    /**
+     * Parses a whole program, throwing {@link TestError} on the first lexer or parser error.
+     * Uses {@link ProgramParser.Strategy#SLL_THEN_LL} on the calling thread's {@link ParserPool}
+     * instances, or {@link DescentParser} if {@link #DESCENT} is set, or {@link ParallelParser} if
+     * {@link #PARALLEL} is set. Tokens come from {@link TableLexer} if {@link #TABLE_LEXER} is set.
+     */
+    static Program parse(CharStream input) {
+        if (PARALLEL) {
+            return ParallelParser.parse(input, ForkJoinPool.commonPool());
+        }
+        if (TABLE_LEXER) {
+            var source = TableLexer.lex(input).source();
+            return DESCENT ? DescentParser.parse(source) : ParserPool.parse(source);
+        }
+        if (DESCENT) {
+            return DescentParser.parse(Lexers.newLexer(input));
+        }
+        return ParserPool.parse(input);
+    }
+}
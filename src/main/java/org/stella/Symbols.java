@@ -0,0 +1,108 @@
+package org.stella;
+
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.misc.Interval;
+import org.antlr.v4.runtime.misc.Pair;
+
+import org.stella.util.HashSlots;
+import org.syntax.stella.stellaLexer;
+
+/**
+ * Per-compilation table of identifier texts.
+ * <p>
+ * The abstract syntax keeps names and labels as {@code String}s, so the interned {@code String} is
+ * the symbol: every occurrence of an identifier in one compilation refers to the same instance,
+ * which computes its hash code once and caches it, and two occurrences name the same thing exactly
+ * when they are the same object. Scope lookups, record field and variant label searches and type
+ * interning in the checker then hash each name once per compilation rather than once per
+ * occurrence, and their comparisons succeed on the identity check that {@link String#equals} makes
+ * first. The AST also keeps one copy of each name instead of one per occurrence.
+ * <p>
+ * {@link #tokenFactory()} interns identifiers and extension names as a {@code stellaLexer} emits
+ * them; {@link TableLexer} interns them in place in its input through
+ * {@link #intern(String, int, int, int)}.
+ */
+public final class Symbols {
+    private String[] table = new String[64];
+    private int count;
+
+    /**
+     * Returns the instance of {@code text} in this table, adding it if it is new.
+     */
+    public String intern(String text) {
+        var mask = table.length - 1;
+        var slot = HashSlots.first(text.hashCode(), table.length);
+        for (var symbol = table[slot]; symbol != null; symbol = table[slot]) {
+            if (symbol.equals(text)) {
+                return symbol;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = text;
+        if (++count * 2 > table.length) {
+            rehash();
+        }
+        return text;
+    }
+
+    /**
+     * Returns the instance of {@code text.substring(start, end)} in this table, adding it if it is
+     * new. {@code hash} is the hash code of that substring; the substring is only created when it is
+     * new.
+     */
+    String intern(String text, int start, int end, int hash) {
+        var mask = table.length - 1;
+        var slot = HashSlots.first(hash, table.length);
+        for (var symbol = table[slot]; symbol != null; symbol = table[slot]) {
+            if (symbol.hashCode() == hash && symbol.length() == end - start && text.startsWith(symbol, start)) {
+                return symbol;
+            }
+            slot = (slot + 1) & mask;
+        }
+        var symbol = text.substring(start, end);
+        table[slot] = symbol;
+        if (++count * 2 > table.length) {
+            rehash();
+        }
+        return symbol;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * A token factory that gives every identifier and extension name token the text interned in
+     * this table.
+     */
+    public TokenFactory<CommonToken> tokenFactory() {
+        return new Factory();
+    }
+
+    private void rehash() {
+        var old = table;
+        table = new String[old.length * 2];
+        var mask = table.length - 1;
+        for (var symbol : old) {
+            if (symbol != null) {
+                var slot = HashSlots.first(symbol.hashCode(), table.length);
+                while (table[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = symbol;
+            }
+        }
+    }
+
+    private final class Factory extends CommonTokenFactory {
+        @Override
+        public CommonToken create(Pair<TokenSource, CharStream> source, int type, String text, int channel,
+                int start, int stop, int line, int charPositionInLine) {
+            if (text == null && (type == stellaLexer.StellaIdent || type == stellaLexer.ExtensionName)
+                    && source.b != null) {
+                text = intern(source.b.getText(Interval.of(start, stop)));
+            }
+            return super.create(source, type, text, channel, start, stop, line, charPositionInLine);
+        }
+    }
+}
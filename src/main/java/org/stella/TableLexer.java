@@ -0,0 +1,453 @@
+package org.stella;
+
+import java.util.Arrays;
+
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.misc.Interval;
+import org.antlr.v4.runtime.misc.Pair;
+
+import org.stella.util.HashSlots;
+import org.syntax.stella.stellaLexer;
+
+/**
+ * Hand-written lexer for Stella that produces the same tokens as {@code stellaLexer} without going
+ * through ANTLR's lexer ATN simulator.
+ * <p>
+ * Characters are classified by a 256-entry table, punctuation is looked up in one- and two-character
+ * tables, and identifier-like words are looked up in a keyword hash table; all three are built from
+ * {@code stellaLexer.VOCABULARY}, so token types always agree with the generated lexer. The ANTLR
+ * rules are reproduced exactly, including their longest-match behavior: an identifier may contain
+ * {@code !-:?}, a keyword wins only over an identifier of the same length, and a comment or memory
+ * address that never completes falls back to the shorter token ANTLR would emit.
+ * <p>
+ * {@link #lex(CharStream)} returns the whole input as {@link Tokens}, a set of parallel arrays. The
+ * text of identifiers and extension names is interned in a {@link Symbols} table, and keywords use
+ * the text of the keyword table: every occurrence of the same word in one input refers to the same
+ * {@code String}. {@link Tokens#source()} replays the tokens as a {@link TokenSource} for
+ * {@code stellaParser} or {@link DescentParser}.
+ */
+public final class TableLexer {
+    private static final int IDENT_START = 1;
+    private static final int IDENT_PART = 2;
+    private static final int DIGIT = 4;
+    private static final int HEX = 8;
+    private static final int EXTENSION_PART = 16;
+    private static final int SPACE = 32;
+
+    /**
+     * Stands in for code points above {@code U+FFFF}, which can only ever be lexed as a one-character
+     * {@code ErrorToken}, so that every input character is one {@code char} of the scanned text.
+     */
+    private static final char SUPPLEMENTARY = '\uFFFF';
+
+    private static final int[] CLASSES = new int[256];
+    private static final int[] SINGLE = new int[256];
+    private static final int[] DOUBLE = new int[128 * 128];
+
+    /** Keywords by hash code with open addressing, and their token types. */
+    private static final String[] KEYWORDS = new String[256];
+    private static final int[] KEYWORD_TYPES = new int[KEYWORDS.length];
+
+    static {
+        for (var c = 'a'; c <= 'z'; c++) {
+            CLASSES[c] |= IDENT_START;
+            CLASSES[Character.toUpperCase(c)] |= IDENT_START;
+        }
+        for (var c = 0xC0; c <= 0xFF; c++) {
+            if (c != 0xD7 && c != 0xF7) {
+                CLASSES[c] |= IDENT_START;
+            }
+        }
+        CLASSES['_'] |= IDENT_START;
+        for (var c = '0'; c <= '9'; c++) {
+            CLASSES[c] |= DIGIT | HEX;
+        }
+        for (var c = 'a'; c <= 'f'; c++) {
+            CLASSES[c] |= HEX;
+            CLASSES[Character.toUpperCase(c)] |= HEX;
+        }
+        for (var c = 0; c < CLASSES.length; c++) {
+            if ((CLASSES[c] & (IDENT_START | DIGIT)) != 0) {
+                CLASSES[c] |= IDENT_PART | EXTENSION_PART;
+            }
+        }
+        for (var c : "!-:?".toCharArray()) {
+            CLASSES[c] |= IDENT_PART;
+        }
+        CLASSES['-'] |= EXTENSION_PART;
+        for (var c : " \r\t\n\f".toCharArray()) {
+            CLASSES[c] |= SPACE;
+        }
+
+        var vocabulary = stellaLexer.VOCABULARY;
+        for (var type = 1; type <= vocabulary.getMaxTokenType(); type++) {
+            var literal = vocabulary.getLiteralName(type);
+            if (literal == null) {
+                continue;
+            }
+            var text = literal.substring(1, literal.length() - 1);
+            if (isWord(text)) {
+                addKeyword(text, type);
+            } else if (text.length() == 1 && text.charAt(0) < SINGLE.length) {
+                SINGLE[text.charAt(0)] = type;
+            } else if (text.length() == 2 && text.charAt(0) < 128 && text.charAt(1) < 128) {
+                DOUBLE[text.charAt(0) * 128 + text.charAt(1)] = type;
+            } else {
+                throw new IllegalStateException("no lexer table entry for literal " + literal);
+            }
+        }
+    }
+
+    private final String text;
+    private final Tokens tokens;
+    private final Symbols symbols;
+
+    private TableLexer(CharStream input, Symbols symbols) {
+        this.text = scannedText(input);
+        this.tokens = new Tokens(input, Math.max(16, text.length() / 4));
+        this.symbols = symbols;
+    }
+
+    /**
+     * Tokenizes {@code input} from its current position to its end. The input itself is not moved.
+     */
+    public static Tokens lex(CharStream input) {
+        return lex(input, new Symbols());
+    }
+
+    /**
+     * Like {@link #lex(CharStream)}, interning identifiers and extension names in {@code symbols}.
+     */
+    public static Tokens lex(CharStream input, Symbols symbols) {
+        var lexer = new TableLexer(input, symbols);
+        lexer.tokenize(input.index());
+        return lexer.tokens;
+    }
+
+    /**
+     * The input with one {@code char} per character, so that string indices are stream indices.
+     */
+    private static String scannedText(CharStream input) {
+        var text = input.getText(Interval.of(0, input.size() - 1));
+        if (text.length() == input.size()) {
+            return text;
+        }
+        var scanned = new StringBuilder(input.size());
+        text.codePoints().forEach(c -> scanned.append(Character.isBmpCodePoint(c) ? (char) c : SUPPLEMENTARY));
+        return scanned.toString();
+    }
+
+    private static boolean isWord(String text) {
+        if (text.isEmpty() || !is(text.charAt(0), IDENT_START)) {
+            return false;
+        }
+        for (var i = 1; i < text.length(); i++) {
+            if (!is(text.charAt(i), IDENT_PART)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addKeyword(String text, int type) {
+        var slot = HashSlots.first(text.hashCode(), KEYWORDS.length);
+        while (KEYWORDS[slot] != null) {
+            slot = (slot + 1) & (KEYWORDS.length - 1);
+        }
+        KEYWORDS[slot] = text;
+        KEYWORD_TYPES[slot] = type;
+    }
+
+    private static boolean is(int c, int classes) {
+        return c >= 0 && c < CLASSES.length && (CLASSES[c] & classes) != 0;
+    }
+
+    private int at(int index) {
+        return index < text.length() ? text.charAt(index) : IntStream.EOF;
+    }
+
+    private void tokenize(int start) {
+        while (start < text.length()) {
+            start += scan(start, text.charAt(start));
+        }
+        tokens.add(Token.EOF, start, start - 1, null);
+    }
+
+    /**
+     * Emits or skips the token starting at {@code start} with first character {@code c}.
+     *
+     * @return its length in characters
+     */
+    private int scan(int start, char c) {
+        if (is(c, SPACE)) {
+            return skip(start, run(start + 1, SPACE));
+        }
+        if (is(c, IDENT_START)) {
+            return word(start, IDENT_PART, stellaLexer.StellaIdent);
+        }
+        if (is(c, DIGIT)) {
+            return emit(stellaLexer.INTEGER, start, run(start + 1, DIGIT));
+        }
+        if (c == '#') {
+            if (is(at(start + 1), EXTENSION_PART)) {
+                return word(start, EXTENSION_PART, stellaLexer.ExtensionName);
+            }
+            return emit(stellaLexer.ErrorToken, start, start + 1);
+        }
+        if (c == '/') {
+            var end = comment(start);
+            if (end > start) {
+                return skip(start, end);
+            }
+        }
+        if (c == '<') {
+            var end = memoryAddress(start);
+            if (end > start) {
+                return emit(stellaLexer.MemoryAddress, start, end);
+            }
+        }
+        var next = at(start + 1);
+        if (c < 128 && next >= 0 && next < 128 && DOUBLE[c * 128 + next] != 0) {
+            return emit(DOUBLE[c * 128 + next], start, start + 2);
+        }
+        if (c < SINGLE.length && SINGLE[c] != 0) {
+            return emit(SINGLE[c], start, start + 1);
+        }
+        return emit(stellaLexer.ErrorToken, start, start + 1);
+    }
+
+    /**
+     * End of the run of characters of {@code classes} starting at {@code from}.
+     */
+    private int run(int from, int classes) {
+        var text = this.text;
+        var end = from;
+        while (end < text.length() && is(text.charAt(end), classes)) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * End of a {@code //} or {@code /*} comment starting at {@code start}, or {@code start} if none
+     * completes there. A line comment must end with {@code \n}, {@code \r\n} or the end of input.
+     */
+    private int comment(int start) {
+        var second = at(start + 1);
+        if (second == '/') {
+            for (var end = start + 2; ; end++) {
+                var c = at(end);
+                if (c == IntStream.EOF) {
+                    return end;
+                } else if (c == '\n') {
+                    return end + 1;
+                } else if (c == '\r') {
+                    return at(end + 1) == '\n' ? end + 2 : start;
+                }
+            }
+        }
+        if (second == '*') {
+            var end = text.indexOf("*/", start + 2);
+            return end < 0 ? start : end + 2;
+        }
+        return start;
+    }
+
+    /**
+     * End of a {@code <0x...>} memory address starting at {@code start}, or {@code start} if none.
+     */
+    private int memoryAddress(int start) {
+        if (at(start + 1) != '0' || at(start + 2) != 'x') {
+            return start;
+        }
+        var end = run(start + 3, HEX);
+        return end > start + 3 && at(end) == '>' ? end + 1 : start;
+    }
+
+    private int emit(int type, int start, int end) {
+        tokens.add(type, start, end - 1, null);
+        return end - start;
+    }
+
+    /**
+     * Emits the identifier-like token that starts at {@code start} and continues with characters of
+     * {@code classes}: a keyword if the word is one, else a token of {@code type} whose text is
+     * interned in {@link #symbols}.
+     *
+     * @return its length in characters
+     */
+    private int word(int start, int classes, int type) {
+        var text = this.text;
+        int hash = text.charAt(start);
+        var end = start + 1;
+        for (char c; end < text.length() && is(c = text.charAt(end), classes); end++) {
+            hash = 31 * hash + c;
+        }
+        var mask = KEYWORDS.length - 1;
+        for (var slot = HashSlots.first(hash, KEYWORDS.length); KEYWORDS[slot] != null; slot = (slot + 1) & mask) {
+            var keyword = KEYWORDS[slot];
+            if (keyword.hashCode() == hash && keyword.length() == end - start && text.startsWith(keyword, start)) {
+                tokens.add(KEYWORD_TYPES[slot], start, end - 1, keyword);
+                return end - start;
+            }
+        }
+        tokens.add(type, start, end - 1, symbols.intern(text, start, end, hash));
+        return end - start;
+    }
+
+    /**
+     * Records the line breaks among the skipped characters from {@code start} to {@code end}.
+     *
+     * @return their number
+     */
+    private int skip(int start, int end) {
+        for (var i = text.indexOf('\n', start); i >= 0 && i < end; i = text.indexOf('\n', i + 1)) {
+            tokens.addLine(i + 1);
+        }
+        return end - start;
+    }
+
+    /**
+     * The tokens of one input as parallel arrays, ending with an EOF token. Only default-channel
+     * tokens are kept, as {@code stellaLexer} skips whitespace and comments. Lines and columns are
+     * not stored per token but found from the start index of every line.
+     */
+    public static final class Tokens {
+        private final CharStream input;
+        private int count;
+        private int[] types;
+        private int[] starts;
+        private int[] stops;
+        private String[] texts;
+        private int lineCount = 1;
+        private int[] lineStarts = new int[64];
+
+        private Tokens(CharStream input, int capacity) {
+            this.input = input;
+            types = new int[capacity];
+            starts = new int[capacity];
+            stops = new int[capacity];
+            texts = new String[capacity];
+        }
+
+        private void add(int type, int start, int stop, String text) {
+            if (count == types.length) {
+                var capacity = count * 2;
+                types = Arrays.copyOf(types, capacity);
+                starts = Arrays.copyOf(starts, capacity);
+                stops = Arrays.copyOf(stops, capacity);
+                texts = Arrays.copyOf(texts, capacity);
+            }
+            types[count] = type;
+            starts[count] = start;
+            stops[count] = stop;
+            texts[count] = text;
+            count++;
+        }
+
+        private void addLine(int start) {
+            if (lineCount == lineStarts.length) {
+                lineStarts = Arrays.copyOf(lineStarts, lineCount * 2);
+            }
+            lineStarts[lineCount++] = start;
+        }
+
+        /**
+         * Number of tokens, including the final EOF.
+         */
+        public int size() {
+            return count;
+        }
+
+        public int type(int index) {
+            return types[index];
+        }
+
+        public int start(int index) {
+            return starts[index];
+        }
+
+        public int stop(int index) {
+            return stops[index];
+        }
+
+        /**
+         * Line of a token, counting from 1.
+         */
+        public int line(int index) {
+            var line = Arrays.binarySearch(lineStarts, 0, lineCount, starts[index]);
+            return line >= 0 ? line + 1 : -line - 1;
+        }
+
+        /**
+         * Column of a token, counting from 0.
+         */
+        public int column(int index) {
+            return starts[index] - lineStarts[line(index) - 1];
+        }
+
+        public String text(int index) {
+            if (texts[index] != null) {
+                return texts[index];
+            }
+            return types[index] == Token.EOF ? "<EOF>" : input.getText(Interval.of(starts[index], stops[index]));
+        }
+
+        /**
+         * A fresh {@link TokenSource} that returns these tokens as {@link CommonToken}s, one per call.
+         */
+        public TokenSource source() {
+            return new Source();
+        }
+
+        private final class Source implements TokenSource {
+            private final Pair<TokenSource, CharStream> origin = new Pair<>(this, input);
+            private TokenFactory<?> factory = CommonTokenFactory.DEFAULT;
+            private int next;
+            private int line = 1;
+
+            @Override
+            public Token nextToken() {
+                var index = Math.min(next, count - 1);
+                if (next < count) {
+                    next++;
+                }
+                while (line < lineCount && lineStarts[line] <= starts[index]) {
+                    line++;
+                }
+                return factory.create(origin, types[index], texts[index], Token.DEFAULT_CHANNEL,
+                        starts[index], stops[index], line, starts[index] - lineStarts[line - 1]);
+            }
+
+            @Override
+            public int getLine() {
+                return line(Math.min(next, count - 1));
+            }
+
+            @Override
+            public int getCharPositionInLine() {
+                return column(Math.min(next, count - 1));
+            }
+
+            @Override
+            public CharStream getInputStream() {
+                return input;
+            }
+
+            @Override
+            public String getSourceName() {
+                return input.getSourceName();
+            }
+
+            @Override
+            public void setTokenFactory(TokenFactory<?> factory) {
+                this.factory = factory;
+            }
+
+            @Override
+            public TokenFactory<?> getTokenFactory() {
+                return factory;
+            }
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package org.stella.gen;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.stella.typecheck.ErrorCode;
+import org.syntax.stella.PrettyPrinter;
+import org.syntax.stella.Absyn.*;
+
+/**
+ * Seeded generator of synthetic Stella programs for scaling and stress benchmarks.
+ * <p>
+ * A program is a chain of {@code functions} functions {@code f0 ... fN} of type {@code fn(Nat) -> Nat}
+ * followed by {@code main}. Each body is a chain of {@code letDepth} lets whose right-hand sides are
+ * random {@code Nat} expressions of nesting depth up to {@code exprDepth}: successors, conditionals,
+ * calls to earlier functions, projections from records of {@code width} fields, matches over
+ * variants of {@code width} labels and heads of list literals of {@code listLength} elements.
+ * <p>
+ * The same seed and options always produce the same program. An ill-typed program is a well-typed
+ * one with a single defect planted in the body of one function, so the checker is expected to report
+ * exactly the requested {@link ErrorCode}.
+ */
+public final class ProgramGenerator {
+    /**
+     * Size knobs of a generated program; all counts must be at least 1.
+     */
+    public record Options(int functions, int letDepth, int exprDepth, int width, int listLength) {
+        public Options {
+            if (functions < 1 || letDepth < 1 || exprDepth < 1 || width < 1 || listLength < 1) {
+                throw new IllegalArgumentException("generator options must be positive: " + this);
+            }
+        }
+
+        public static Options ofSize(int functions) {
+            return new Options(functions, 4, 3, 4, 4);
+        }
+    }
+
+    /**
+     * A generated program and the error the checker should report for it ({@code null} if none).
+     */
+    public record Generated(Program program, ErrorCode expectedError) {
+        public String source() {
+            return PrettyPrinter.print(program);
+        }
+    }
+
+    private static final Set<ErrorCode> SUPPORTED_ERRORS = EnumSet.of(
+            ErrorCode.ERROR_UNDEFINED_VARIABLE,
+            ErrorCode.ERROR_UNEXPECTED_TYPE_FOR_EXPRESSION,
+            ErrorCode.ERROR_NOT_A_FUNCTION,
+            ErrorCode.ERROR_NOT_A_RECORD,
+            ErrorCode.ERROR_UNEXPECTED_FIELD_ACCESS,
+            ErrorCode.ERROR_UNEXPECTED_VARIANT_LABEL,
+            ErrorCode.ERROR_NONEXHAUSTIVE_MATCH_PATTERNS);
+
+    private static final String[] EXTENSIONS = {
+            "#natural-literals", "#let-bindings", "#records", "#variants", "#lists", "#type-ascriptions"
+    };
+
+    private final SplittableRandom random;
+    private final Options options;
+
+    public ProgramGenerator(long seed, Options options) {
+        this.random = new SplittableRandom(seed);
+        this.options = options;
+    }
+
+    /**
+     * @return the error codes {@link #generate(ErrorCode)} can plant
+     */
+    public static Set<ErrorCode> supportedErrors() {
+        return SUPPORTED_ERRORS;
+    }
+
+    public Generated generate() {
+        return new Generated(program(-1, null), null);
+    }
+
+    /**
+     * Generates a program that is well-typed except for one occurrence of {@code error}.
+     */
+    public Generated generate(ErrorCode error) {
+        if (!SUPPORTED_ERRORS.contains(error)) {
+            throw new IllegalArgumentException("cannot generate " + error);
+        }
+        if (error == ErrorCode.ERROR_NONEXHAUSTIVE_MATCH_PATTERNS && options.width() < 2) {
+            throw new IllegalArgumentException(error + " needs a width of at least 2");
+        }
+        return new Generated(program(random.nextInt(options.functions()), error), error);
+    }
+
+    private Program program(int faultyFunction, ErrorCode error) {
+        var extensionNames = new ListExtensionName();
+        for (var extension : EXTENSIONS) {
+            extensionNames.add(extension);
+        }
+        var extensions = new ListExtension();
+        extensions.add(new AnExtension(extensionNames));
+
+        var decls = new ListDecl();
+        for (var i = 0; i < options.functions(); i++) {
+            decls.add(function("f" + i, "x", body(i, i == faultyFunction ? error : null)));
+        }
+        decls.add(function("main", "n", call(options.functions() - 1, new Var("n"))));
+        return new AProgram(new LanguageCore(), extensions, decls);
+    }
+
+    private static DeclFun function(String name, String param, Expr body) {
+        var params = new ListParamDecl();
+        params.add(new AParamDecl(param, new TypeNat()));
+        return new DeclFun(new ListAnnotation(), name, params, new SomeReturnType(new TypeNat()),
+                new NoThrowType(), new ListDecl(), body);
+    }
+
+    private static Expr call(int function, Expr argument) {
+        var arguments = new ListExpr();
+        arguments.add(argument);
+        return new Application(new Var("f" + function), arguments);
+    }
+
+    /**
+     * The body of function {@code index}: a let chain ending in a random expression, or in the
+     * planted defect if {@code error} is set.
+     */
+    private Expr body(int index, ErrorCode error) {
+        var scope = new ArrayList<String>();
+        scope.add("x");
+        var bindings = new ArrayList<APatternBinding>();
+        for (var i = 0; i < options.letDepth(); i++) {
+            bindings.add(new APatternBinding(new PatternVar("v" + i), natExpr(index, scope, options.exprDepth())));
+            scope.add("v" + i);
+        }
+        Expr result = error == null ? natExpr(index, scope, options.exprDepth()) : defect(error, scope);
+        for (var i = bindings.size() - 1; i >= 0; i--) {
+            var patternBindings = new ListPatternBinding();
+            patternBindings.add(bindings.get(i));
+            result = new Let(patternBindings, result);
+        }
+        return result;
+    }
+
+    private Expr defect(ErrorCode error, ArrayList<String> scope) {
+        var variable = new Var(pick(scope));
+        return switch (error) {
+            case ERROR_UNDEFINED_VARIABLE -> new Succ(new Var("undefined"));
+            case ERROR_UNEXPECTED_TYPE_FOR_EXPRESSION -> new ConstTrue();
+            case ERROR_NOT_A_FUNCTION -> {
+                var arguments = new ListExpr();
+                arguments.add(new Var(pick(scope)));
+                yield new Application(variable, arguments);
+            }
+            case ERROR_NOT_A_RECORD -> new DotRecord(variable, "a0");
+            case ERROR_UNEXPECTED_FIELD_ACCESS -> new DotRecord(record(variable, 0), "missing");
+            case ERROR_UNEXPECTED_VARIANT_LABEL -> match(variant("missing", variable), 0);
+            case ERROR_NONEXHAUSTIVE_MATCH_PATTERNS -> match(variant("l0", variable), 1);
+            default -> throw new IllegalArgumentException("cannot generate " + error);
+        };
+    }
+
+    /**
+     * A random expression of type {@code Nat} over the variables in {@code scope}. Only one
+     * operand of a compound expression is nested further, so the size stays linear in the depth.
+     */
+    private Expr natExpr(int function, ArrayList<String> scope, int depth) {
+        if (depth == 0) {
+            return random.nextInt(4) == 0 ? new ConstInt(random.nextInt(10)) : new Var(pick(scope));
+        }
+        var nested = natExpr(function, scope, depth - 1);
+        return switch (random.nextInt(function > 0 ? 6 : 5)) {
+            case 0 -> new Succ(nested);
+            case 1 -> new If(new IsZero(nested), natExpr(function, scope, 0), natExpr(function, scope, 0));
+            case 2 -> new DotRecord(record(nested, random.nextInt(options.width())), "a" + random.nextInt(options.width()));
+            case 3 -> match(variant("l" + random.nextInt(options.width()), nested), 0);
+            case 4 -> new TypeAsc(new Head(list(nested, scope)), new TypeNat());
+            default -> call(random.nextInt(function), nested);
+        };
+    }
+
+    /**
+     * A record {@code {a0 = ..., a1 = ...}} of {@code width} fields with {@code field} at {@code position}.
+     */
+    private Expr record(Expr field, int position) {
+        var bindings = new ListBinding();
+        for (var i = 0; i < options.width(); i++) {
+            bindings.add(new ABinding("a" + i, i == position ? field : new ConstInt(i)));
+        }
+        return new org.syntax.stella.Absyn.Record(bindings);
+    }
+
+    /**
+     * {@code <| l0 : Nat, ..., l(width-1) : Nat |>}
+     */
+    private Type variantType() {
+        var fields = new ListVariantFieldType();
+        for (var i = 0; i < options.width(); i++) {
+            fields.add(new AVariantFieldType("l" + i, new SomeTyping(new TypeNat())));
+        }
+        return new TypeVariant(fields);
+    }
+
+    /**
+     * {@code <| label = value |> as <| l0 : Nat, ... |>}
+     */
+    private Expr variant(String label, Expr value) {
+        return new TypeAsc(new Variant(label, new SomeExprData(value)), variantType());
+    }
+
+    /**
+     * A match over a value of {@link #variantType()} with one case per label, leaving out the last
+     * {@code missing} labels.
+     */
+    private Expr match(Expr scrutinee, int missing) {
+        var cases = new ListMatchCase();
+        for (var i = 0; i < options.width() - missing; i++) {
+            var body = random.nextBoolean() ? new Succ(new Var("y")) : new Var("y");
+            cases.add(new AMatchCase(new PatternVariant("l" + i, new SomePatternData(new PatternVar("y"))), body));
+        }
+        return new Match(scrutinee, cases);
+    }
+
+    private Expr list(Expr first, ArrayList<String> scope) {
+        var items = new ListExpr();
+        items.add(first);
+        for (var i = 1; i < options.listLength(); i++) {
+            items.add(new Var(pick(scope)));
+        }
+        return new org.syntax.stella.Absyn.List(items);
+    }
+
+    private String pick(ArrayList<String> scope) {
+        return scope.get(random.nextInt(scope.size()));
+    }
+}
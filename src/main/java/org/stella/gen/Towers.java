@@ -0,0 +1,70 @@
+package org.stella.gen;
+
+import org.syntax.stella.Absyn.*;
+
+/**
+ * Programs made of one expression nested {@code depth} times, for checking that the checker visits
+ * each expression once however deeply it is nested. They are built as syntax trees directly, because
+ * the generated parser slows down sharply on deep nesting.
+ */
+public final class Towers {
+    private Towers() {
+    }
+
+    /**
+     * {@code fn f(x : Nat) -> fn(Nat) -> Nat} returning
+     * {@code fix(fn(f0 : fn(Nat) -> Nat) { return fix(fn(f1 : ...) { ... fn(n : Nat) { return n } }) })}
+     * with {@code depth} applications of {@code fix}, and a {@code main} returning its argument.
+     */
+    public static Program fix(int depth) {
+        Expr body = abstraction("n", new TypeNat(), new Var("n"));
+        for (var i = depth - 1; i >= 0; i--) {
+            body = new Fix(abstraction("f" + i, natToNat(), body));
+        }
+        return program("#fixpoint-combinator", function("f", "x", new TypeNat(), natToNat(), body));
+    }
+
+    /**
+     * {@code fn f(xs : [[...[Nat]...]]) -> Nat} returning {@code List::head(List::head(... xs))} with
+     * {@code depth} applications of {@code List::head}, and a {@code main} returning its argument.
+     */
+    public static Program head(int depth) {
+        Type type = new TypeNat();
+        Expr body = new Var("xs");
+        for (var i = 0; i < depth; i++) {
+            type = new TypeList(type);
+            body = new Head(body);
+        }
+        return program("#lists", function("f", "xs", type, new TypeNat(), body));
+    }
+
+    private static Program program(String extension, DeclFun function) {
+        var extensionNames = new ListExtensionName();
+        extensionNames.add(extension);
+        var extensions = new ListExtension();
+        extensions.add(new AnExtension(extensionNames));
+        var decls = new ListDecl();
+        decls.add(function);
+        decls.add(function("main", "n", new TypeNat(), new TypeNat(), new Var("n")));
+        return new AProgram(new LanguageCore(), extensions, decls);
+    }
+
+    private static DeclFun function(String name, String param, Type paramType, Type returnType, Expr body) {
+        var params = new ListParamDecl();
+        params.add(new AParamDecl(param, paramType));
+        return new DeclFun(new ListAnnotation(), name, params, new SomeReturnType(returnType),
+                new NoThrowType(), new ListDecl(), body);
+    }
+
+    private static Abstraction abstraction(String param, Type paramType, Expr body) {
+        var params = new ListParamDecl();
+        params.add(new AParamDecl(param, paramType));
+        return new Abstraction(params, body);
+    }
+
+    private static Type natToNat() {
+        var params = new ListType();
+        params.add(new TypeNat());
+        return new TypeFun(params, new TypeNat());
+    }
+}
@@ -0,0 +1,65 @@
+package org.stella.gen;
+
+import org.syntax.stella.Absyn.*;
+
+/**
+ * Programs with one very wide list in them, for checking that the checker stays linear in the length
+ * of a list. They are built as syntax trees directly, because the generated parser recurses once per
+ * list element and slows down sharply on wide input.
+ */
+public final class WidePrograms {
+    private WidePrograms() {
+    }
+
+    /**
+     * {@code fn last(r : {f0 : Nat, ...}) -> Nat} returning the last of {@code width} fields, and a
+     * {@code main} that applies it to the record {@code {f0 = 0, f1 = 1, ...}}.
+     */
+    public static Program record(int width) {
+        var fieldTypes = new ListRecordFieldType();
+        var fields = new ListBinding();
+        for (var i = 0; i < width; i++) {
+            fieldTypes.add(new ARecordFieldType("f" + i, new TypeNat()));
+            fields.add(new ABinding("f" + i, new ConstInt(i)));
+        }
+        var params = new ListParamDecl();
+        params.add(new AParamDecl("r", new TypeRecord(fieldTypes)));
+        var last = function("last", params, new DotRecord(new Var("r"), "f" + (width - 1)));
+        var arguments = new ListExpr();
+        arguments.add(new org.syntax.stella.Absyn.Record(fields));
+        return program("#records", last, new Application(new Var("last"), arguments));
+    }
+
+    /**
+     * {@code fn pick(a0 : Nat, ...) -> Nat} of {@code width} parameters returning the last one, and a
+     * {@code main} that applies it to {@code 0, 1, ...}.
+     */
+    public static Program application(int width) {
+        var params = new ListParamDecl();
+        var arguments = new ListExpr();
+        for (var i = 0; i < width; i++) {
+            params.add(new AParamDecl("a" + i, new TypeNat()));
+            arguments.add(new ConstInt(i));
+        }
+        var pick = function("pick", params, new Var("a" + (width - 1)));
+        return program("#multiparameter-functions", pick, new Application(new Var("pick"), arguments));
+    }
+
+    private static Program program(String extension, DeclFun function, Expr mainBody) {
+        var extensionNames = new ListExtensionName();
+        extensionNames.add(extension);
+        var extensions = new ListExtension();
+        extensions.add(new AnExtension(extensionNames));
+        var params = new ListParamDecl();
+        params.add(new AParamDecl("n", new TypeNat()));
+        var decls = new ListDecl();
+        decls.add(function);
+        decls.add(function("main", params, mainBody));
+        return new AProgram(new LanguageCore(), extensions, decls);
+    }
+
+    private static DeclFun function(String name, ListParamDecl params, Expr body) {
+        return new DeclFun(new ListAnnotation(), name, params, new SomeReturnType(new TypeNat()),
+                new NoThrowType(), new ListDecl(), body);
+    }
+}
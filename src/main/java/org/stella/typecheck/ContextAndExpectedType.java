@@ -0,0 +1,35 @@
+package org.stella.typecheck;
+
+import org.syntax.stella.Absyn.*;
+
+class ContextAndExpectedType {
+    public Environment scopes = new Environment();
+    public Type expected;
+    public Type expected_pattern;
+
+    public Object thrown_exception;
+
+    public Type findVariableType(String name) {
+        return scopes.lookup(name);
+    }
+
+    public Type getException() {
+        if (thrown_exception != null) {
+            return (Type) thrown_exception;
+        }
+        return null;
+    }
+
+    public void registerException(Type type) {
+        thrown_exception = type;
+    }
+
+    public void registerException(String name, Type type) {
+        if (thrown_exception == null) {
+            thrown_exception = new TypeVariant(new ListVariantFieldType());
+            ((TypeVariant) thrown_exception).listvariantfieldtype_.add(new AVariantFieldType(name, new SomeTyping(type)));
+        } else if (thrown_exception instanceof TypeVariant exception) {
+            exception.listvariantfieldtype_.add(new AVariantFieldType(name, new SomeTyping(type)));
+        }
+    }
+}
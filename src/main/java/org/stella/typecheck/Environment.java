@@ -0,0 +1,310 @@
+package org.stella.typecheck;
+
+import org.stella.util.HashSlots;
+import org.syntax.stella.Absyn.Type;
+
+import java.util.Arrays;
+
+/**
+ * Stack of lexical scopes mapping names to types.
+ * <p>
+ * The global scope is kept apart, with an index once it grows, because forks share it and it is
+ * the one large scope. Local scopes live in one pair of parallel name and type arrays: opening a
+ * scope records the current size as its mark, binding appends, and closing a scope resets the size
+ * to the mark. Once the arrays have grown to the deepest nesting a check needs, opening, binding and
+ * closing allocate nothing.
+ * <p>
+ * A scope that grows past a few names gets an open-addressing index of positions, so that binding a
+ * name, which replaces an earlier binding of it in the same scope, stays constant time in a function
+ * of thousands of parameters. Each depth keeps its local index and closing the scope clears it, so
+ * reopening a large scope at that depth allocates nothing either.
+ * <p>
+ * Each scope keeps its names in binding order, so a binder can be addressed by the (depth, index)
+ * slot computed by {@link NameResolver}. Lookups by name search from the innermost binding outwards
+ * and, like the map-based scopes this replaces, skip entries bound to {@code null}.
+ */
+final class Environment {
+    // Smaller scopes are searched linearly.
+    private static final int INDEX_THRESHOLD = 8;
+
+    private Globals globals;
+    private String[] names = new String[16];
+    private Type[] types = new Type[16];
+    private int size;
+    /** {@code marks[d]} is where the local scope at depth {@code d} starts; depth 0 is global. */
+    private int[] marks = new int[8];
+    /** {@code indexes[d]} indexes the local scope at depth {@code d} while it is large; created on first use. */
+    private NameIndex[] indexes = new NameIndex[8];
+    private int depth = 1;
+
+    /**
+     * Number of name lookups that found no binding, so a caller can tell whether a check saw every
+     * name it asked for.
+     */
+    int misses;
+
+    Environment() {
+        this(new Globals());
+    }
+
+    private Environment(Globals globals) {
+        this.globals = globals;
+    }
+
+    /**
+     * Returns a new environment whose outermost scope is this environment's outermost scope, shared
+     * rather than copied. The shared scope is never modified through either environment: binding
+     * into it first replaces it with a private copy. Forks of one environment may be used
+     * concurrently as long as the original no longer changes its outermost scope.
+     */
+    Environment fork() {
+        if (!globals.shared) {
+            globals.shared = true;
+        }
+        return new Environment(globals);
+    }
+
+    void push() {
+        if (depth == marks.length) {
+            marks = Arrays.copyOf(marks, depth * 2);
+            indexes = Arrays.copyOf(indexes, depth * 2);
+        }
+        marks[depth++] = size;
+    }
+
+    void pop() {
+        var mark = marks[--depth];
+        var index = indexes[depth];
+        if (index != null && !index.isEmpty()) {
+            index.clear();
+        }
+        Arrays.fill(names, mark, size, null);
+        Arrays.fill(types, mark, size, null);
+        size = mark;
+    }
+
+    /**
+     * Closes the innermost scopes until {@code depth} are left, as after a check that threw half-way.
+     */
+    void popTo(int depth) {
+        while (this.depth > depth) {
+            pop();
+        }
+    }
+
+    /**
+     * Binds {@code name} in the innermost scope, replacing an earlier binding of the same name there.
+     */
+    void bind(String name, Type type) {
+        if (depth == 1) {
+            if (globals.shared) {
+                globals = globals.copy();
+            }
+            globals.bind(name, type);
+            return;
+        }
+        var mark = marks[depth - 1];
+        var index = indexes[depth - 1];
+        var indexed = index != null && !index.isEmpty();
+        var existing = indexed ? index.find(names, name) : lastIndexOf(name, mark);
+        if (existing >= 0) {
+            types[existing] = type;
+            return;
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            types = Arrays.copyOf(types, size * 2);
+        }
+        names[size] = name;
+        types[size] = type;
+        size++;
+        if (indexed) {
+            index.add(names);
+        } else if (size - mark > INDEX_THRESHOLD) {
+            if (index == null) {
+                index = indexes[depth - 1] = new NameIndex();
+            }
+            index.addAll(names, mark, size);
+        }
+    }
+
+    private int lastIndexOf(String name, int from) {
+        for (var i = size - 1; i >= from; i--) {
+            if (name.equals(names[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    Type lookup(String name) {
+        for (var i = size - 1; i >= 0; i--) {
+            if (types[i] != null && name.equals(names[i])) {
+                return types[i];
+            }
+        }
+        var type = globals.find(name);
+        if (type == null) {
+            misses++;
+        }
+        return type;
+    }
+
+    /**
+     * Looks up the binder of {@code name} at a resolved slot, falling back to {@link #lookup(String)}
+     * when the slot does not hold a typed binding of that name.
+     */
+    Type lookup(String name, int slotDepth, int slotIndex) {
+        if (slotDepth == 0) {
+            if (slotIndex < globals.size && name.equals(globals.names[slotIndex]) && globals.types[slotIndex] != null) {
+                return globals.types[slotIndex];
+            }
+        } else if (slotDepth < depth) {
+            var position = marks[slotDepth] + slotIndex;
+            var end = slotDepth + 1 < depth ? marks[slotDepth + 1] : size;
+            if (position < end && name.equals(names[position]) && types[position] != null) {
+                return types[position];
+            }
+        }
+        return lookup(name);
+    }
+
+    private static final class Globals {
+        private String[] names = new String[4];
+        private Type[] types = new Type[4];
+        private int size;
+        private NameIndex index;
+        private boolean shared;
+
+        void bind(String name, Type type) {
+            var existing = indexOf(name);
+            if (existing >= 0) {
+                types[existing] = type;
+                return;
+            }
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+                types = Arrays.copyOf(types, size * 2);
+            }
+            names[size] = name;
+            types[size] = type;
+            size++;
+            if (index != null) {
+                index.add(names);
+            } else if (size > INDEX_THRESHOLD) {
+                index = new NameIndex();
+                index.addAll(names, 0, size);
+            }
+        }
+
+        Type find(String name) {
+            var position = indexOf(name);
+            return position >= 0 ? types[position] : null;
+        }
+
+        private int indexOf(String name) {
+            if (index != null) {
+                return index.find(names, name);
+            }
+            for (var i = size - 1; i >= 0; i--) {
+                if (name.equals(names[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        Globals copy() {
+            var copy = new Globals();
+            copy.names = names.clone();
+            copy.types = types.clone();
+            copy.size = size;
+            copy.index = index == null ? null : index.copy();
+            return copy;
+        }
+    }
+
+    /**
+     * Open-addressing index from name to position over a run of distinct names {@code names[from]},
+     * {@code names[from + 1]}, ..., which it stores as {@code position + 1} so that 0 marks an empty
+     * slot. The names themselves stay in the scope's array. Clearing keeps the table for the next
+     * scope indexed at the same depth.
+     */
+    private static final class NameIndex {
+        private static final int MIN_CAPACITY = 4 * INDEX_THRESHOLD;
+
+        private int[] slots = new int[MIN_CAPACITY];
+        /** Capacity in use: a power of two, at most {@code slots.length}. */
+        private int capacity = MIN_CAPACITY;
+        private int from;
+        private int count;
+
+        boolean isEmpty() {
+            return count == 0;
+        }
+
+        int find(String[] names, String name) {
+            var mask = capacity - 1;
+            for (var i = HashSlots.first(name.hashCode(), capacity); slots[i] != 0; i = (i + 1) & mask) {
+                var position = slots[i] - 1;
+                if (names[position].equals(name)) {
+                    return position;
+                }
+            }
+            return -1;
+        }
+
+        /** Indexes {@code names[from, to)} into an empty index. */
+        void addAll(String[] names, int from, int to) {
+            this.from = from;
+            while (from + count < to) {
+                add(names);
+            }
+        }
+
+        /** Indexes the name that follows the ones already indexed. */
+        void add(String[] names) {
+            if (++count * 2 > capacity) {
+                grow(names);
+            } else {
+                insert(names, from + count - 1);
+            }
+        }
+
+        void clear() {
+            Arrays.fill(slots, 0, capacity, 0);
+            capacity = MIN_CAPACITY;
+            count = 0;
+        }
+
+        NameIndex copy() {
+            var copy = new NameIndex();
+            copy.slots = slots.clone();
+            copy.capacity = capacity;
+            copy.from = from;
+            copy.count = count;
+            return copy;
+        }
+
+        private void grow(String[] names) {
+            capacity *= 2;
+            if (capacity > slots.length) {
+                slots = new int[capacity];
+            } else {
+                Arrays.fill(slots, 0, capacity, 0);
+            }
+            for (var position = from; position < from + count; position++) {
+                insert(names, position);
+            }
+        }
+
+        private void insert(String[] names, int position) {
+            var mask = capacity - 1;
+            var i = HashSlots.first(names[position].hashCode(), capacity);
+            while (slots[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            slots[i] = position + 1;
+        }
+    }
+}
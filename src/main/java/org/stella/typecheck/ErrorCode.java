@@ -0,0 +1,48 @@
+package org.stella.typecheck;
+
+/**
+ * Kinds of type errors reported by the checker. The constant names are the error codes printed in
+ * diagnostics and expected by the test suite.
+ */
+public enum ErrorCode {
+    ERROR_AMBIGUOUS_LIST_TYPE,
+    ERROR_AMBIGUOUS_PANIC_TYPE,
+    ERROR_AMBIGUOUS_REFERENCE_TYPE,
+    ERROR_AMBIGUOUS_SUM_TYPE,
+    ERROR_AMBIGUOUS_THROW_TYPE,
+    ERROR_AMBIGUOUS_VARIANT_TYPE,
+    ERROR_EXCEPTION_TYPE_NOT_DECLARED,
+    ERROR_ILLEGAL_EMPTY_MATCHING,
+    ERROR_ILLEGAL_NEGATIVE_LITERAL,
+    ERROR_INCORRECT_NUMBER_OF_ARGUMENTS,
+    ERROR_MISSING_DATA_FOR_LABEL,
+    ERROR_MISSING_MAIN,
+    ERROR_MISSING_RECORD_FIELDS,
+    ERROR_NONEXHAUSTIVE_MATCH_PATTERNS,
+    ERROR_NOT_A_FUNCTION,
+    ERROR_NOT_A_LIST,
+    ERROR_NOT_A_RECORD,
+    ERROR_NOT_A_REFERENCE,
+    ERROR_NOT_A_TUPLE,
+    ERROR_TUPLE_INDEX_OUT_OF_BOUNDS,
+    ERROR_UNDEFINED_VARIABLE,
+    ERROR_UNEXPECTED_DATA_FOR_NULLARY_LABEL,
+    ERROR_UNEXPECTED_FIELD_ACCESS,
+    ERROR_UNEXPECTED_INJECTION,
+    ERROR_UNEXPECTED_LAMBDA,
+    ERROR_UNEXPECTED_LIST,
+    ERROR_UNEXPECTED_MEMORY_ADDRESS,
+    ERROR_UNEXPECTED_NON_NULLARY_VARIANT_PATTERN,
+    ERROR_UNEXPECTED_NULLARY_VARIANT_PATTERN,
+    ERROR_UNEXPECTED_NUMBER_OF_PARAMETERS_IN_LAMBDA,
+    ERROR_UNEXPECTED_PATTERN_FOR_TYPE,
+    ERROR_UNEXPECTED_RECORD,
+    ERROR_UNEXPECTED_RECORD_FIELDS,
+    ERROR_UNEXPECTED_TUPLE,
+    ERROR_UNEXPECTED_TUPLE_LENGTH,
+    ERROR_UNEXPECTED_TYPE_FOR_EXPRESSION,
+    ERROR_UNEXPECTED_TYPE_FOR_PARAMETER,
+    ERROR_UNEXPECTED_VARIANT,
+    ERROR_UNEXPECTED_VARIANT_LABEL,
+    INCORRECT_ARITY_OF_MAIN
+}
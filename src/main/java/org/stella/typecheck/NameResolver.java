@@ -0,0 +1,631 @@
+package org.stella.typecheck;
+
+import org.stella.util.HashSlots;
+import org.syntax.stella.Absyn.*;
+
+import java.util.*;
+
+/**
+ * Name-resolution pass run before typechecking.
+ * <p>
+ * Every variable occurrence is resolved to the slot of its binder: the depth of the scope that
+ * introduced it (0 is the global scope) and the position of the name within that scope. The pass
+ * opens and closes scopes exactly where {@link VisitTypeCheck} does and visits the same subtrees in
+ * the same order, so the slots index directly into the checker's {@link Environment}. Occurrences
+ * without a binder are left unresolved and reported by the checker.
+ * <p>
+ * Lookups here are constant time: a hash table maps each name to its innermost visible binder, and
+ * every binder links to the binder of the same name it shadows, which closing its scope makes
+ * visible again. Binders live in parallel arrays with a mark per open scope, and slots are packed
+ * into an {@code int} in an identity hash table keyed by the {@link Var} node, so the pass allocates
+ * only when one of its arrays grows.
+ */
+final class NameResolver {
+    /**
+     * What {@link #slotOf(Var)} returns for an occurrence without a binder.
+     */
+    static final int NO_SLOT = -1;
+
+    // Binders in scope, outermost first: name, scope depth and the binder it shadows (or -1).
+    private String[] binderNames = new String[16];
+    private int[] binderDepths = new int[16];
+    private int[] binderShadowed = new int[16];
+    private int binderCount;
+    /** {@code marks[d]} is the first binder of the scope at depth {@code d}. */
+    private int[] marks = new int[8];
+    private int depth;
+
+    // Innermost visible binder of each name seen so far, or -1; open addressing, keys never removed.
+    private String[] visibleNames = new String[64];
+    private int[] visibleBinders = new int[64];
+    private int visibleCount;
+
+    // Packed slot of each resolved occurrence; open addressing by identity.
+    private Var[] vars = new Var[64];
+    private int[] varSlots = new int[64];
+    private int varCount;
+
+    private final ExprResolver exprResolver = new ExprResolver();
+    private final PatternResolver patternResolver = new PatternResolver();
+
+    private NameResolver() {
+    }
+
+    static NameResolver resolve(Program program) {
+        var resolver = new NameResolver();
+        resolver.resolveProgram((AProgram) program);
+        return resolver;
+    }
+
+    /**
+     * Returns the packed binder slot of {@code variable}, or {@link #NO_SLOT} if it has none.
+     */
+    int slotOf(Var variable) {
+        var mask = vars.length - 1;
+        for (var i = System.identityHashCode(variable) & mask; vars[i] != null; i = (i + 1) & mask) {
+            if (vars[i] == variable) {
+                return varSlots[i];
+            }
+        }
+        return NO_SLOT;
+    }
+
+    static int depth(int slot) {
+        return slot >>> 16;
+    }
+
+    static int index(int slot) {
+        return slot & 0xFFFF;
+    }
+
+    private void resolveProgram(AProgram program) {
+        push();
+        for (var decl : program.listdecl_) {
+            if (decl instanceof DeclFun declFun) {
+                bind(declFun.stellaident_);
+            } else if (decl instanceof DeclTypeAlias declTypeAlias) {
+                bind(declTypeAlias.stellaident_);
+            }
+        }
+        for (var decl : program.listdecl_) {
+            if (decl instanceof DeclFun declFun) {
+                push();
+                for (var paramDecl : declFun.listparamdecl_) {
+                    bind(((AParamDecl) paramDecl).stellaident_);
+                }
+                resolve(declFun.expr_);
+                pop();
+            }
+        }
+        pop();
+    }
+
+    private void push() {
+        if (depth == marks.length) {
+            marks = Arrays.copyOf(marks, depth * 2);
+        }
+        marks[depth++] = binderCount;
+    }
+
+    private void pop() {
+        var mark = marks[--depth];
+        for (var i = binderCount - 1; i >= mark; i--) {
+            setVisible(binderNames[i], binderShadowed[i]);
+            binderNames[i] = null;
+        }
+        binderCount = mark;
+    }
+
+    /**
+     * Binds {@code name} in the innermost scope. Rebinding a name in the same scope reuses its
+     * slot, matching the checker, which overwrites the entry.
+     */
+    private void bind(String name) {
+        var innermost = visible(name);
+        if (innermost >= 0 && binderDepths[innermost] == depth - 1) {
+            return;
+        }
+        if (binderCount == binderNames.length) {
+            var capacity = binderCount * 2;
+            binderNames = Arrays.copyOf(binderNames, capacity);
+            binderDepths = Arrays.copyOf(binderDepths, capacity);
+            binderShadowed = Arrays.copyOf(binderShadowed, capacity);
+        }
+        binderNames[binderCount] = name;
+        binderDepths[binderCount] = depth - 1;
+        binderShadowed[binderCount] = innermost;
+        setVisible(name, binderCount++);
+    }
+
+    private int visible(String name) {
+        var mask = visibleNames.length - 1;
+        for (var i = HashSlots.first(name.hashCode(), visibleNames.length); visibleNames[i] != null; i = (i + 1) & mask) {
+            if (visibleNames[i].equals(name)) {
+                return visibleBinders[i];
+            }
+        }
+        return -1;
+    }
+
+    private void setVisible(String name, int binder) {
+        var mask = visibleNames.length - 1;
+        var i = HashSlots.first(name.hashCode(), visibleNames.length);
+        for (; visibleNames[i] != null; i = (i + 1) & mask) {
+            if (visibleNames[i].equals(name)) {
+                visibleBinders[i] = binder;
+                return;
+            }
+        }
+        visibleNames[i] = name;
+        visibleBinders[i] = binder;
+        if (++visibleCount * 2 > visibleNames.length) {
+            var oldNames = visibleNames;
+            var oldBinders = visibleBinders;
+            visibleNames = new String[oldNames.length * 2];
+            visibleBinders = new int[oldNames.length * 2];
+            visibleCount = 0;
+            for (var j = 0; j < oldNames.length; j++) {
+                if (oldNames[j] != null) {
+                    setVisible(oldNames[j], oldBinders[j]);
+                }
+            }
+        }
+    }
+
+    private void setSlot(Var variable, int slot) {
+        var mask = vars.length - 1;
+        var i = System.identityHashCode(variable) & mask;
+        for (; vars[i] != null; i = (i + 1) & mask) {
+            if (vars[i] == variable) {
+                varSlots[i] = slot;
+                return;
+            }
+        }
+        vars[i] = variable;
+        varSlots[i] = slot;
+        if (++varCount * 3 > vars.length * 2) {
+            var oldVars = vars;
+            var oldSlots = varSlots;
+            vars = new Var[oldVars.length * 2];
+            varSlots = new int[oldVars.length * 2];
+            varCount = 0;
+            for (var j = 0; j < oldVars.length; j++) {
+                if (oldVars[j] != null) {
+                    setSlot(oldVars[j], oldSlots[j]);
+                }
+            }
+        }
+    }
+
+    private void resolve(Expr expr) {
+        expr.accept(exprResolver, null);
+    }
+
+    private void resolve(Pattern pattern) {
+        pattern.accept(patternResolver, null);
+    }
+
+    private class ExprResolver implements Expr.Visitor<Void, Void> {
+        public Void visit(Sequence sequence, Void arg) {
+            resolve(sequence.expr_1);
+            resolve(sequence.expr_2);
+            return null;
+        }
+
+        public Void visit(Assign assign, Void arg) {
+            resolve(assign.expr_1);
+            resolve(assign.expr_2);
+            return null;
+        }
+
+        public Void visit(If anIf, Void arg) {
+            resolve(anIf.expr_1);
+            resolve(anIf.expr_2);
+            resolve(anIf.expr_3);
+            return null;
+        }
+
+        public Void visit(Let let, Void arg) {
+            push();
+            for (var patternBinding : let.listpatternbinding_) {
+                var aPatternBinding = (APatternBinding) patternBinding;
+                resolve(aPatternBinding.expr_);
+                resolve(aPatternBinding.pattern_);
+            }
+            resolve(let.expr_);
+            pop();
+            return null;
+        }
+
+        public Void visit(LetRec letRec, Void arg) {
+            for (var patternBinding : letRec.listpatternbinding_) {
+                var aPatternBinding = (APatternBinding) patternBinding;
+                resolve(aPatternBinding.expr_);
+                resolve(aPatternBinding.pattern_);
+            }
+            resolve(letRec.expr_);
+            return null;
+        }
+
+        public Void visit(TypeAbstraction typeAbstraction, Void arg) {
+            return null;
+        }
+
+        public Void visit(LessThan lessThan, Void arg) {
+            resolve(lessThan.expr_1);
+            resolve(lessThan.expr_2);
+            return null;
+        }
+
+        public Void visit(LessThanOrEqual lessThanOrEqual, Void arg) {
+            resolve(lessThanOrEqual.expr_1);
+            resolve(lessThanOrEqual.expr_2);
+            return null;
+        }
+
+        public Void visit(GreaterThan greaterThan, Void arg) {
+            resolve(greaterThan.expr_1);
+            resolve(greaterThan.expr_2);
+            return null;
+        }
+
+        public Void visit(GreaterThanOrEqual greaterThanOrEqual, Void arg) {
+            resolve(greaterThanOrEqual.expr_1);
+            resolve(greaterThanOrEqual.expr_2);
+            return null;
+        }
+
+        public Void visit(Equal equal, Void arg) {
+            resolve(equal.expr_1);
+            resolve(equal.expr_2);
+            return null;
+        }
+
+        public Void visit(NotEqual notEqual, Void arg) {
+            resolve(notEqual.expr_1);
+            resolve(notEqual.expr_2);
+            return null;
+        }
+
+        public Void visit(TypeAsc typeAsc, Void arg) {
+            resolve(typeAsc.expr_);
+            return null;
+        }
+
+        public Void visit(TypeCast typeCast, Void arg) {
+            return null;
+        }
+
+        public Void visit(Abstraction abstraction, Void arg) {
+            push();
+            for (var paramDecl : abstraction.listparamdecl_) {
+                bind(((AParamDecl) paramDecl).stellaident_);
+            }
+            resolve(abstraction.expr_);
+            pop();
+            return null;
+        }
+
+        public Void visit(Variant variant, Void arg) {
+            if (variant.exprdata_ instanceof SomeExprData someExprData) {
+                resolve(someExprData.expr_);
+            }
+            return null;
+        }
+
+        public Void visit(Match match, Void arg) {
+            resolve(match.expr_);
+            for (var matchCase : match.listmatchcase_) {
+                var aMatchCase = (AMatchCase) matchCase;
+                push();
+                resolve(aMatchCase.pattern_);
+                resolve(aMatchCase.expr_);
+                pop();
+            }
+            return null;
+        }
+
+        public Void visit(org.syntax.stella.Absyn.List list, Void arg) {
+            for (var expr : list.listexpr_) {
+                resolve(expr);
+            }
+            return null;
+        }
+
+        public Void visit(Add add, Void arg) {
+            resolve(add.expr_1);
+            resolve(add.expr_2);
+            return null;
+        }
+
+        public Void visit(Subtract subtract, Void arg) {
+            resolve(subtract.expr_1);
+            resolve(subtract.expr_2);
+            return null;
+        }
+
+        public Void visit(LogicOr logicOr, Void arg) {
+            resolve(logicOr.expr_1);
+            resolve(logicOr.expr_2);
+            return null;
+        }
+
+        public Void visit(Multiply multiply, Void arg) {
+            resolve(multiply.expr_1);
+            resolve(multiply.expr_2);
+            return null;
+        }
+
+        public Void visit(Divide divide, Void arg) {
+            resolve(divide.expr_1);
+            resolve(divide.expr_2);
+            return null;
+        }
+
+        public Void visit(LogicAnd logicAnd, Void arg) {
+            resolve(logicAnd.expr_1);
+            resolve(logicAnd.expr_2);
+            return null;
+        }
+
+        public Void visit(Ref ref, Void arg) {
+            resolve(ref.expr_);
+            return null;
+        }
+
+        public Void visit(Deref deref, Void arg) {
+            resolve(deref.expr_);
+            return null;
+        }
+
+        public Void visit(Application application, Void arg) {
+            resolve(application.expr_);
+            for (var expr : application.listexpr_) {
+                resolve(expr);
+            }
+            return null;
+        }
+
+        public Void visit(TypeApplication typeApplication, Void arg) {
+            return null;
+        }
+
+        public Void visit(DotRecord dotRecord, Void arg) {
+            resolve(dotRecord.expr_);
+            return null;
+        }
+
+        public Void visit(DotTuple dotTuple, Void arg) {
+            resolve(dotTuple.expr_);
+            return null;
+        }
+
+        public Void visit(Tuple tuple, Void arg) {
+            for (var expr : tuple.listexpr_) {
+                resolve(expr);
+            }
+            return null;
+        }
+
+        public Void visit(org.syntax.stella.Absyn.Record aRecord, Void arg) {
+            for (var binding : aRecord.listbinding_) {
+                resolve(((ABinding) binding).expr_);
+            }
+            return null;
+        }
+
+        public Void visit(ConsList consList, Void arg) {
+            resolve(consList.expr_1);
+            resolve(consList.expr_2);
+            return null;
+        }
+
+        public Void visit(Head head, Void arg) {
+            resolve(head.expr_);
+            return null;
+        }
+
+        public Void visit(IsEmpty isEmpty, Void arg) {
+            resolve(isEmpty.expr_);
+            return null;
+        }
+
+        public Void visit(Tail tail, Void arg) {
+            resolve(tail.expr_);
+            return null;
+        }
+
+        public Void visit(Panic panic, Void arg) {
+            return null;
+        }
+
+        public Void visit(Throw aThrow, Void arg) {
+            resolve(aThrow.expr_);
+            return null;
+        }
+
+        public Void visit(TryCatch tryCatch, Void arg) {
+            resolve(tryCatch.expr_1);
+            push();
+            resolve(tryCatch.pattern_);
+            resolve(tryCatch.expr_2);
+            pop();
+            return null;
+        }
+
+        public Void visit(TryWith tryWith, Void arg) {
+            resolve(tryWith.expr_1);
+            resolve(tryWith.expr_2);
+            return null;
+        }
+
+        public Void visit(TryCastAs tryCastAs, Void arg) {
+            return null;
+        }
+
+        public Void visit(Inl inl, Void arg) {
+            resolve(inl.expr_);
+            return null;
+        }
+
+        public Void visit(Inr inr, Void arg) {
+            resolve(inr.expr_);
+            return null;
+        }
+
+        public Void visit(Succ succ, Void arg) {
+            resolve(succ.expr_);
+            return null;
+        }
+
+        public Void visit(LogicNot logicNot, Void arg) {
+            resolve(logicNot.expr_);
+            return null;
+        }
+
+        public Void visit(Pred pred, Void arg) {
+            resolve(pred.expr_);
+            return null;
+        }
+
+        public Void visit(IsZero isZero, Void arg) {
+            resolve(isZero.expr_);
+            return null;
+        }
+
+        public Void visit(Fix fix, Void arg) {
+            resolve(fix.expr_);
+            return null;
+        }
+
+        public Void visit(NatRec natRec, Void arg) {
+            resolve(natRec.expr_1);
+            resolve(natRec.expr_2);
+            resolve(natRec.expr_3);
+            return null;
+        }
+
+        public Void visit(Fold fold, Void arg) {
+            resolve(fold.expr_);
+            return null;
+        }
+
+        public Void visit(Unfold unfold, Void arg) {
+            resolve(unfold.expr_);
+            return null;
+        }
+
+        public Void visit(ConstTrue constTrue, Void arg) {
+            return null;
+        }
+
+        public Void visit(ConstFalse constFalse, Void arg) {
+            return null;
+        }
+
+        public Void visit(ConstUnit constUnit, Void arg) {
+            return null;
+        }
+
+        public Void visit(ConstInt constInt, Void arg) {
+            return null;
+        }
+
+        public Void visit(ConstMemory constMemory, Void arg) {
+            return null;
+        }
+
+        public Void visit(Var variable, Void arg) {
+            var binder = visible(variable.stellaident_);
+            if (binder >= 0) {
+                var binderDepth = binderDepths[binder];
+                var binderIndex = binder - marks[binderDepth];
+                // Slots that do not fit in 16 bits each are left to the checker's lookup by name.
+                if (binderDepth <= 0x7FFF && binderIndex <= 0xFFFF) {
+                    setSlot(variable, binderDepth << 16 | binderIndex);
+                }
+            }
+            return null;
+        }
+    }
+
+    private class PatternResolver implements Pattern.Visitor<Void, Void> {
+        public Void visit(PatternCastAs patternCastAs, Void arg) {
+            return null;
+        }
+
+        public Void visit(PatternAsc patternAsc, Void arg) {
+            return null;
+        }
+
+        public Void visit(PatternVariant patternVariant, Void arg) {
+            if (patternVariant.patterndata_ instanceof SomePatternData somePatternData) {
+                resolve(somePatternData.pattern_);
+            }
+            return null;
+        }
+
+        public Void visit(PatternInl patternInl, Void arg) {
+            resolve(patternInl.pattern_);
+            return null;
+        }
+
+        public Void visit(PatternInr patternInr, Void arg) {
+            resolve(patternInr.pattern_);
+            return null;
+        }
+
+        public Void visit(PatternTuple patternTuple, Void arg) {
+            for (var pattern : patternTuple.listpattern_) {
+                resolve(pattern);
+            }
+            return null;
+        }
+
+        public Void visit(PatternRecord patternRecord, Void arg) {
+            for (var labelledPattern : patternRecord.listlabelledpattern_) {
+                resolve(((ALabelledPattern) labelledPattern).pattern_);
+            }
+            return null;
+        }
+
+        public Void visit(PatternList patternList, Void arg) {
+            for (var pattern : patternList.listpattern_) {
+                resolve(pattern);
+            }
+            return null;
+        }
+
+        public Void visit(PatternCons patternCons, Void arg) {
+            resolve(patternCons.pattern_1);
+            resolve(patternCons.pattern_2);
+            return null;
+        }
+
+        public Void visit(PatternFalse patternFalse, Void arg) {
+            return null;
+        }
+
+        public Void visit(PatternTrue patternTrue, Void arg) {
+            return null;
+        }
+
+        public Void visit(PatternUnit patternUnit, Void arg) {
+            return null;
+        }
+
+        public Void visit(PatternInt patternInt, Void arg) {
+            return null;
+        }
+
+        public Void visit(PatternSucc patternSucc, Void arg) {
+            resolve(patternSucc.pattern_);
+            return null;
+        }
+
+        public Void visit(PatternVar patternVar, Void arg) {
+            bind(patternVar.stellaident_);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,486 @@
+package org.stella.typecheck;
+
+import org.syntax.stella.Absyn.*;
+
+import java.util.*;
+import java.util.List;
+
+/**
+ * Exhaustiveness and redundancy of the arms of a {@code match}, by the usefulness of rows of a
+ * pattern matrix (Maranget, "Warnings for pattern matching").
+ * <p>
+ * Each arm is a row of patterns, one per column, and each column stands for a value still to be
+ * matched; at the start there is one column, the scrutinee. A column is split by the constructors
+ * of its type that occur in it: {@code true} and {@code false}, {@code inl} and {@code inr}, the
+ * labels of a variant, the one constructor of a tuple or record, the empty list and {@code cons},
+ * and for {@code Nat} the literals that occur plus the ranges {@code succ} patterns cover. For each
+ * constructor the rows that can match it continue with the constructor's fields in place of the
+ * column; if the constructors that occur do not cover the type, the rows with a wildcard in the
+ * column also continue without it. A row is useful if it is the first row left once every column
+ * is gone, and values are missing if some branch runs out of rows. One walk over the matrix decides
+ * both for every arm.
+ * <p>
+ * Rows are split into constructors in one pass over the column, so a match whose arms differ at the
+ * top, as most matches do, is checked in time linear in its size. Number and list literals are
+ * peeled one {@code succ} or element at a time without building the patterns they stand for.
+ * <p>
+ * The checker rejects a pattern that does not fit a known type with
+ * {@code ERROR_UNEXPECTED_PATTERN_FOR_TYPE} before the arms get here. A column whose type is not
+ * known is split by the shape of its patterns instead, and there a pattern that does not fit the
+ * others matches nothing.
+ */
+final class PatternMatrix {
+    /**
+     * @param redundant the positions of the arms that no value reaches
+     */
+    record Result(boolean exhaustive, BitSet redundant) {
+    }
+
+    private enum Kind {
+        NONE, BOOL, UNIT, NAT, SUM, VARIANT, TUPLE, RECORD, LIST
+    }
+
+    /**
+     * A row's cells from the current column on; a {@code null} cell is a wildcard.
+     */
+    private record Cells(Object head, Cells tail) {
+    }
+
+    private record Row(Cells cells, int arm) {
+    }
+
+    /**
+     * The types of the columns from the current one on; {@code null} where it is not known.
+     */
+    private record Types(Type head, Types tail) {
+    }
+
+    /**
+     * The elements of a list literal pattern from {@code from} on, standing for the conses they
+     * make up.
+     */
+    private record ListRest(ListPattern items, int from) {
+    }
+
+    /**
+     * A constructor occurring in a column, with the types of its fields and the rows that continue
+     * with them.
+     */
+    private static final class Piece {
+        final Type[] fieldTypes;
+        final List<Row> rows = new ArrayList<>();
+
+        Piece(Type... fieldTypes) {
+            this.fieldTypes = fieldTypes;
+        }
+    }
+
+    private static final Type[] NO_FIELDS = {};
+    private static final int MISMATCH = -1;
+
+    private final TypeTable types;
+    private final BitSet useful = new BitSet();
+
+    private PatternMatrix(TypeTable types) {
+        this.types = types;
+    }
+
+    static Result analyze(TypeTable types, Type type, List<Pattern> arms) {
+        var matrix = new PatternMatrix(types);
+        var rows = new ArrayList<Row>(arms.size());
+        for (var i = 0; i < arms.size(); i++) {
+            rows.add(new Row(new Cells(arms.get(i), null), i));
+        }
+        var exhaustive = !matrix.missing(rows, new Types(type, null), 1);
+        var redundant = new BitSet(arms.size());
+        redundant.set(0, arms.size());
+        redundant.andNot(matrix.useful);
+        return new Result(exhaustive, redundant);
+    }
+
+    /**
+     * Whether some value of the column types is matched by none of {@code rows}; marks the arms of
+     * the rows that are first to match some value as useful.
+     */
+    private boolean missing(List<Row> rows, Types columns, int width) {
+        if (rows.isEmpty()) {
+            return true;
+        }
+        if (width == 0) {
+            useful.set(rows.get(0).arm());
+            return false;
+        }
+        var type = columns.head();
+        var kind = kind(type, rows);
+        var defaults = new ArrayList<Row>();
+        var pieces = new LinkedHashMap<Integer, Piece>();
+        var complete = switch (kind) {
+            case NONE -> false;
+            case NAT -> splitNat(rows, pieces, defaults);
+            default -> split(kind, type, rows, pieces, defaults);
+        };
+        var missing = false;
+        for (var piece : pieces.values()) {
+            var fields = columns.tail();
+            for (var i = piece.fieldTypes.length - 1; i >= 0; i--) {
+                fields = new Types(piece.fieldTypes[i], fields);
+            }
+            missing = missing(piece.rows, fields, width - 1 + piece.fieldTypes.length) | missing;
+        }
+        if (!complete) {
+            if (kind == Kind.NONE) {
+                for (var row : rows) {
+                    if (strip(row.cells().head()) == null) {
+                        defaults.add(new Row(row.cells().tail(), row.arm()));
+                    }
+                }
+            }
+            missing = missing(defaults, columns.tail(), width - 1) | missing;
+        }
+        return missing;
+    }
+
+    /**
+     * The kind of a column: that of its type if the type is known, else that of its first pattern.
+     */
+    private static Kind kind(Type type, List<Row> rows) {
+        if (type instanceof TypeBool) {
+            return Kind.BOOL;
+        } else if (type instanceof TypeUnit) {
+            return Kind.UNIT;
+        } else if (type instanceof TypeNat) {
+            return Kind.NAT;
+        } else if (type instanceof TypeSum) {
+            return Kind.SUM;
+        } else if (type instanceof TypeVariant) {
+            return Kind.VARIANT;
+        } else if (type instanceof TypeTuple) {
+            return Kind.TUPLE;
+        } else if (type instanceof TypeRecord) {
+            return Kind.RECORD;
+        } else if (type instanceof TypeList) {
+            return Kind.LIST;
+        }
+        for (var row : rows) {
+            var head = strip(row.cells().head());
+            if (head instanceof PatternTrue || head instanceof PatternFalse) {
+                return Kind.BOOL;
+            } else if (head instanceof PatternUnit) {
+                return Kind.UNIT;
+            } else if (head instanceof PatternInt || head instanceof PatternSucc) {
+                return Kind.NAT;
+            } else if (head instanceof PatternInl || head instanceof PatternInr) {
+                return Kind.SUM;
+            } else if (head instanceof PatternVariant) {
+                return Kind.VARIANT;
+            } else if (head instanceof PatternTuple) {
+                return Kind.TUPLE;
+            } else if (head instanceof PatternRecord) {
+                return Kind.RECORD;
+            } else if (head instanceof PatternList || head instanceof PatternCons || head instanceof ListRest) {
+                return Kind.LIST;
+            }
+        }
+        return Kind.NONE;
+    }
+
+    /**
+     * Variables match anything and ascriptions match what their pattern matches; both are wildcards
+     * or their pattern here. Returns {@code null} for a wildcard.
+     */
+    private static Object strip(Object cell) {
+        while (true) {
+            if (cell instanceof PatternVar) {
+                return null;
+            } else if (cell instanceof PatternAsc patternAsc) {
+                cell = patternAsc.pattern_;
+            } else {
+                return cell;
+            }
+        }
+    }
+
+    /**
+     * Splits a column of any kind but {@code Nat} into {@code pieces}, keyed by constructor, and the
+     * rows with a wildcard into {@code defaults}.
+     *
+     * @return whether the constructors that occur cover the column's type
+     */
+    private boolean split(Kind kind, Type type, List<Row> rows, Map<Integer, Piece> pieces, List<Row> defaults) {
+        // Record labels by position, for a record pattern whose type is not known.
+        Map<String, Integer> labels = type instanceof TypeRecord ? null : new LinkedHashMap<>();
+        var wildcards = false;
+        for (var row : rows) {
+            var head = strip(row.cells().head());
+            if (head == null) {
+                wildcards = true;
+                continue;
+            }
+            var key = key(kind, type, head, labels);
+            if (key != MISMATCH && !pieces.containsKey(key)) {
+                pieces.put(key, new Piece(fieldTypes(kind, type, head, key)));
+            }
+        }
+        if (kind == Kind.RECORD && !(type instanceof TypeRecord) && !pieces.isEmpty()) {
+            // Every record pattern of an unknown type has the labels of all of them.
+            pieces.put(0, new Piece(new Type[labels.size()]));
+        }
+        for (var row : rows) {
+            var head = strip(row.cells().head());
+            if (head == null) {
+                for (var entry : pieces.entrySet()) {
+                    entry.getValue().rows.add(specialize(row, kind, type, null, entry.getKey(),
+                            entry.getValue().fieldTypes.length, labels));
+                }
+                defaults.add(new Row(row.cells().tail(), row.arm()));
+            } else {
+                var key = key(kind, type, head, labels);
+                if (key != MISMATCH) {
+                    var piece = pieces.get(key);
+                    piece.rows.add(specialize(row, kind, type, head, key, piece.fieldTypes.length, labels));
+                }
+            }
+        }
+        if (!wildcards) {
+            defaults.clear();
+        }
+        return switch (kind) {
+            case BOOL, SUM, LIST -> pieces.size() == 2;
+            case UNIT, TUPLE, RECORD -> pieces.size() == 1;
+            case VARIANT -> type instanceof TypeVariant typeVariant
+                    && pieces.size() == typeVariant.listvariantfieldtype_.size();
+            default -> false;
+        };
+    }
+
+    /**
+     * The constructor a non-wildcard pattern matches in a column of {@code kind}, or
+     * {@link #MISMATCH} if it does not fit the column, which only happens when its type is not known.
+     */
+    private int key(Kind kind, Type type, Object head, Map<String, Integer> labels) {
+        switch (kind) {
+            case BOOL:
+                return head instanceof PatternFalse ? 0 : head instanceof PatternTrue ? 1 : MISMATCH;
+            case UNIT:
+                return head instanceof PatternUnit ? 0 : MISMATCH;
+            case SUM:
+                return head instanceof PatternInl ? 0 : head instanceof PatternInr ? 1 : MISMATCH;
+            case VARIANT:
+                if (!(head instanceof PatternVariant patternVariant)) {
+                    return MISMATCH;
+                }
+                if (type instanceof TypeVariant typeVariant) {
+                    var index = types.labelIndex(typeVariant, patternVariant.stellaident_);
+                    return index < 0 ? MISMATCH : index;
+                }
+                return labels.computeIfAbsent(patternVariant.stellaident_, label -> labels.size());
+            case TUPLE:
+                if (!(head instanceof PatternTuple patternTuple)) {
+                    return MISMATCH;
+                }
+                if (type instanceof TypeTuple typeTuple) {
+                    return patternTuple.listpattern_.size() == typeTuple.listtype_.size() ? 0 : MISMATCH;
+                }
+                // Tuples of an unknown type are told apart by their length.
+                return patternTuple.listpattern_.size();
+            case RECORD:
+                if (!(head instanceof PatternRecord patternRecord)) {
+                    return MISMATCH;
+                }
+                for (var field : patternRecord.listlabelledpattern_) {
+                    var label = ((ALabelledPattern) field).stellaident_;
+                    if (type instanceof TypeRecord typeRecord) {
+                        if (types.fieldIndex(typeRecord, label) < 0) {
+                            return MISMATCH;
+                        }
+                    } else {
+                        labels.computeIfAbsent(label, key -> labels.size());
+                    }
+                }
+                return 0;
+            case LIST:
+                if (head instanceof PatternCons) {
+                    return 1;
+                } else if (head instanceof PatternList patternList) {
+                    return patternList.listpattern_.isEmpty() ? 0 : 1;
+                } else if (head instanceof ListRest rest) {
+                    return rest.from() == rest.items().size() ? 0 : 1;
+                }
+                return MISMATCH;
+            default:
+                return MISMATCH;
+        }
+    }
+
+    private static Type[] fieldTypes(Kind kind, Type type, Object head, int key) {
+        switch (kind) {
+            case SUM:
+                var typeSum = type instanceof TypeSum sum ? sum : null;
+                return new Type[] {typeSum == null ? null : key == 0 ? typeSum.type_1 : typeSum.type_2};
+            case VARIANT:
+                if (type instanceof TypeVariant typeVariant) {
+                    var field = (AVariantFieldType) typeVariant.listvariantfieldtype_.get(key);
+                    return field.optionaltyping_ instanceof SomeTyping someTyping ? new Type[] {someTyping.type_} : NO_FIELDS;
+                }
+                return ((PatternVariant) head).patterndata_ instanceof SomePatternData ? new Type[1] : NO_FIELDS;
+            case TUPLE:
+                if (type instanceof TypeTuple typeTuple) {
+                    return typeTuple.listtype_.toArray(new Type[0]);
+                }
+                return new Type[key];
+            case RECORD:
+                if (type instanceof TypeRecord typeRecord) {
+                    var fieldTypes = new Type[typeRecord.listrecordfieldtype_.size()];
+                    for (var i = 0; i < fieldTypes.length; i++) {
+                        fieldTypes[i] = ((ARecordFieldType) typeRecord.listrecordfieldtype_.get(i)).type_;
+                    }
+                    return fieldTypes;
+                }
+                return NO_FIELDS;
+            case LIST:
+                if (key == 0) {
+                    return NO_FIELDS;
+                }
+                return new Type[] {type instanceof TypeList typeList ? typeList.type_ : null, type};
+            default:
+                return NO_FIELDS;
+        }
+    }
+
+    /**
+     * The row that continues from {@code row} for constructor {@code key}: the fields of its head,
+     * or {@code arity} wildcards if the head is a wildcard, followed by the rest of the row.
+     */
+    private Row specialize(Row row, Kind kind, Type type, Object head, int key, int arity, Map<String, Integer> labels) {
+        var cells = row.cells().tail();
+        if (arity == 0) {
+            return new Row(cells, row.arm());
+        }
+        var fields = new Object[arity];
+        if (head instanceof PatternInl patternInl) {
+            fields[0] = patternInl.pattern_;
+        } else if (head instanceof PatternInr patternInr) {
+            fields[0] = patternInr.pattern_;
+        } else if (head instanceof PatternVariant patternVariant) {
+            if (patternVariant.patterndata_ instanceof SomePatternData somePatternData) {
+                fields[0] = somePatternData.pattern_;
+            }
+        } else if (head instanceof PatternTuple patternTuple) {
+            for (var i = 0; i < arity; i++) {
+                fields[i] = patternTuple.listpattern_.get(i);
+            }
+        } else if (head instanceof PatternRecord patternRecord) {
+            for (var field : patternRecord.listlabelledpattern_) {
+                var labelled = (ALabelledPattern) field;
+                var index = type instanceof TypeRecord typeRecord
+                        ? types.fieldIndex(typeRecord, labelled.stellaident_)
+                        : labels.get(labelled.stellaident_);
+                if (fields[index] == null) {
+                    fields[index] = labelled.pattern_;
+                }
+            }
+        } else if (head instanceof PatternCons patternCons) {
+            fields[0] = patternCons.pattern_1;
+            fields[1] = patternCons.pattern_2;
+        } else if (head instanceof PatternList patternList) {
+            fields[0] = patternList.listpattern_.get(0);
+            fields[1] = new ListRest(patternList.listpattern_, 1);
+        } else if (head instanceof ListRest rest) {
+            fields[0] = rest.items().get(rest.from());
+            fields[1] = new ListRest(rest.items(), rest.from() + 1);
+        }
+        for (var i = arity - 1; i >= 0; i--) {
+            cells = new Cells(fields[i], cells);
+        }
+        return new Row(cells, row.arm());
+    }
+
+    /**
+     * Splits a {@code Nat} column. Literals and {@code succ} patterns are read as "exactly n" or "at
+     * least n"; the values that need telling apart are the literals that occur and, for each lower
+     * bound, the least value from it on that no literal covers. Values below every lower bound that
+     * are not literals are matched only by wildcards.
+     *
+     * @return whether every value is covered by some non-wildcard pattern
+     */
+    private static boolean splitNat(List<Row> rows, Map<Integer, Piece> pieces, List<Row> defaults) {
+        var bounds = new long[rows.size()];
+        var exact = new TreeSet<Long>();
+        var atLeast = new TreeSet<Long>();
+        for (var i = 0; i < rows.size(); i++) {
+            var head = strip(rows.get(i).cells().head());
+            bounds[i] = head == null ? Long.MIN_VALUE : nat(head);
+            if (bounds[i] >= 0) {
+                exact.add(bounds[i]);
+            } else if (bounds[i] != Long.MIN_VALUE && bounds[i] != Long.MAX_VALUE) {
+                atLeast.add(-bounds[i] - 1);
+            }
+        }
+        var values = new TreeSet<>(exact);
+        for (var bound : atLeast) {
+            var next = atLeast.higher(bound);
+            var value = bound;
+            while (exact.contains(value) && (next == null || value < next)) {
+                value++;
+            }
+            if (next == null || value < next) {
+                values.add(value);
+            }
+        }
+        var keys = new long[values.size()];
+        var k = 0;
+        for (var value : values) {
+            keys[k] = value;
+            pieces.put(k++, new Piece());
+        }
+        var wildcards = false;
+        for (var i = 0; i < rows.size(); i++) {
+            var row = new Row(rows.get(i).cells().tail(), rows.get(i).arm());
+            if (bounds[i] == Long.MIN_VALUE) {
+                wildcards = true;
+                defaults.add(row);
+                for (var piece : pieces.values()) {
+                    piece.rows.add(row);
+                }
+            } else if (bounds[i] >= 0) {
+                pieces.get(Arrays.binarySearch(keys, bounds[i])).rows.add(row);
+            } else if (bounds[i] != Long.MAX_VALUE) {
+                var from = Arrays.binarySearch(keys, -bounds[i] - 1);
+                for (var j = from < 0 ? -from - 1 : from; j < keys.length; j++) {
+                    pieces.get(j).rows.add(row);
+                }
+            }
+        }
+        if (!wildcards) {
+            defaults.clear();
+        }
+        if (atLeast.isEmpty()) {
+            return false;
+        }
+        for (var value = 0L; value < atLeast.first(); value++) {
+            if (!exact.contains(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A {@code Nat} pattern as {@code n} for "exactly n" or {@code -n - 1} for "at least n", or
+     * {@link Long#MAX_VALUE} if the pattern is not a number pattern.
+     */
+    private static long nat(Object pattern) {
+        var succs = 0L;
+        while (pattern instanceof PatternSucc patternSucc) {
+            succs++;
+            pattern = strip(patternSucc.pattern_);
+        }
+        if (pattern == null) {
+            return -succs - 1;
+        }
+        if (pattern instanceof PatternInt patternInt && patternInt.integer_ >= 0) {
+            return succs + patternInt.integer_;
+        }
+        return Long.MAX_VALUE;
+    }
+}
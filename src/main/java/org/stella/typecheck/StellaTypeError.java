@@ -0,0 +1,72 @@
+package org.stella.typecheck;
+
+/**
+ * A type error found by the checker.
+ * <p>
+ * Ill-typed programs are an expected outcome rather than a failure of the checker, so these
+ * exceptions capture no stack trace and build their message only when it is asked for. The message
+ * starts with the {@link ErrorCode} name; the source position is known only when the parser
+ * recorded one for the offending node.
+ */
+public class StellaTypeError extends RuntimeException {
+    private final ErrorCode code;
+    private final int line;
+    private final int column;
+    private String message;
+
+    public StellaTypeError(ErrorCode code) {
+        this(code, -1, -1);
+    }
+
+    /**
+     * Creates an error located at {@code line:column}; non-positive values mean "unknown", which is
+     * what the parser leaves in nodes it did not annotate.
+     */
+    public StellaTypeError(ErrorCode code, int line, int column) {
+        super(null, null, false, false);
+        this.code = code;
+        this.line = line > 0 ? line : -1;
+        this.column = line > 0 ? column : -1;
+    }
+
+    public ErrorCode code() {
+        return code;
+    }
+
+    public boolean hasPosition() {
+        return line > 0;
+    }
+
+    /**
+     * @return the 1-based line of the error, or {@code -1} if unknown
+     */
+    public int line() {
+        return line;
+    }
+
+    /**
+     * @return the column of the error, or {@code -1} if unknown
+     */
+    public int column() {
+        return column;
+    }
+
+    @Override
+    public String getMessage() {
+        if (message == null) {
+            var text = new StringBuilder(code.name());
+            describe(text);
+            if (hasPosition()) {
+                text.append(" (at line ").append(line).append(", column ").append(column).append(')');
+            }
+            message = text.toString();
+        }
+        return message;
+    }
+
+    /**
+     * Appends details that follow the error code in the message.
+     */
+    void describe(StringBuilder text) {
+    }
+}
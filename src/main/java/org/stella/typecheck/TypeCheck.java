@@ -2,11 +2,65 @@ package org.stella.typecheck;
 
 import org.syntax.stella.Absyn.*;
 
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
 public class TypeCheck
 {
     public static void typecheckProgram(Program program) throws Exception
     {
-        VisitTypeCheck v = new VisitTypeCheck();
+        VisitTypeCheck v = new VisitTypeCheck(NameResolver.resolve(program), null);
         program.accept(v.new ProgramVisitor<>(), new ContextAndExpectedType() /* initial context information*/);
     }
+
+    /**
+     * Like {@link #typecheckProgram(Program)}, and adds to {@code redundant} every match arm that no
+     * value reaches, because the arms before it match everything it does. Redundant arms are not a
+     * type error.
+     */
+    public static void typecheckProgram(Program program, List<? super MatchCase> redundant) throws Exception
+    {
+        VisitTypeCheck v = new VisitTypeCheck(NameResolver.resolve(program), null);
+        v.collectRedundantArms(redundant);
+        program.accept(v.new ProgramVisitor<>(), new ContextAndExpectedType());
+    }
+
+    /**
+     * Like {@link #typecheckProgram(Program)}, but fails with an {@link IllegalStateException} if any
+     * expression is visited more than once, as with {@code -Dstella.debug=visits}.
+     *
+     * @return the number of expressions visited, once each
+     */
+    public static int typecheckProgramCountingVisits(Program program) throws Exception
+    {
+        VisitCounter visits = new VisitCounter();
+        VisitTypeCheck v = new VisitTypeCheck(NameResolver.resolve(program), null, visits);
+        program.accept(v.new ProgramVisitor<>(), new ContextAndExpectedType());
+        return visits.visits();
+    }
+
+    /**
+     * Like {@link #typecheckProgram(Program)}, but checks the bodies of top-level functions in
+     * parallel on {@code pool}. Reports the same error as the sequential check.
+     */
+    public static void typecheckProgram(Program program, ForkJoinPool pool) throws Exception
+    {
+        VisitTypeCheck v = new VisitTypeCheck(NameResolver.resolve(program), pool);
+        program.accept(v.new ProgramVisitor<>(), new ContextAndExpectedType());
+    }
+
+    /**
+     * Checks a program given as its top-level declarations in source order, one at a time, so that
+     * each declaration can be dropped once it has been checked; reports the same error as
+     * {@link #typecheckProgram(Program)}. Declarations that refer to globals declared after them are
+     * kept until the end.
+     *
+     * @return {@code false} if the program redefines a global name; such a program has to be checked
+     *         whole with {@link #typecheckProgram(Program)}
+     */
+    public static boolean typecheckDecls(Iterator<? extends Decl> decls) throws Exception
+    {
+        return new VisitTypeCheck(null, null).checkStream(decls);
+    }
 }
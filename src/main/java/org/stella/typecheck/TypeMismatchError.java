@@ -0,0 +1,33 @@
+package org.stella.typecheck;
+
+import org.syntax.stella.PrettyPrinter;
+import org.syntax.stella.Absyn.Type;
+
+/**
+ * A type error caused by an expression whose type differs from the one its context expects.
+ * Both types are printed only if the message is requested.
+ */
+public final class TypeMismatchError extends StellaTypeError {
+    private final Type expected;
+    private final Type actual;
+
+    public TypeMismatchError(ErrorCode code, Type expected, Type actual) {
+        super(code);
+        this.expected = expected;
+        this.actual = actual;
+    }
+
+    public Type expected() {
+        return expected;
+    }
+
+    public Type actual() {
+        return actual;
+    }
+
+    @Override
+    void describe(StringBuilder text) {
+        text.append(": expected ").append(expected == null ? "?" : PrettyPrinter.print(expected))
+                .append(" but got ").append(actual == null ? "?" : PrettyPrinter.print(actual));
+    }
+}
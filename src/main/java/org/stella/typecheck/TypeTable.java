@@ -0,0 +1,312 @@
+package org.stella.typecheck;
+
+import org.stella.util.HashSlots;
+import org.syntax.stella.Absyn.*;
+
+import java.util.*;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Hash-consing table for the types the checker works with.
+ * <p>
+ * Base types are shared, immutable singletons. Compound types are interned per table, and a table
+ * belongs to one {@link VisitTypeCheck}, so it needs no locking and does not grow across programs.
+ * Every structurally equal type built through one table is the same instance, which lets
+ * {@code checkType} compare types by reference.
+ * <p>
+ * Type variables are interned by name and left unresolved, so interning never changes the
+ * structure of a type. Recursive and universal types are kept as they are.
+ * <p>
+ * A table created with a parent first looks types up in the parent, which must no longer change;
+ * several children of one frozen parent can then be used from different threads.
+ * <p>
+ * The table also finds fields of record and variant types by label. Types with a handful of fields
+ * are searched in order; larger ones get a label index on first use, cached per field list for the
+ * life of the table and extended when fields are appended, as they are to the accumulated exception
+ * variant.
+ */
+final class TypeTable {
+    static final TypeBool BOOL = new TypeBool();
+    static final TypeNat NAT = new TypeNat();
+    static final TypeUnit UNIT = new TypeUnit();
+    static final TypeTop TOP = new TypeTop();
+    static final TypeBottom BOTTOM = new TypeBottom();
+    static final TypeAuto AUTO = new TypeAuto();
+
+    private final TypeTable parent;
+    private final Map<Key, Type> types = new HashMap<>();
+    private final Map<List<?>, LabelIndex> labelIndexes = new IdentityHashMap<>();
+
+    TypeTable() {
+        this(null);
+    }
+
+    TypeTable(TypeTable parent) {
+        this.parent = parent;
+    }
+
+    Type intern(Type type) {
+        if (type == null) {
+            return null;
+        } else if (type instanceof TypeBool) {
+            return BOOL;
+        } else if (type instanceof TypeNat) {
+            return NAT;
+        } else if (type instanceof TypeUnit) {
+            return UNIT;
+        } else if (type instanceof TypeTop) {
+            return TOP;
+        } else if (type instanceof TypeBottom) {
+            return BOTTOM;
+        } else if (type instanceof TypeAuto) {
+            return AUTO;
+        } else if (type instanceof TypeFun typeFun) {
+            var params = new ArrayList<Type>(typeFun.listtype_.size());
+            for (var param : typeFun.listtype_) {
+                params.add(intern(param));
+            }
+            return fun(params, intern(typeFun.type_));
+        } else if (type instanceof TypeSum typeSum) {
+            return sum(intern(typeSum.type_1), intern(typeSum.type_2));
+        } else if (type instanceof TypeTuple typeTuple) {
+            var items = new ArrayList<Type>(typeTuple.listtype_.size());
+            for (var item : typeTuple.listtype_) {
+                items.add(intern(item));
+            }
+            return tuple(items);
+        } else if (type instanceof TypeRecord typeRecord) {
+            var labels = new ArrayList<String>(typeRecord.listrecordfieldtype_.size());
+            var fieldTypes = new ArrayList<Type>(typeRecord.listrecordfieldtype_.size());
+            for (var field : typeRecord.listrecordfieldtype_) {
+                var aField = (ARecordFieldType) field;
+                labels.add(aField.stellaident_);
+                fieldTypes.add(intern(aField.type_));
+            }
+            return record(labels, fieldTypes);
+        } else if (type instanceof TypeVariant typeVariant) {
+            var labels = new ArrayList<String>(typeVariant.listvariantfieldtype_.size());
+            var fieldTypes = new ArrayList<Type>(typeVariant.listvariantfieldtype_.size());
+            for (var field : typeVariant.listvariantfieldtype_) {
+                var aField = (AVariantFieldType) field;
+                labels.add(aField.stellaident_);
+                fieldTypes.add(aField.optionaltyping_ instanceof SomeTyping someTyping ? intern(someTyping.type_) : null);
+            }
+            return variant(labels, fieldTypes);
+        } else if (type instanceof TypeList typeList) {
+            return list(intern(typeList.type_));
+        } else if (type instanceof TypeRef typeRef) {
+            return ref(intern(typeRef.type_));
+        } else if (type instanceof TypeVar typeVar) {
+            return canonical(new Key(TypeVar.class, typeVar.stellaident_), key -> new TypeVar(typeVar.stellaident_));
+        }
+        return type;
+    }
+
+    Type fun(List<Type> params, Type result) {
+        var parts = new Object[params.size() + 1];
+        parts[0] = result;
+        for (var i = 0; i < params.size(); i++) {
+            parts[i + 1] = params.get(i);
+        }
+        return canonical(new Key(TypeFun.class, parts), key -> {
+            var listType = new ListType();
+            listType.addAll(params);
+            return new TypeFun(listType, result);
+        });
+    }
+
+    Type fun(Type param, Type result) {
+        return fun(Collections.singletonList(param), result);
+    }
+
+    Type sum(Type left, Type right) {
+        return canonical(new Key(TypeSum.class, left, right), key -> new TypeSum(left, right));
+    }
+
+    Type tuple(List<Type> items) {
+        return canonical(new Key(TypeTuple.class, items.toArray()), key -> {
+            var listType = new ListType();
+            listType.addAll(items);
+            return new TypeTuple(listType);
+        });
+    }
+
+    Type record(List<String> labels, List<Type> fieldTypes) {
+        return canonical(new Key(TypeRecord.class, interleave(labels, fieldTypes)), key -> {
+            var fields = new ListRecordFieldType();
+            for (var i = 0; i < labels.size(); i++) {
+                fields.add(new ARecordFieldType(labels.get(i), fieldTypes.get(i)));
+            }
+            return new TypeRecord(fields);
+        });
+    }
+
+    /**
+     * Interns a variant type; a {@code null} field type stands for a nullary label.
+     */
+    Type variant(List<String> labels, List<Type> fieldTypes) {
+        return canonical(new Key(TypeVariant.class, interleave(labels, fieldTypes)), key -> {
+            var fields = new ListVariantFieldType();
+            for (var i = 0; i < labels.size(); i++) {
+                var fieldType = fieldTypes.get(i);
+                fields.add(new AVariantFieldType(labels.get(i), fieldType == null ? new NoTyping() : new SomeTyping(fieldType)));
+            }
+            return new TypeVariant(fields);
+        });
+    }
+
+    Type list(Type item) {
+        return canonical(new Key(TypeList.class, item), key -> new TypeList(item));
+    }
+
+    Type ref(Type inner) {
+        return canonical(new Key(TypeRef.class, inner), key -> new TypeRef(inner));
+    }
+
+    /**
+     * Position of the first field labelled {@code label} in a record type, or -1 if there is none.
+     */
+    int fieldIndex(TypeRecord type, String label) {
+        return indexOf(type.listrecordfieldtype_, label);
+    }
+
+    /**
+     * Position of the first field labelled {@code label} in a variant type, or -1 if there is none.
+     */
+    int labelIndex(TypeVariant type, String label) {
+        return indexOf(type.listvariantfieldtype_, label);
+    }
+
+    private int indexOf(List<?> fields, String label) {
+        if (fields.size() < LabelIndex.THRESHOLD) {
+            for (var i = 0; i < fields.size(); i++) {
+                if (LabelIndex.label(fields.get(i)).equals(label)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        return labelIndexes.computeIfAbsent(fields, key -> new LabelIndex()).find(fields, label);
+    }
+
+    private Type canonical(Key key, Function<Key, Type> create) {
+        var shared = parent != null ? parent.find(key) : null;
+        return shared != null ? shared : types.computeIfAbsent(key, create);
+    }
+
+    private Type find(Key key) {
+        var type = types.get(key);
+        return type != null || parent == null ? type : parent.find(key);
+    }
+
+    private static Object[] interleave(List<String> labels, List<Type> fieldTypes) {
+        var parts = new Object[labels.size() * 2];
+        for (var i = 0; i < labels.size(); i++) {
+            parts[2 * i] = labels.get(i);
+            parts[2 * i + 1] = fieldTypes.get(i);
+        }
+        return parts;
+    }
+
+    /**
+     * Open-addressing index from label to the position of its first field, over the fields of one
+     * list that it has seen so far.
+     */
+    private static final class LabelIndex {
+        // Smaller field lists are searched linearly.
+        static final int THRESHOLD = 8;
+
+        private String[] labels = new String[2 * THRESHOLD];
+        private int[] positions = new int[2 * THRESHOLD];
+        private int indexed;
+
+        static String label(Object field) {
+            return field instanceof ARecordFieldType recordField
+                    ? recordField.stellaident_
+                    : ((AVariantFieldType) field).stellaident_;
+        }
+
+        int find(List<?> fields, String label) {
+            while (indexed < fields.size()) {
+                add(label(fields.get(indexed)), indexed++);
+            }
+            var mask = labels.length - 1;
+            for (var slot = HashSlots.first(label.hashCode(), labels.length); labels[slot] != null; slot = (slot + 1) & mask) {
+                if (labels[slot].equals(label)) {
+                    return positions[slot];
+                }
+            }
+            return -1;
+        }
+
+        private void add(String label, int position) {
+            if (2 * (position + 1) > labels.length) {
+                var oldLabels = labels;
+                var oldPositions = positions;
+                labels = new String[2 * labels.length];
+                positions = new int[labels.length];
+                for (var i = 0; i < oldLabels.length; i++) {
+                    if (oldLabels[i] != null) {
+                        insert(oldLabels[i], oldPositions[i]);
+                    }
+                }
+            }
+            insert(label, position);
+        }
+
+        /**
+         * Adds {@code label} unless an earlier field already has it, which is the one lookups find.
+         */
+        private void insert(String label, int position) {
+            var mask = labels.length - 1;
+            var slot = HashSlots.first(label.hashCode(), labels.length);
+            for (; labels[slot] != null; slot = (slot + 1) & mask) {
+                if (labels[slot].equals(label)) {
+                    return;
+                }
+            }
+            labels[slot] = label;
+            positions[slot] = position;
+        }
+    }
+
+    /**
+     * Lookup key for a compound type whose component types are already interned: labels are
+     * compared by value, component types by reference.
+     */
+    private static final class Key {
+        private final Class<?> kind;
+        private final Object[] parts;
+        private final int hash;
+
+        Key(Class<?> kind, Object... parts) {
+            this.kind = kind;
+            this.parts = parts;
+            var h = kind.hashCode();
+            for (var part : parts) {
+                h = 31 * h + (part instanceof String ? part.hashCode() : System.identityHashCode(part));
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key other) || kind != other.kind || hash != other.hash || parts.length != other.parts.length) {
+                return false;
+            }
+            for (var i = 0; i < parts.length; i++) {
+                var part = parts[i];
+                if (part instanceof String ? !part.equals(other.parts[i]) : part != other.parts[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
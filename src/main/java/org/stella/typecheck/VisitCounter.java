@@ -0,0 +1,79 @@
+package org.stella.typecheck;
+
+import org.syntax.stella.Absyn.Expr;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Debugging aid that checks every expression is visited at most once per check.
+ * <p>
+ * Each rule of the checker visits each of its subexpressions once, which keeps a check linear in
+ * the size of the program; a rule that visited a subexpression twice, say once with and once
+ * without an expected type, would make nested uses of it exponential. {@link #wrap} puts a counter
+ * in front of an expression visitor that remembers every node it is handed and throws an
+ * {@link IllegalStateException} naming the node the second time one comes back. Forks of one check
+ * share a counter, so it is thread-safe.
+ * <p>
+ * The proxy costs a reflective call per visit, so it is only installed when asked for, with
+ * {@code -Dstella.debug=visits} or {@link TypeCheck#typecheckProgramCountingVisits}.
+ */
+final class VisitCounter {
+    private final Set<Expr> visited = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    /**
+     * Returns a visitor that counts each node with this counter and passes it on to {@code target}.
+     */
+    @SuppressWarnings("unchecked")
+    <R, A> Expr.Visitor<R, A> wrap(Expr.Visitor<R, A> target) {
+        return (Expr.Visitor<R, A>) Proxy.newProxyInstance(Expr.Visitor.class.getClassLoader(),
+                new Class<?>[] {Expr.Visitor.class}, (proxy, method, args) -> visit(target, method, args));
+    }
+
+    /**
+     * Number of distinct expressions visited so far.
+     */
+    int visits() {
+        return visited.size();
+    }
+
+    /**
+     * Forgets every visit so far, before a pass that checks declarations again on purpose.
+     */
+    void reset() {
+        visited.clear();
+    }
+
+    private Object visit(Object target, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return method.invoke(target, args);
+        }
+        var node = (Expr) args[0];
+        if (!visited.add(node)) {
+            throw new IllegalStateException(describe(node) + " was checked more than once");
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static String describe(Expr node) {
+        var text = node.getClass().getSimpleName();
+        try {
+            var line = node.getClass().getField("line_num").getInt(node);
+            var column = node.getClass().getField("col_num").getInt(node);
+            if (line > 0) {
+                text += " at line " + line + ", column " + column;
+            }
+        } catch (ReflectiveOperationException e) {
+            // not every node records a position
+        }
+        return text;
+    }
+}
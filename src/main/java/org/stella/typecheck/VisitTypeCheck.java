@@ -4,10 +4,10 @@ package org.stella.typecheck;
 
 import org.syntax.stella.Absyn.*;
 
-import javafx.util.Pair;
-
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 enum TypeKind {
     TYPE_BOOL, TYPE_NAT, TYPE_UNIT;
@@ -15,57 +15,24 @@ enum TypeKind {
     public Type getStellaType() {
         switch (this) {
             case TYPE_BOOL -> {
-                return new TypeBool();
+                return TypeTable.BOOL;
             }
             case TYPE_NAT -> {
-                return new TypeNat();
+                return TypeTable.NAT;
             }
             case TYPE_UNIT -> {
-                return new TypeUnit();
+                return TypeTable.UNIT;
             }
         }
         return null;
     }
 }
 
-class ContextAndExpectedType {
-    public Deque<Map<String, Type>> scopes = new ArrayDeque<>(List.of(new HashMap<>()));
-    public Type expected;
-    public Type expected_pattern;
-
-    public Object thrown_exception;
-
-    public Type findVariableType(String name) {
-        var it = scopes.descendingIterator();
-        while (it.hasNext()) {
-            var cur = it.next();
-            var currentType = cur.getOrDefault(name, null);
-            if (currentType != null) {
-                return currentType;
-            }
-        }
-        return null;
-    }
-
-    public Type getException() {
-        if (thrown_exception != null) {
-            return (Type) thrown_exception;
-        }
-        return null;
-    }
-
-    public void registerException(Type type) {
-        thrown_exception = type;
-    }
-
-    public void registerException(String name, Type type) {
-        if (thrown_exception == null) {
-            thrown_exception = new TypeVariant(new ListVariantFieldType());
-            ((TypeVariant) thrown_exception).listvariantfieldtype_.add(new AVariantFieldType(name, new SomeTyping(type)));
-        } else if (thrown_exception instanceof TypeVariant exception) {
-            exception.listvariantfieldtype_.add(new AVariantFieldType(name, new SomeTyping(type)));
-        }
-    }
+/**
+ * A labelled component: a parameter, a record field or binding, or a variant label with its type
+ * ({@code null} for nullary labels).
+ */
+record Field(String label, Type type) {
 }
 
 /*** Visitor Design Pattern Skeleton. ***/
@@ -77,52 +44,87 @@ class ContextAndExpectedType {
    and context types.*/
 
 public class VisitTypeCheck {
-    public void checkExhaustiveness(ListMatchCase listMatchCase, Type expected) {
-        if (expected instanceof TypeSum) {
-            checkSumExhaustiveness(listMatchCase);
-        } else if (expected instanceof TypeVariant typeVariant) {
-            checkVariantExhaustiveness(listMatchCase, typeVariant);
-        }
+    /**
+     * Whether every check counts the visits of each expression and fails on a second visit of one;
+     * set with {@code -Dstella.debug=visits}. See {@link VisitCounter}.
+     */
+    static final boolean COUNT_VISITS = "visits".equals(System.getProperty("stella.debug"));
+
+    private final TypeTable types;
+    private final NameResolver names;
+    private final ForkJoinPool pool;
+    private final VisitCounter visits;
+    private List<? super MatchCase> redundantArms;
+
+    // The visitors keep no state of their own, so one instance of each serves the whole check.
+    private final DeclVisitor<Type, ContextAndExpectedType> declVisitor = new DeclVisitor<>();
+    private final AnnotationVisitor<Object, ContextAndExpectedType> annotationVisitor = new AnnotationVisitor<>();
+    private final ParamDeclVisitor<ContextAndExpectedType> paramDeclVisitor = new ParamDeclVisitor<>();
+    private final ReturnTypeVisitor<Type, ContextAndExpectedType> returnTypeVisitor = new ReturnTypeVisitor<>();
+    private final TypeVisitor<Type, ContextAndExpectedType> typeVisitor = new TypeVisitor<>();
+    private final OptionalTypingVisitor<Type, ContextAndExpectedType> optionalTypingVisitor = new OptionalTypingVisitor<>();
+    private final PatternDataVisitor<String, ContextAndExpectedType> patternDataVisitor = new PatternDataVisitor<>();
+    private final ExprDataVisitor<Type, ContextAndExpectedType> exprDataVisitor = new ExprDataVisitor<>();
+    private final PatternVisitor<String, ContextAndExpectedType> patternVisitor = new PatternVisitor<>();
+    private final LabelledPatternVisitor<String, ContextAndExpectedType> labelledPatternVisitor = new LabelledPatternVisitor<>();
+    private final BindingVisitor<ContextAndExpectedType> bindingVisitor = new BindingVisitor<>();
+    private final Expr.Visitor<Type, ContextAndExpectedType> exprVisitor;
+    private final PatternBindingVisitor<Type, ContextAndExpectedType> patternBindingVisitor = new PatternBindingVisitor<>();
+    private final VariantFieldTypeVisitor<ContextAndExpectedType> variantFieldTypeVisitor = new VariantFieldTypeVisitor<>();
+    private final RecordFieldTypeVisitor<ContextAndExpectedType> recordFieldTypeVisitor = new RecordFieldTypeVisitor<>();
+    private final LanguageDeclVisitor<Object, ContextAndExpectedType> languageDeclVisitor = new LanguageDeclVisitor<>();
+    private final ExtensionVisitor<Object, ContextAndExpectedType> extensionVisitor = new ExtensionVisitor<>();
+
+    public VisitTypeCheck() {
+        this(null, null);
     }
 
-    private void checkSumExhaustiveness(ListMatchCase listMatchCase) {
-        boolean hasInl = false, hasInr = false;
-        for (var listMatchCaseElement : listMatchCase) {
-            var aMatchCase = (AMatchCase) listMatchCaseElement;
-            if (aMatchCase.pattern_ instanceof PatternInl) {
-                hasInl = true;
-            } else if (aMatchCase.pattern_ instanceof PatternInr) {
-                hasInr = true;
-            }
-        }
-        if (!hasInl || !hasInr) {
-            throw new RuntimeException("ERROR_NONEXHAUSTIVE_MATCH_PATTERNS");
-        }
+    /**
+     * @param names slots of the program's variables, or {@code null} to look every variable up by name
+     * @param pool  pool to check top-level function bodies on, or {@code null} to check them in order
+     */
+    VisitTypeCheck(NameResolver names, ForkJoinPool pool) {
+        this(names, pool, COUNT_VISITS ? new VisitCounter() : null);
     }
 
-    private void checkVariantExhaustiveness(ListMatchCase listMatchCase, TypeVariant typeVariant) {
-        var used = new BitSet(typeVariant.listvariantfieldtype_.size());
-        for (var listMatchCaseItem : listMatchCase) {
-            var aMatchCase = (AMatchCase) listMatchCaseItem;
-            if (aMatchCase.pattern_ instanceof PatternVariant patternVariant) {
-                var hasPattern = false;
-                for (var i = 0; i < typeVariant.listvariantfieldtype_.size(); i++) {
-                    var actualType = typeVariant.listvariantfieldtype_.get(i).accept(new VariantFieldTypeVisitor<>(), new ContextAndExpectedType());
-                    if (actualType.getKey().equals(patternVariant.stellaident_)) {
-                        used.set(i, true);
-                        hasPattern = true;
-                        break;
-                    }
-                }
-                if (!hasPattern) {
-                    throw new RuntimeException("ERROR_UNEXPECTED_PATTERN_FOR_TYPE");
-                }
-            } else {
-                throw new RuntimeException("ERROR_UNEXPECTED_PATTERN_FOR_TYPE");
+    /**
+     * @param visits counter to check every expression visit with, or {@code null} not to count them
+     */
+    VisitTypeCheck(NameResolver names, ForkJoinPool pool, VisitCounter visits) {
+        this(names, new TypeTable(), pool, visits);
+    }
+
+    private VisitTypeCheck(NameResolver names, TypeTable types, ForkJoinPool pool, VisitCounter visits) {
+        this.names = names;
+        this.types = types;
+        this.pool = pool;
+        this.visits = visits;
+        this.exprVisitor = visits == null ? new ExprVisitor<>() : visits.wrap(new ExprVisitor<>());
+    }
+
+    /**
+     * Collects the arms of every match checked from now on that no value reaches into {@code arms}.
+     */
+    void collectRedundantArms(List<? super MatchCase> arms) {
+        redundantArms = arms;
+    }
+
+    /**
+     * Checks that the arms of a match cover every value of {@code expected}; see {@link PatternMatrix}.
+     */
+    public void checkExhaustiveness(ListMatchCase listMatchCase, Type expected) {
+        var patterns = new ArrayList<Pattern>(listMatchCase.size());
+        for (var matchCase : listMatchCase) {
+            patterns.add(((AMatchCase) matchCase).pattern_);
+        }
+        var result = PatternMatrix.analyze(types, expected, patterns);
+        if (redundantArms != null) {
+            for (var i = result.redundant().nextSetBit(0); i >= 0; i = result.redundant().nextSetBit(i + 1)) {
+                redundantArms.add(listMatchCase.get(i));
             }
         }
-        if (used.cardinality() != typeVariant.listvariantfieldtype_.size()) {
-            throw new RuntimeException("ERROR_NONEXHAUSTIVE_MATCH_PATTERNS");
+        if (!result.exhaustive()) {
+            throw new StellaTypeError(ErrorCode.ERROR_NONEXHAUSTIVE_MATCH_PATTERNS);
         }
     }
 
@@ -136,39 +138,225 @@ public class VisitTypeCheck {
             if (actual_sum.type_2 == null) {
                 checkType(actual_sum.type_1, expected_sum.type_1);
             }
-        } else if (!actual.equals(expected)) {
-            throw new RuntimeException("ERROR_UNEXPECTED_TYPE_FOR_EXPRESSION");
+        } else if (actual != expected && !actual.equals(expected)) {
+            throw new TypeMismatchError(ErrorCode.ERROR_UNEXPECTED_TYPE_FOR_EXPRESSION, expected, actual);
         }
     }
 
     public class ProgramVisitor<R extends Type, A extends ContextAndExpectedType> implements org.syntax.stella.Absyn.Program.Visitor<R, A> {
         public R visit(org.syntax.stella.Absyn.AProgram aProgram, A arg) { /* Code for AProgram goes here */
-            aProgram.languagedecl_.accept(new LanguageDeclVisitor<>(), arg);
+            aProgram.languagedecl_.accept(languageDeclVisitor, arg);
             for (var extension : aProgram.listextension_) {
-                extension.accept(new ExtensionVisitor<>(), arg);
+                extension.accept(extensionVisitor, arg);
             }
             for (var decl : aProgram.listdecl_) {
-                if (decl instanceof DeclFun declFun) {
-                    var listType = new ListType();
-                    for (var param : declFun.listparamdecl_) {
-                        listType.add(param.accept(new ParamDeclVisitor<>(), new ContextAndExpectedType()).getValue());
-                    }
-                    arg.scopes.getLast().put(declFun.stellaident_, new TypeFun(listType, declFun.returntype_.accept(new ReturnTypeVisitor<>(), new ContextAndExpectedType())));
-                } else if (decl instanceof DeclTypeAlias declTypeAlias) {
-                    arg.scopes.getLast().put(declTypeAlias.stellaident_, declTypeAlias.type_);
+                bindSignature(decl, arg);
+            }
+            checkMain(arg, aProgram.line_num, aProgram.col_num);
+            checkDecls(aProgram.listdecl_, arg);
+            return null;
+        }
+    }
+
+    /**
+     * Binds the name of a top-level function or type alias in the global scope of {@code arg}.
+     *
+     * @return the bound name, or {@code null} for other declarations
+     */
+    private String bindSignature(Decl decl, ContextAndExpectedType arg) {
+        if (decl instanceof DeclFun declFun) {
+            var listType = new ListType();
+            for (var param : declFun.listparamdecl_) {
+                listType.add(param.accept(paramDeclVisitor, new ContextAndExpectedType()).type());
+            }
+            arg.scopes.bind(declFun.stellaident_, types.fun(listType, declFun.returntype_.accept(returnTypeVisitor, new ContextAndExpectedType())));
+            return declFun.stellaident_;
+        } else if (decl instanceof DeclTypeAlias declTypeAlias) {
+            arg.scopes.bind(declTypeAlias.stellaident_, types.intern(declTypeAlias.type_));
+            return declTypeAlias.stellaident_;
+        }
+        return null;
+    }
+
+    private void checkMain(ContextAndExpectedType arg, int line, int column) {
+        var mainType = arg.findVariableType("main");
+        if (mainType == null) {
+            throw new StellaTypeError(ErrorCode.ERROR_MISSING_MAIN, line, column);
+        }
+        if (((TypeFun) mainType).listtype_.size() != 1) {
+            throw new StellaTypeError(ErrorCode.INCORRECT_ARITY_OF_MAIN, line, column);
+        }
+    }
+
+    /**
+     * Checks a program given as its top-level declarations in source order, holding on to each only
+     * until it has been checked.
+     * <p>
+     * Each declaration's signature is bound as soon as it arrives, and its body is checked right away
+     * against the globals declared so far. If that check looked up a name it did not find, the name
+     * may be a later global, so the declaration is kept and checked again once all signatures are
+     * known, with the exceptions declared before it. Otherwise the outcome is the one the
+     * whole-program check would reach and the declaration is dropped. Once a declaration has failed,
+     * later bodies cannot fail earlier in source order and are not checked, but their signatures are
+     * still bound, since a missing {@code main} is reported before any body error.
+     *
+     * @return {@code false}, without a verdict, if a declaration redefines an earlier global name:
+     *         bodies already checked may have seen the earlier definition
+     */
+    boolean checkStream(Iterator<? extends Decl> decls) {
+        var globals = new ContextAndExpectedType();
+        var pending = new ArrayList<PendingDecl>();
+        RuntimeException failure = null;
+        var failurePosition = Integer.MAX_VALUE;
+        for (var position = 0; decls.hasNext(); position++) {
+            var decl = decls.next();
+            var name = decl instanceof DeclFun declFun ? declFun.stellaident_
+                    : decl instanceof DeclTypeAlias declTypeAlias ? declTypeAlias.stellaident_ : null;
+            if (name != null && globals.findVariableType(name) != null) {
+                return false;
+            }
+            bindSignature(decl, globals);
+            if (position > failurePosition) {
+                continue;
+            }
+            var misses = globals.scopes.misses;
+            var context = new ContextAndExpectedType();
+            context.scopes = globals.scopes;
+            context.thrown_exception = globals.thrown_exception;
+            try {
+                decl.accept(declVisitor, context);
+            } catch (RuntimeException e) {
+                globals.scopes.popTo(1);
+                if (globals.scopes.misses == misses) {
+                    failure = e;
+                    failurePosition = position;
                 }
             }
-            var mainType = arg.findVariableType("main");
-            if (mainType == null) {
-                throw new RuntimeException("ERROR_MISSING_MAIN");
+            globals.thrown_exception = context.thrown_exception;
+            if (globals.scopes.misses != misses) {
+                pending.add(new PendingDecl(position, decl, snapshotException(globals.thrown_exception)));
             }
-            if (((TypeFun) mainType).listtype_.size() != 1) {
-                throw new RuntimeException("INCORRECT_ARITY_OF_MAIN");
+        }
+        checkMain(globals, -1, -1);
+        if (visits != null && !pending.isEmpty()) {
+            // The declarations kept for the end are checked again in full.
+            visits.reset();
+        }
+        for (var pendingDecl : pending) {
+            if (pendingDecl.position() > failurePosition) {
+                break;
             }
-            for (var decl : aProgram.listdecl_) {
-                decl.accept(new DeclVisitor<>(), arg);
+            var context = new ContextAndExpectedType();
+            context.scopes = globals.scopes;
+            context.thrown_exception = pendingDecl.thrownException();
+            pendingDecl.decl().accept(declVisitor, context);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return true;
+    }
+
+    private record PendingDecl(int position, Decl decl, Object thrownException) {
+    }
+
+    /**
+     * Checks the top-level declarations once their signatures are in the global scope of {@code arg}.
+     * <p>
+     * Function bodies only read the global scope, so with a pool each body is checked on a separate
+     * task with its own context and a child of the frozen type table. Other declarations still run in
+     * order on the calling thread, and every function sees the exceptions declared before it. The error
+     * thrown is the one of the first failing declaration in source order, as in sequential mode.
+     */
+    private void checkDecls(ListDecl decls, ContextAndExpectedType arg) {
+        if (pool == null) {
+            for (var decl : decls) {
+                decl.accept(declVisitor, arg);
             }
-            return null;
+            return;
+        }
+        var functions = new ArrayList<PendingFunction>();
+        RuntimeException failure = null;
+        for (var decl : decls) {
+            if (decl instanceof DeclFun declFun) {
+                functions.add(new PendingFunction(declFun, snapshotException(arg.thrown_exception)));
+            } else {
+                try {
+                    decl.accept(declVisitor, arg);
+                } catch (RuntimeException e) {
+                    // Functions after this declaration cannot fail earlier in source order.
+                    failure = e;
+                    break;
+                }
+            }
+        }
+        var leafSize = Math.max(1, functions.size() / (pool.getParallelism() * 8));
+        // Forking here marks the global scope as shared before any task reads it.
+        var globals = arg.scopes.fork();
+        var functionFailure = pool.invoke(new CheckFunctions(functions, globals, leafSize, 0, functions.size()));
+        if (functionFailure != null) {
+            throw functionFailure;
+        } else if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Copies the exception variant declared so far, which later declarations extend in place.
+     */
+    private static Object snapshotException(Object exception) {
+        if (exception instanceof TypeVariant typeVariant) {
+            var fields = new ListVariantFieldType();
+            fields.addAll(typeVariant.listvariantfieldtype_);
+            return new TypeVariant(fields);
+        }
+        return exception;
+    }
+
+    private record PendingFunction(DeclFun declFun, Object thrownException) {
+    }
+
+    /**
+     * Checks {@code functions[from, to)}, splitting the range in halves down to {@code leafSize};
+     * returns the first error in the range or {@code null}.
+     */
+    private final class CheckFunctions extends RecursiveTask<RuntimeException> {
+        private final List<PendingFunction> functions;
+        private final Environment globals;
+        private final int leafSize;
+        private final int from;
+        private final int to;
+
+        CheckFunctions(List<PendingFunction> functions, Environment globals, int leafSize, int from, int to) {
+            this.functions = functions;
+            this.globals = globals;
+            this.leafSize = leafSize;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected RuntimeException compute() {
+            if (to - from <= leafSize) {
+                var checker = new VisitTypeCheck(names, new TypeTable(types), null, visits);
+                for (var i = from; i < to; i++) {
+                    var context = new ContextAndExpectedType();
+                    context.scopes = globals.fork();
+                    context.thrown_exception = functions.get(i).thrownException();
+                    try {
+                        functions.get(i).declFun().accept(checker.declVisitor, context);
+                    } catch (RuntimeException e) {
+                        return e;
+                    }
+                }
+                return null;
+            }
+            var middle = (from + to) >>> 1;
+            var right = new CheckFunctions(functions, globals, leafSize, middle, to);
+            right.fork();
+            var leftFailure = new CheckFunctions(functions, globals, leafSize, from, middle).compute();
+            var rightFailure = right.join();
+            return leftFailure != null ? leftFailure : rightFailure;
         }
     }
 
@@ -188,25 +376,25 @@ public class VisitTypeCheck {
 
     public class DeclVisitor<R extends Type, A extends ContextAndExpectedType> implements org.syntax.stella.Absyn.Decl.Visitor<R, A> {
         public R visit(org.syntax.stella.Absyn.DeclFun declFun, A arg) {
-            arg.scopes.add(new HashMap<>());
+            arg.scopes.push();
 
             for (var annotation : declFun.listannotation_) {
-                annotation.accept(new AnnotationVisitor<>(), arg);
+                annotation.accept(annotationVisitor, arg);
             }
 
             var listParameterTypes = new ListType();
             for (var paramDecl : declFun.listparamdecl_) {
-                listParameterTypes.add(paramDecl.accept(new ParamDeclVisitor<>(), arg).getValue());
+                listParameterTypes.add(paramDecl.accept(paramDeclVisitor, arg).type());
             }
 
-            var expectedReturnType = declFun.returntype_.accept(new ReturnTypeVisitor<>(), arg);
+            var expectedReturnType = declFun.returntype_.accept(returnTypeVisitor, arg);
             arg.expected = expectedReturnType;
-            var actualReturnType = declFun.expr_.accept(new ExprVisitor<>(), arg);
+            var actualReturnType = declFun.expr_.accept(exprVisitor, arg);
 
             checkType(actualReturnType, expectedReturnType);
 
-            arg.scopes.removeLast();
-            return (R) new TypeFun(listParameterTypes, actualReturnType);
+            arg.scopes.pop();
+            return (R) types.fun(listParameterTypes, actualReturnType);
         }
 
         @Override
@@ -216,7 +404,7 @@ public class VisitTypeCheck {
 
         public R visit(org.syntax.stella.Absyn.DeclTypeAlias declTypeAlias, A arg) { /* Code for DeclTypeAlias goes here */
 
-            declTypeAlias.type_.accept(new TypeVisitor<>(), arg);
+            declTypeAlias.type_.accept(typeVisitor, arg);
             return null;
         }
 
@@ -235,7 +423,7 @@ public class VisitTypeCheck {
 
     public class LocalDeclVisitor<R extends Type, A extends ContextAndExpectedType> implements org.syntax.stella.Absyn.LocalDecl.Visitor<R, A> {
         public R visit(org.syntax.stella.Absyn.ALocalDecl aLocalDecl, A arg) { /* Code for ALocalDecl goes here */
-            aLocalDecl.decl_.accept(new DeclVisitor<>(), arg);
+            aLocalDecl.decl_.accept(declVisitor, arg);
             return null;
         }
     }
@@ -246,10 +434,10 @@ public class VisitTypeCheck {
         }
     }
 
-    public class ParamDeclVisitor<R extends Pair<String, T>, T extends Type, A extends ContextAndExpectedType> implements org.syntax.stella.Absyn.ParamDecl.Visitor<R, A> {
-        public R visit(org.syntax.stella.Absyn.AParamDecl aParamDecl, A arg) { /* Code for AParamDecl goes here */
-            arg.scopes.getLast().put(aParamDecl.stellaident_, aParamDecl.type_.accept(new TypeVisitor<>(), arg));
-            return (R) new Pair<>(aParamDecl.stellaident_, arg.findVariableType(aParamDecl.stellaident_));
+    public class ParamDeclVisitor<A extends ContextAndExpectedType> implements org.syntax.stella.Absyn.ParamDecl.Visitor<Field, A> {
+        public Field visit(org.syntax.stella.Absyn.AParamDecl aParamDecl, A arg) { /* Code for AParamDecl goes here */
+            arg.scopes.bind(aParamDecl.stellaident_, aParamDecl.type_.accept(typeVisitor, arg));
+            return new Field(aParamDecl.stellaident_, arg.findVariableType(aParamDecl.stellaident_));
         }
     }
 
@@ -259,7 +447,7 @@ public class VisitTypeCheck {
         }
 
         public R visit(org.syntax.stella.Absyn.SomeReturnType someReturnType, A arg) { /* Code for SomeReturnType goes here */
-            return someReturnType.type_.accept(new TypeVisitor<>(), arg);
+            return (R) someReturnType.type_.accept(typeVisitor, arg);
         }
     }
 
@@ -270,7 +458,7 @@ public class VisitTypeCheck {
 
         public R visit(org.syntax.stella.Absyn.SomeThrowType someThrowType, A arg) { /* Code for SomeThrowType goes here */
             for (var type : someThrowType.listtype_) {
-                type.accept(new TypeVisitor<>(), arg);
+                type.accept(typeVisitor, arg);
             }
             return null;
         }
@@ -280,9 +468,9 @@ public class VisitTypeCheck {
         public R visit(org.syntax.stella.Absyn.TypeFun typeFun, A arg) { /* Code for TypeFun goes here */
             var listType = new ListType();
             for (var type : typeFun.listtype_) {
-                listType.add(type.accept(new TypeVisitor<>(), arg));
+                listType.add(type.accept(typeVisitor, arg));
             }
-            return (R) new TypeFun(listType, typeFun.type_.accept(new TypeVisitor<>(), arg));
+            return (R) types.fun(listType, typeFun.type_.accept(typeVisitor, arg));
         }
 
         @Override
@@ -292,57 +480,54 @@ public class VisitTypeCheck {
 
         public R visit(org.syntax.stella.Absyn.TypeRec typeRec, A arg) { /* Code for TypeRec goes here */
 
-            typeRec.type_.accept(new TypeVisitor<>(), arg);
+            typeRec.type_.accept(typeVisitor, arg);
             return null;
         }
 
         public R visit(org.syntax.stella.Absyn.TypeSum typeSum, A arg) { /* Code for TypeSum goes here */
-            return (R) new TypeSum(typeSum.type_1.accept(new TypeVisitor<>(), arg), typeSum.type_2.accept(new TypeVisitor<>(), arg));
+            return (R) types.sum(typeSum.type_1.accept(typeVisitor, arg), typeSum.type_2.accept(typeVisitor, arg));
         }
 
         public R visit(org.syntax.stella.Absyn.TypeTuple typeTuple, A arg) { /* Code for TypeTuple goes here */
             for (var type : typeTuple.listtype_) {
-                type.accept(new TypeVisitor<>(), arg);
+                type.accept(typeVisitor, arg);
             }
-            return (R) typeTuple;
+            return (R) types.intern(typeTuple);
         }
 
         public R visit(org.syntax.stella.Absyn.TypeRecord typeRecord, A arg) { /* Code for TypeRecord goes here */
             for (var recordFieldType : typeRecord.listrecordfieldtype_) {
-                recordFieldType.accept(new RecordFieldTypeVisitor<>(), arg);
+                recordFieldType.accept(recordFieldTypeVisitor, arg);
             }
-            return (R) typeRecord;
+            return (R) types.intern(typeRecord);
         }
 
         public R visit(org.syntax.stella.Absyn.TypeVariant typeVariant, A arg) { /* Code for TypeVariant goes here */
-            var listVariantFieldType = new ListVariantFieldType();
+            var labels = new ArrayList<String>(typeVariant.listvariantfieldtype_.size());
+            var fieldTypes = new ArrayList<Type>(typeVariant.listvariantfieldtype_.size());
             for (var variantFieldType : typeVariant.listvariantfieldtype_) {
-                Pair<String, R> pair = variantFieldType.accept(new VariantFieldTypeVisitor<>(), arg);
-                if (pair.getValue() == null) {
-                    listVariantFieldType.add(new AVariantFieldType(pair.getKey(), new NoTyping()));
-                } else {
-                    listVariantFieldType.add(new AVariantFieldType(pair.getKey(), new SomeTyping(pair.getValue())));
-                }
+                var pair = variantFieldType.accept(variantFieldTypeVisitor, arg);
+                labels.add(pair.label());
+                fieldTypes.add(pair.type());
             }
-            return (R) new TypeVariant(listVariantFieldType);
+            return (R) types.variant(labels, fieldTypes);
         }
 
         public R visit(org.syntax.stella.Absyn.TypeList typeList, A arg) { /* Code for TypeList goes here */
-            var itemType = typeList.type_.accept(new TypeVisitor<>(), arg);
-            var listType = new TypeList(itemType);
-            return (R) listType;
+            var itemType = typeList.type_.accept(typeVisitor, arg);
+            return (R) types.list(itemType);
         }
 
         public R visit(org.syntax.stella.Absyn.TypeBool typeBool, A arg) { /* Code for TypeBool goes here */
-            return (R) typeBool;
+            return (R) TypeTable.BOOL;
         }
 
         public R visit(org.syntax.stella.Absyn.TypeNat typeNat, A arg) { /* Code for TypeNat goes here */
-            return (R) typeNat;
+            return (R) TypeTable.NAT;
         }
 
         public R visit(org.syntax.stella.Absyn.TypeUnit typeUnit, A arg) { /* Code for TypeUnit goes here */
-            return (R) typeUnit;
+            return (R) TypeTable.UNIT;
         }
 
         @Override
@@ -357,7 +542,7 @@ public class VisitTypeCheck {
 
         @Override
         public R visit(TypeRef typeRef, A arg) {
-            return (R) typeRef;
+            return (R) types.intern(typeRef);
         }
 
         public R visit(org.syntax.stella.Absyn.TypeVar typeVar, A arg) { /* Code for TypeVar goes here */
@@ -372,8 +557,8 @@ public class VisitTypeCheck {
 
     public class MatchCaseVisitor<StellaString extends java.lang.String, A extends ContextAndExpectedType> implements org.syntax.stella.Absyn.MatchCase.Visitor<StellaString, A> {
         public StellaString visit(org.syntax.stella.Absyn.AMatchCase aMatchCase, A arg) { /* Code for AMatchCase goes here */
-            StellaString stellaident = aMatchCase.pattern_.accept(new PatternVisitor<>(), arg);
-            aMatchCase.expr_.accept(new ExprVisitor<>(), arg);
+            StellaString stellaident = (StellaString) aMatchCase.pattern_.accept(patternVisitor, arg);
+            aMatchCase.expr_.accept(exprVisitor, arg);
             return stellaident;
         }
     }
@@ -384,23 +569,23 @@ public class VisitTypeCheck {
         }
 
         public R visit(org.syntax.stella.Absyn.SomeTyping someTyping, A arg) { /* Code for SomeTyping goes here */
-            return someTyping.type_.accept(new TypeVisitor<>(), arg);
+            return (R) someTyping.type_.accept(typeVisitor, arg);
         }
     }
 
     public class PatternDataVisitor<R extends String, A extends ContextAndExpectedType> implements org.syntax.stella.Absyn.PatternData.Visitor<R, A> {
         public R visit(org.syntax.stella.Absyn.NoPatternData noPatternData, A arg) { /* Code for NoPatternData goes here */
             if (arg.expected_pattern != null) {
-                throw new RuntimeException("ERROR_UNEXPECTED_NULLARY_VARIANT_PATTERN");
+                throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_NULLARY_VARIANT_PATTERN, noPatternData.line_num, noPatternData.col_num);
             }
             return null;
         }
 
         public R visit(org.syntax.stella.Absyn.SomePatternData somePatternData, A arg) { /* Code for SomePatternData goes here */
             if (arg.expected_pattern == null) {
-                throw new RuntimeException("ERROR_UNEXPECTED_NON_NULLARY_VARIANT_PATTERN");
+                throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_NON_NULLARY_VARIANT_PATTERN, somePatternData.line_num, somePatternData.col_num);
             }
-            somePatternData.pattern_.accept(new PatternVisitor<>(), arg);
+            somePatternData.pattern_.accept(patternVisitor, arg);
             return null;
         }
     }
@@ -410,14 +595,14 @@ public class VisitTypeCheck {
             if (arg.expected == null) {
                 return null;
             }
-            throw new RuntimeException("ERROR_MISSING_DATA_FOR_LABEL");
+            throw new StellaTypeError(ErrorCode.ERROR_MISSING_DATA_FOR_LABEL, noExprData.line_num, noExprData.col_num);
         }
 
         public R visit(org.syntax.stella.Absyn.SomeExprData someExprData, A arg) { /* Code for SomeExprData goes here */
             if (arg.expected == null) {
-                throw new RuntimeException("ERROR_UNEXPECTED_DATA_FOR_NULLARY_LABEL");
+                throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_DATA_FOR_NULLARY_LABEL, someExprData.line_num, someExprData.col_num);
             }
-            return someExprData.expr_.accept(new ExprVisitor<>(), arg);
+            return (R) someExprData.expr_.accept(exprVisitor, arg);
         }
     }
 
@@ -425,99 +610,144 @@ public class VisitTypeCheck {
 
         public StellaString visit(org.syntax.stella.Absyn.PatternVariant patternVariant, A arg) { /* Code for PatternVariant goes here */
             if (arg.expected_pattern == null) {
-                throw new RuntimeException("ERROR_UNEXPECTED_PATTERN_FOR_TYPE");
+                throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_PATTERN_FOR_TYPE, patternVariant.line_num, patternVariant.col_num);
             }
             if (arg.expected_pattern instanceof TypeVariant typeVariant) {
-                for (var variantFieldType : typeVariant.listvariantfieldtype_) {
-                    var type = variantFieldType.accept(new VariantFieldTypeVisitor<>(), arg);
-                    if (type.getKey().equals(patternVariant.stellaident_)) {
-                        arg.expected_pattern = type.getValue();
-                        patternVariant.patterndata_.accept(new PatternDataVisitor<>(), arg);
-                        return null;
-                    }
+                var index = types.labelIndex(typeVariant, patternVariant.stellaident_);
+                if (index >= 0) {
+                    var type = typeVariant.listvariantfieldtype_.get(index).accept(variantFieldTypeVisitor, arg);
+                    arg.expected_pattern = type.type();
+                    patternVariant.patterndata_.accept(patternDataVisitor, arg);
+                    return null;
                 }
             }
-            throw new RuntimeException("ERROR_UNEXPECTED_PATTERN_FOR_TYPE");
+            throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_PATTERN_FOR_TYPE, patternVariant.line_num, patternVariant.col_num);
         }
 
         public StellaString visit(org.syntax.stella.Absyn.PatternInl patternInl, A arg) { /* Code for PatternInl goes here */
             if (arg.expected_pattern == null) {
-                throw new RuntimeException("ERROR_UNEXPECTED_PATTERN_FOR_TYPE");
+                throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_PATTERN_FOR_TYPE, patternInl.line_num, patternInl.col_num);
             }
             if (arg.expected_pattern instanceof TypeSum typeSum) {
                 arg.expected_pattern = typeSum.type_1;
-                patternInl.pattern_.accept(new PatternVisitor<>(), arg);
+                patternInl.pattern_.accept(patternVisitor, arg);
                 return null;
             }
-            throw new RuntimeException("ERROR_UNEXPECTED_PATTERN_FOR_TYPE");
+            throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_PATTERN_FOR_TYPE, patternInl.line_num, patternInl.col_num);
         }
 
         public StellaString visit(org.syntax.stella.Absyn.PatternInr patternInr, A arg) { /* Code for PatternInr goes here */
             if (arg.expected_pattern == null) {
-                throw new RuntimeException("ERROR_UNEXPECTED_PATTERN_FOR_TYPE");
+                throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_PATTERN_FOR_TYPE, patternInr.line_num, patternInr.col_num);
             }
             if (arg.expected_pattern instanceof TypeSum typeSum) {
                 arg.expected_pattern = typeSum.type_2;
-                patternInr.pattern_.accept(new PatternVisitor<>(), arg);
+                patternInr.pattern_.accept(patternVisitor, arg);
                 return null;
             }
-            throw new RuntimeException("ERROR_UNEXPECTED_PATTERN_FOR_TYPE");
+            throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_PATTERN_FOR_TYPE, patternInr.line_num, patternInr.col_num);
         }
 
+        // The patterns below are only checked against a known type; with none, their parts get none either.
+
         public StellaString visit(org.syntax.stella.Absyn.PatternTuple patternTuple, A arg) { /* Code for PatternTuple goes here */
-            for (var pattern : patternTuple.listpattern_) {
-                pattern.accept(new PatternVisitor<>(), arg);
+            var expected = arg.expected_pattern;
+            if (expected != null && !(expected instanceof TypeTuple typeTuple
+                    && typeTuple.listtype_.size() == patternTuple.listpattern_.size())) {
+                throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_PATTERN_FOR_TYPE, patternTuple.line_num, patternTuple.col_num);
+            }
+            for (var i = 0; i < patternTuple.listpattern_.size(); i++) {
+                arg.expected_pattern = expected == null ? null : ((TypeTuple) expected).listtype_.get(i);
+                patternTuple.listpattern_.get(i).accept(patternVisitor, arg);
             }
             return null;
         }
 
         public StellaString visit(org.syntax.stella.Absyn.PatternRecord patternRecord, A arg) { /* Code for PatternRecord goes here */
+            var expected = arg.expected_pattern;
+            if (expected != null && !(expected instanceof TypeRecord)) {
+                throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_PATTERN_FOR_TYPE, patternRecord.line_num, patternRecord.col_num);
+            }
             for (var labelledPattern : patternRecord.listlabelledpattern_) {
-                labelledPattern.accept(new LabelledPatternVisitor<>(), arg);
+                arg.expected_pattern = null;
+                if (expected instanceof TypeRecord typeRecord) {
+                    var label = ((ALabelledPattern) labelledPattern).stellaident_;
+                    var index = types.fieldIndex(typeRecord, label);
+                    if (index < 0) {
+                        throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_PATTERN_FOR_TYPE, patternRecord.line_num, patternRecord.col_num);
+                    }
+                    arg.expected_pattern = typeRecord.listrecordfieldtype_.get(index).accept(recordFieldTypeVisitor, arg).type();
+                }
+                labelledPattern.accept(labelledPatternVisitor, arg);
             }
             return null;
         }
 
         public StellaString visit(org.syntax.stella.Absyn.PatternList patternList, A arg) { /* Code for PatternList goes here */
+            var expected = arg.expected_pattern;
+            if (expected != null && !(expected instanceof TypeList)) {
+                throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_PATTERN_FOR_TYPE, patternList.line_num, patternList.col_num);
+            }
             for (var pattern : patternList.listpattern_) {
-                pattern.accept(new PatternVisitor<>(), arg);
+                arg.expected_pattern = expected == null ? null : ((TypeList) expected).type_;
+                pattern.accept(patternVisitor, arg);
             }
             return null;
         }
 
         public StellaString visit(org.syntax.stella.Absyn.PatternCons patternCons, A arg) { /* Code for PatternCons goes here */
-            patternCons.pattern_1.accept(new PatternVisitor<>(), arg);
-            patternCons.pattern_2.accept(new PatternVisitor<>(), arg);
+            var expected = arg.expected_pattern;
+            if (expected != null && !(expected instanceof TypeList)) {
+                throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_PATTERN_FOR_TYPE, patternCons.line_num, patternCons.col_num);
+            }
+            arg.expected_pattern = expected == null ? null : ((TypeList) expected).type_;
+            patternCons.pattern_1.accept(patternVisitor, arg);
+            arg.expected_pattern = expected;
+            patternCons.pattern_2.accept(patternVisitor, arg);
             return null;
         }
 
         public StellaString visit(org.syntax.stella.Absyn.PatternFalse patternFalse, A arg) { /* Code for PatternFalse goes here */
+            if (arg.expected_pattern != null && !(arg.expected_pattern instanceof TypeBool)) {
+                throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_PATTERN_FOR_TYPE, patternFalse.line_num, patternFalse.col_num);
+            }
             return null;
         }
 
         public StellaString visit(org.syntax.stella.Absyn.PatternTrue patternTrue, A arg) { /* Code for PatternTrue goes here */
+            if (arg.expected_pattern != null && !(arg.expected_pattern instanceof TypeBool)) {
+                throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_PATTERN_FOR_TYPE, patternTrue.line_num, patternTrue.col_num);
+            }
             return null;
         }
 
         public StellaString visit(org.syntax.stella.Absyn.PatternUnit patternUnit, A arg) { /* Code for PatternUnit goes here */
+            if (arg.expected_pattern != null && !(arg.expected_pattern instanceof TypeUnit)) {
+                throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_PATTERN_FOR_TYPE, patternUnit.line_num, patternUnit.col_num);
+            }
             return null;
         }
 
         public StellaString visit(org.syntax.stella.Absyn.PatternInt patternInt, A arg) { /* Code for PatternInt goes here */
-
+            if (arg.expected_pattern != null && !(arg.expected_pattern instanceof TypeNat)) {
+                throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_PATTERN_FOR_TYPE, patternInt.line_num, patternInt.col_num);
+            }
             return null;
         }
 
         public StellaString visit(org.syntax.stella.Absyn.PatternSucc patternSucc, A arg) { /* Code for PatternSucc goes here */
-            patternSucc.pattern_.accept(new PatternVisitor<>(), arg);
+            if (arg.expected_pattern != null && !(arg.expected_pattern instanceof TypeNat)) {
+                throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_PATTERN_FOR_TYPE, patternSucc.line_num, patternSucc.col_num);
+            }
+            patternSucc.pattern_.accept(patternVisitor, arg);
             return null;
         }
 
         public StellaString visit(org.syntax.stella.Absyn.PatternVar patternVar, A arg) { /* Code for PatternVar goes here */
             if (arg.expected_pattern == null) {
-                throw new RuntimeException("ERROR_UNEXPECTED_PATTERN_FOR_TYPE");
+                throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_PATTERN_FOR_TYPE, patternVar.line_num, patternVar.col_num);
             }
-            arg.scopes.getLast().put(patternVar.stellaident_, arg.expected_pattern);
+            arg.scopes.bind(patternVar.stellaident_, arg.expected_pattern);
             return null;
         }
 
@@ -534,16 +764,16 @@ public class VisitTypeCheck {
 
     public class LabelledPatternVisitor<R extends String, A extends ContextAndExpectedType> implements org.syntax.stella.Absyn.LabelledPattern.Visitor<R, A> {
         public R visit(org.syntax.stella.Absyn.ALabelledPattern aLabelledPattern, A arg) { /* Code for ALabelledPattern goes here */
-            aLabelledPattern.pattern_.accept(new PatternVisitor<>(), arg);
+            aLabelledPattern.pattern_.accept(patternVisitor, arg);
             return null;
         }
     }
 
-    public class BindingVisitor<R extends Pair<String, ReT>, ReT extends Type, A extends ContextAndExpectedType> implements org.syntax.stella.Absyn.Binding.Visitor<R, A> {
-        public R visit(org.syntax.stella.Absyn.ABinding aBinding, A arg) { /* Code for ABinding goes here */
-            ReT type = aBinding.expr_.accept(new ExprVisitor<>(), arg);
+    public class BindingVisitor<A extends ContextAndExpectedType> implements org.syntax.stella.Absyn.Binding.Visitor<Field, A> {
+        public Field visit(org.syntax.stella.Absyn.ABinding aBinding, A arg) { /* Code for ABinding goes here */
+            Type type = aBinding.expr_.accept(exprVisitor, arg);
             arg.expected = null;
-            return (R) new Pair<>(aBinding.stellaident_, type);
+            return new Field(aBinding.stellaident_, type);
         }
     }
 
@@ -551,10 +781,10 @@ public class VisitTypeCheck {
         public R visit(org.syntax.stella.Absyn.Sequence sequence, A arg) { /* Code for Sequence goes here */
             var expectedType = arg.expected;
             arg.expected = TypeKind.TYPE_UNIT.getStellaType();
-            sequence.expr_1.accept(new ExprVisitor<>(), arg);
+            sequence.expr_1.accept(exprVisitor, arg);
 
             arg.expected = expectedType;
-            var actualType = sequence.expr_2.accept(new ExprVisitor<>(), arg);
+            var actualType = sequence.expr_2.accept(exprVisitor, arg);
 
             checkType(actualType, expectedType);
             return (R) actualType;
@@ -565,15 +795,15 @@ public class VisitTypeCheck {
             checkType(TypeKind.TYPE_UNIT.getStellaType(), arg.expected);
 
             arg.expected = null;
-            var actualReferenceType = assign.expr_1.accept(new ExprVisitor<>(), arg);
+            var actualReferenceType = assign.expr_1.accept(exprVisitor, arg);
 
             if (!(actualReferenceType instanceof TypeRef typeRef)) {
-                throw new RuntimeException("ERROR_NOT_A_REFERENCE");
+                throw new StellaTypeError(ErrorCode.ERROR_NOT_A_REFERENCE, assign.line_num, assign.col_num);
             }
 
             var expectedValueType = typeRef.type_;
             arg.expected = expectedValueType;
-            var actualValueType = assign.expr_2.accept(new ExprVisitor<>(), arg);
+            var actualValueType = assign.expr_2.accept(exprVisitor, arg);
 
             checkType(actualValueType, expectedValueType);
             return (R) TypeKind.TYPE_UNIT.getStellaType();
@@ -583,40 +813,40 @@ public class VisitTypeCheck {
             var expectedType = arg.expected;
             arg.expected = TypeKind.TYPE_BOOL.getStellaType();
 
-            var conditionType = anIf.expr_1.accept(new ExprVisitor<>(), arg);
+            var conditionType = anIf.expr_1.accept(exprVisitor, arg);
             checkType(conditionType, TypeKind.TYPE_BOOL.getStellaType());
 
             arg.expected = expectedType;
-            var thenType = anIf.expr_2.accept(new ExprVisitor<>(), arg);
+            var thenType = anIf.expr_2.accept(exprVisitor, arg);
 
             arg.expected = thenType;
-            var elseType = anIf.expr_3.accept(new ExprVisitor<>(), arg);
+            var elseType = anIf.expr_3.accept(exprVisitor, arg);
 
             checkType(thenType, elseType);
             return (R) thenType;
         }
 
         public R visit(org.syntax.stella.Absyn.Let let, A arg) { /* Code for Let goes here */
-            arg.scopes.add(new HashMap<>());
+            arg.scopes.push();
 
             var expectedType = arg.expected;
             for (var patternBinding : let.listpatternbinding_) {
                 arg.expected = null;
-                patternBinding.accept(new PatternBindingVisitor<>(), arg);
+                patternBinding.accept(patternBindingVisitor, arg);
             }
             arg.expected = expectedType;
-            var actualType = let.expr_.accept(new ExprVisitor<>(), arg);
+            var actualType = let.expr_.accept(exprVisitor, arg);
             checkType(actualType, expectedType);
 
-            arg.scopes.removeLast();
+            arg.scopes.pop();
             return (R) actualType;
         }
 
         public R visit(org.syntax.stella.Absyn.LetRec letRec, A arg) { /* Code for LetRec goes here */
             for (var patternBinding : letRec.listpatternbinding_) {
-                patternBinding.accept(new PatternBindingVisitor<>(), arg);
+                patternBinding.accept(patternBindingVisitor, arg);
             }
-            letRec.expr_.accept(new ExprVisitor<>(), arg);
+            letRec.expr_.accept(exprVisitor, arg);
             return null;
         }
 
@@ -626,47 +856,47 @@ public class VisitTypeCheck {
         }
 
         public R visit(org.syntax.stella.Absyn.LessThan lessThan, A arg) { /* Code for LessThan goes here */
-            lessThan.expr_1.accept(new ExprVisitor<>(), arg);
-            lessThan.expr_2.accept(new ExprVisitor<>(), arg);
+            lessThan.expr_1.accept(exprVisitor, arg);
+            lessThan.expr_2.accept(exprVisitor, arg);
             return null;
         }
 
         public R visit(org.syntax.stella.Absyn.LessThanOrEqual lessThanOrEqual, A arg) { /* Code for LessThanOrEqual goes here */
-            lessThanOrEqual.expr_1.accept(new ExprVisitor<>(), arg);
-            lessThanOrEqual.expr_2.accept(new ExprVisitor<>(), arg);
+            lessThanOrEqual.expr_1.accept(exprVisitor, arg);
+            lessThanOrEqual.expr_2.accept(exprVisitor, arg);
             return null;
         }
 
         public R visit(org.syntax.stella.Absyn.GreaterThan greaterThan, A arg) { /* Code for GreaterThan goes here */
-            greaterThan.expr_1.accept(new ExprVisitor<>(), arg);
-            greaterThan.expr_2.accept(new ExprVisitor<>(), arg);
+            greaterThan.expr_1.accept(exprVisitor, arg);
+            greaterThan.expr_2.accept(exprVisitor, arg);
             return null;
         }
 
         public R visit(org.syntax.stella.Absyn.GreaterThanOrEqual greaterThanOrEqual, A arg) { /* Code for GreaterThanOrEqual goes here */
-            greaterThanOrEqual.expr_1.accept(new ExprVisitor<>(), arg);
-            greaterThanOrEqual.expr_2.accept(new ExprVisitor<>(), arg);
+            greaterThanOrEqual.expr_1.accept(exprVisitor, arg);
+            greaterThanOrEqual.expr_2.accept(exprVisitor, arg);
             return null;
         }
 
         public R visit(org.syntax.stella.Absyn.Equal equal, A arg) { /* Code for Equal goes here */
-            equal.expr_1.accept(new ExprVisitor<>(), arg);
-            equal.expr_2.accept(new ExprVisitor<>(), arg);
+            equal.expr_1.accept(exprVisitor, arg);
+            equal.expr_2.accept(exprVisitor, arg);
             return null;
         }
 
         public R visit(org.syntax.stella.Absyn.NotEqual notEqual, A arg) { /* Code for NotEqual goes here */
-            notEqual.expr_1.accept(new ExprVisitor<>(), arg);
-            notEqual.expr_2.accept(new ExprVisitor<>(), arg);
+            notEqual.expr_1.accept(exprVisitor, arg);
+            notEqual.expr_2.accept(exprVisitor, arg);
             return null;
         }
 
         public R visit(org.syntax.stella.Absyn.TypeAsc typeAsc, A arg) { /* Code for TypeAsc goes here */
-            var type = typeAsc.type_;
+            var type = types.intern(typeAsc.type_);
             checkType(type, arg.expected);
 
             arg.expected = type;
-            var actualType = typeAsc.expr_.accept(new ExprVisitor<>(), arg);
+            var actualType = typeAsc.expr_.accept(exprVisitor, arg);
             checkType(actualType, type);
 
             return (R) actualType;
@@ -678,91 +908,89 @@ public class VisitTypeCheck {
         }
 
         public R visit(org.syntax.stella.Absyn.Abstraction abstraction, A arg) { /* Code for Abstraction goes here */
-            arg.scopes.add(new HashMap<>());
+            arg.scopes.push();
 
             var listParamTypes = new ListType();
             for (var paramDecl : abstraction.listparamdecl_) {
-                listParamTypes.add(paramDecl.accept(new ParamDeclVisitor<>(), arg).getValue());
+                listParamTypes.add(paramDecl.accept(paramDeclVisitor, arg).type());
             }
             if (arg.expected != null) {
                 if (arg.expected instanceof TypeFun typeFun) {
                     if (typeFun.listtype_.size() != abstraction.listparamdecl_.size()) {
-                        throw new RuntimeException("ERROR_INCORRECT_NUMBER_OF_ARGUMENTS");
+                        throw new StellaTypeError(ErrorCode.ERROR_INCORRECT_NUMBER_OF_ARGUMENTS, abstraction.line_num, abstraction.col_num);
                     }
                     for (var i = 0; i < typeFun.listtype_.size(); i++) {
                         try {
                             checkType(listParamTypes.get(i), typeFun.listtype_.get(i));
                         } catch (Exception e) {
-                            throw new RuntimeException("ERROR_UNEXPECTED_TYPE_FOR_PARAMETER");
+                            throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_TYPE_FOR_PARAMETER, abstraction.line_num, abstraction.col_num);
                         }
                     }
                     var result = arg.expected;
 
                     arg.expected = typeFun.type_;
-                    var returnType = abstraction.expr_.accept(new ExprVisitor<>(), arg);
+                    var returnType = abstraction.expr_.accept(exprVisitor, arg);
                     checkType(returnType, typeFun.type_);
 
-                    arg.scopes.removeLast();
+                    arg.scopes.pop();
                     return (R) result;
                 } else {
-                    throw new RuntimeException("ERROR_UNEXPECTED_LAMBDA");
+                    throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_LAMBDA, abstraction.line_num, abstraction.col_num);
                 }
             }
-            var returnType = abstraction.expr_.accept(new ExprVisitor<>(), arg);
+            var returnType = abstraction.expr_.accept(exprVisitor, arg);
 
-            arg.scopes.removeLast();
-            return (R) new TypeFun(listParamTypes, returnType);
+            arg.scopes.pop();
+            return (R) types.fun(listParamTypes, returnType);
         }
 
         public R visit(org.syntax.stella.Absyn.Variant variant, A arg) { /* Code for Variant goes here */
             if (arg.expected == null) {
-                throw new RuntimeException("ERROR_AMBIGUOUS_VARIANT_TYPE");
+                throw new StellaTypeError(ErrorCode.ERROR_AMBIGUOUS_VARIANT_TYPE, variant.line_num, variant.col_num);
             }
             if (arg.expected instanceof TypeVariant typeVariant) {
-                for (var typeVar : typeVariant.listvariantfieldtype_) {
-                    arg.expected = null;
-                    var var = typeVar.accept(new VariantFieldTypeVisitor<>(), arg);
-
-                    if (var.getKey().equals(variant.stellaident_)) {
-                        arg.expected = var.getValue();
-                        var type = variant.exprdata_.accept(new ExprDataVisitor<>(), arg);
-                        checkType(type, var.getValue());
-
-                        return (R) typeVariant;
-                    }
+                arg.expected = null;
+                var index = types.labelIndex(typeVariant, variant.stellaident_);
+                if (index >= 0) {
+                    var var = typeVariant.listvariantfieldtype_.get(index).accept(variantFieldTypeVisitor, arg);
+                    arg.expected = var.type();
+                    var type = variant.exprdata_.accept(exprDataVisitor, arg);
+                    checkType(type, var.type());
+
+                    return (R) typeVariant;
                 }
-                throw new RuntimeException("ERROR_UNEXPECTED_VARIANT_LABEL");
+                throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_VARIANT_LABEL, variant.line_num, variant.col_num);
             }
-            throw new RuntimeException("ERROR_UNEXPECTED_VARIANT");
+            throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_VARIANT, variant.line_num, variant.col_num);
         }
 
         public R visit(org.syntax.stella.Absyn.Match match, A arg) { /* Code for Match goes here */
             if (match.listmatchcase_.isEmpty()) {
-                throw new RuntimeException("ERROR_ILLEGAL_EMPTY_MATCHING");
+                throw new StellaTypeError(ErrorCode.ERROR_ILLEGAL_EMPTY_MATCHING, match.line_num, match.col_num);
             }
             var expectedType = arg.expected;
 
             arg.expected = null;
-            var actualType = match.expr_.accept(new ExprVisitor<>(), arg);
+            var actualType = match.expr_.accept(exprVisitor, arg);
 
             for (var listMatchCase : match.listmatchcase_) {
-                arg.scopes.add(new HashMap<>());
+                arg.scopes.push();
 
                 var aMatchCase = (AMatchCase) listMatchCase;
                 arg.expected = null;
                 arg.expected_pattern = actualType;
-                aMatchCase.pattern_.accept(new PatternVisitor<>(), arg);
+                aMatchCase.pattern_.accept(patternVisitor, arg);
 
                 arg.expected = expectedType;
                 arg.expected_pattern = null;
-                var actualMatchCaseType = aMatchCase.expr_.accept(new ExprVisitor<>(), arg);
+                var actualMatchCaseType = aMatchCase.expr_.accept(exprVisitor, arg);
                 checkType(actualMatchCaseType, expectedType);
 
                 if (expectedType == null) {
                     expectedType = actualMatchCaseType;
                 }
 
-                arg.scopes.removeLast();
+                arg.scopes.pop();
             }
             checkExhaustiveness(match.listmatchcase_, actualType);
             return (R) expectedType;
@@ -773,63 +1001,63 @@ public class VisitTypeCheck {
                 Type elementType = null;
                 for (var expression : list.listexpr_) {
                     arg.expected = elementType;
-                    var actualListType = expression.accept(new ExprVisitor<>(), arg);
+                    var actualListType = expression.accept(exprVisitor, arg);
                     checkType(actualListType, elementType);
 
                     if (elementType == null) {
                         elementType = actualListType;
                     }
                 }
-                if (elementType == null) throw new RuntimeException("ERROR_AMBIGUOUS_LIST_TYPE");
-                return (R) new TypeList(elementType);
+                if (elementType == null) throw new StellaTypeError(ErrorCode.ERROR_AMBIGUOUS_LIST_TYPE, list.line_num, list.col_num);
+                return (R) types.list(elementType);
             } else {
                 if (arg.expected instanceof TypeList typeList) {
                     var expectedItemType = typeList.type_;
                     for (var expression : list.listexpr_) {
                         arg.expected = expectedItemType;
-                        var actualListType = expression.accept(new ExprVisitor<>(), arg);
+                        var actualListType = expression.accept(exprVisitor, arg);
                         checkType(actualListType, expectedItemType);
                     }
                     return (R) typeList;
                 } else {
-                    throw new RuntimeException("ERROR_UNEXPECTED_LIST");
+                    throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_LIST, list.line_num, list.col_num);
                 }
             }
         }
 
         public R visit(org.syntax.stella.Absyn.Add add, A arg) { /* Code for Add goes here */
-            add.expr_1.accept(new ExprVisitor<>(), arg);
-            add.expr_2.accept(new ExprVisitor<>(), arg);
+            add.expr_1.accept(exprVisitor, arg);
+            add.expr_2.accept(exprVisitor, arg);
             return null;
         }
 
         public R visit(org.syntax.stella.Absyn.Subtract subtract, A arg) { /* Code for Subtract goes here */
-            subtract.expr_1.accept(new ExprVisitor<>(), arg);
-            subtract.expr_2.accept(new ExprVisitor<>(), arg);
+            subtract.expr_1.accept(exprVisitor, arg);
+            subtract.expr_2.accept(exprVisitor, arg);
             return null;
         }
 
         public R visit(org.syntax.stella.Absyn.LogicOr logicOr, A arg) { /* Code for LogicOr goes here */
-            logicOr.expr_1.accept(new ExprVisitor<>(), arg);
-            logicOr.expr_2.accept(new ExprVisitor<>(), arg);
+            logicOr.expr_1.accept(exprVisitor, arg);
+            logicOr.expr_2.accept(exprVisitor, arg);
             return null;
         }
 
         public R visit(org.syntax.stella.Absyn.Multiply multiply, A arg) { /* Code for Multiply goes here */
-            multiply.expr_1.accept(new ExprVisitor<>(), arg);
-            multiply.expr_2.accept(new ExprVisitor<>(), arg);
+            multiply.expr_1.accept(exprVisitor, arg);
+            multiply.expr_2.accept(exprVisitor, arg);
             return null;
         }
 
         public R visit(org.syntax.stella.Absyn.Divide divide, A arg) { /* Code for Divide goes here */
-            divide.expr_1.accept(new ExprVisitor<>(), arg);
-            divide.expr_2.accept(new ExprVisitor<>(), arg);
+            divide.expr_1.accept(exprVisitor, arg);
+            divide.expr_2.accept(exprVisitor, arg);
             return null;
         }
 
         public R visit(org.syntax.stella.Absyn.LogicAnd logicAnd, A arg) { /* Code for LogicAnd goes here */
-            logicAnd.expr_1.accept(new ExprVisitor<>(), arg);
-            logicAnd.expr_2.accept(new ExprVisitor<>(), arg);
+            logicAnd.expr_1.accept(exprVisitor, arg);
+            logicAnd.expr_2.accept(exprVisitor, arg);
             return null;
         }
 
@@ -838,26 +1066,27 @@ public class VisitTypeCheck {
             var expectedType = arg.expected;
             if (arg.expected != null) {
                 if (!(arg.expected instanceof TypeRef typeRef)) {
-                    throw new RuntimeException("ERROR_UNEXPECTED_TYPE_FOR_EXPRESSION");
+                    throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_TYPE_FOR_EXPRESSION, ref.line_num, ref.col_num);
                 }
                 arg.expected = typeRef.type_;
             }
 
-            var actualType = ref.expr_.accept(new ExprVisitor<>(), arg);
-            checkType(new TypeRef(actualType), expectedType);
-            return (R) new TypeRef(actualType);
+            var actualType = ref.expr_.accept(exprVisitor, arg);
+            var actualRefType = types.ref(actualType);
+            checkType(actualRefType, expectedType);
+            return (R) actualRefType;
         }
 
         @Override
         public R visit(Deref deref, A arg) {
             var expectedType = arg.expected;
             if (arg.expected != null) {
-                arg.expected = new TypeRef(arg.expected);
+                arg.expected = types.ref(arg.expected);
             }
 
-            var actualType = deref.expr_.accept(new ExprVisitor<>(), arg);
+            var actualType = deref.expr_.accept(exprVisitor, arg);
             if (!(actualType instanceof TypeRef typeRef)) {
-                throw new RuntimeException("ERROR_NOT_A_REFERENCE");
+                throw new StellaTypeError(ErrorCode.ERROR_NOT_A_REFERENCE, deref.line_num, deref.col_num);
             }
             checkType(typeRef.type_, expectedType);
             return (R) typeRef.type_;
@@ -867,24 +1096,24 @@ public class VisitTypeCheck {
             var expectedType = arg.expected;
 
             arg.expected = null;
-            var funcType = application.expr_.accept(new ExprVisitor<>(), arg);
+            var funcType = application.expr_.accept(exprVisitor, arg);
 
             if (funcType instanceof TypeFun typeFun) {
                 if (typeFun.listtype_.size() != application.listexpr_.size()) {
-                    throw new RuntimeException("ERROR_INCORRECT_NUMBER_OF_ARGUMENTS");
+                    throw new StellaTypeError(ErrorCode.ERROR_INCORRECT_NUMBER_OF_ARGUMENTS, application.line_num, application.col_num);
                 }
                 for (var i = 0; i < typeFun.listtype_.size(); i++) {
                     var argumentType = typeFun.listtype_.get(i);
 
                     arg.expected = argumentType;
-                    var actualType = application.listexpr_.get(i).accept(new ExprVisitor<>(), arg);
+                    var actualType = application.listexpr_.get(i).accept(exprVisitor, arg);
                     checkType(actualType, argumentType);
                 }
                 checkType(typeFun.type_, expectedType);
                 arg.expected = null;
                 return (R) typeFun.type_;
             } else {
-                throw new RuntimeException("ERROR_NOT_A_FUNCTION");
+                throw new StellaTypeError(ErrorCode.ERROR_NOT_A_FUNCTION, application.line_num, application.col_num);
             }
         }
 
@@ -897,20 +1126,18 @@ public class VisitTypeCheck {
             var expectedType = arg.expected;
 
             arg.expected = null;
-            var actualRecordType = dotRecord.expr_.accept(new ExprVisitor<>(), arg);
+            var actualRecordType = dotRecord.expr_.accept(exprVisitor, arg);
             if (actualRecordType instanceof TypeRecord typeRecord) {
-                for (var recordFieldType : typeRecord.listrecordfieldtype_) {
-                    arg.expected = null;
-                    var actualRecordFieldType = recordFieldType.accept(new RecordFieldTypeVisitor<>(), arg);
-
-                    if (actualRecordFieldType.getKey().equals(dotRecord.stellaident_)) {
-                        checkType(actualRecordFieldType.getValue(), expectedType);
-                        return (R) actualRecordFieldType.getValue();
-                    }
+                arg.expected = null;
+                var index = types.fieldIndex(typeRecord, dotRecord.stellaident_);
+                if (index >= 0) {
+                    var actualRecordFieldType = typeRecord.listrecordfieldtype_.get(index).accept(recordFieldTypeVisitor, arg);
+                    checkType(actualRecordFieldType.type(), expectedType);
+                    return (R) actualRecordFieldType.type();
                 }
-                throw new RuntimeException("ERROR_UNEXPECTED_FIELD_ACCESS");
+                throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_FIELD_ACCESS, dotRecord.line_num, dotRecord.col_num);
             } else {
-                throw new RuntimeException("ERROR_NOT_A_RECORD");
+                throw new StellaTypeError(ErrorCode.ERROR_NOT_A_RECORD, dotRecord.line_num, dotRecord.col_num);
             }
         }
 
@@ -918,16 +1145,16 @@ public class VisitTypeCheck {
             var expectedType = arg.expected;
 
             arg.expected = null;
-            var actualTupleType = dotTuple.expr_.accept(new ExprVisitor<>(), arg);
+            var actualTupleType = dotTuple.expr_.accept(exprVisitor, arg);
             if (actualTupleType instanceof TypeTuple typeTuple) {
                 if (dotTuple.integer_ > typeTuple.listtype_.size() || dotTuple.integer_ < 1) {
-                    throw new RuntimeException("ERROR_TUPLE_INDEX_OUT_OF_BOUNDS");
+                    throw new StellaTypeError(ErrorCode.ERROR_TUPLE_INDEX_OUT_OF_BOUNDS, dotTuple.line_num, dotTuple.col_num);
                 }
                 var actualType = typeTuple.listtype_.get(dotTuple.integer_ - 1);
                 checkType(actualType, expectedType);
                 return (R) actualType;
             } else {
-                throw new RuntimeException("ERROR_NOT_A_TUPLE");
+                throw new StellaTypeError(ErrorCode.ERROR_NOT_A_TUPLE, dotTuple.line_num, dotTuple.col_num);
             }
         }
 
@@ -936,136 +1163,139 @@ public class VisitTypeCheck {
             if (arg.expected == null) {
                 for (var expr : tuple.listexpr_) {
                     arg.expected = null;
-                    var type = expr.accept(new ExprVisitor<>(), arg);
+                    var type = expr.accept(exprVisitor, arg);
                     listType.add(type);
                 }
-                return (R) new TypeTuple(listType);
+                return (R) types.tuple(listType);
             } else {
                 if (arg.expected instanceof TypeTuple typeTuple) {
                     if (typeTuple.listtype_.size() != tuple.listexpr_.size()) {
-                        throw new RuntimeException("ERROR_UNEXPECTED_TUPLE_LENGTH");
+                        throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_TUPLE_LENGTH, tuple.line_num, tuple.col_num);
                     }
 
                     for (var i = 0; i < typeTuple.listtype_.size(); i++) {
                         arg.expected = typeTuple.listtype_.get(i);
-                        var type = tuple.listexpr_.get(i).accept(new ExprVisitor<>(), arg);
+                        var type = tuple.listexpr_.get(i).accept(exprVisitor, arg);
                         checkType(type, typeTuple.listtype_.get(i));
                         listType.add(type);
                     }
-                    return (R) new TypeTuple(listType);
+                    return (R) types.tuple(listType);
                 } else {
-                    throw new RuntimeException("ERROR_UNEXPECTED_TUPLE");
+                    throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_TUPLE, tuple.line_num, tuple.col_num);
                 }
             }
         }
 
         public R visit(org.syntax.stella.Absyn.Record aRecord, A arg) { /* Code for Record goes here */
             if (arg.expected == null) {
-                var listRecordFieldType = new ListRecordFieldType();
+                var labels = new ArrayList<String>(aRecord.listbinding_.size());
+                var fieldTypes = new ArrayList<Type>(aRecord.listbinding_.size());
                 for (var binding : aRecord.listbinding_) {
                     arg.expected = null;
-                    var actualType = binding.accept(new BindingVisitor<>(), arg);
-                    listRecordFieldType.add(new ARecordFieldType(actualType.getKey(), actualType.getValue()));
+                    var actualType = binding.accept(bindingVisitor, arg);
+                    labels.add(actualType.label());
+                    fieldTypes.add(actualType.type());
                 }
                 arg.expected = null;
-                return (R) new TypeRecord(listRecordFieldType);
+                return (R) types.record(labels, fieldTypes);
             } else {
                 if (arg.expected instanceof TypeRecord typeRecord) {
                     if (aRecord.listbinding_.size() > typeRecord.listrecordfieldtype_.size()) {
-                        throw new RuntimeException("ERROR_UNEXPECTED_RECORD_FIELDS");
+                        throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_RECORD_FIELDS, aRecord.line_num, aRecord.col_num);
                     }
                     if (aRecord.listbinding_.size() < typeRecord.listrecordfieldtype_.size()) {
-                        throw new RuntimeException("ERROR_MISSING_RECORD_FIELDS");
+                        throw new StellaTypeError(ErrorCode.ERROR_MISSING_RECORD_FIELDS, aRecord.line_num, aRecord.col_num);
                     }
                     for (var i = 0; i < aRecord.listbinding_.size(); i++) {
                         arg.expected = null;
-                        var binding = aRecord.listbinding_.get(i).accept(new BindingVisitor<>(), arg);
+                        var binding = aRecord.listbinding_.get(i).accept(bindingVisitor, arg);
 
                         arg.expected = null;
-                        var expectedBinding = typeRecord.listrecordfieldtype_.get(i).accept(new RecordFieldTypeVisitor<>(), arg);
+                        var expectedBinding = typeRecord.listrecordfieldtype_.get(i).accept(recordFieldTypeVisitor, arg);
 
-                        if (!binding.getKey().equals(expectedBinding.getKey())) {
-                            throw new RuntimeException("ERROR_UNEXPECTED_FIELD_ACCESS");
+                        if (!binding.label().equals(expectedBinding.label())) {
+                            throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_FIELD_ACCESS, aRecord.line_num, aRecord.col_num);
                         }
-                        checkType(binding.getValue(), expectedBinding.getValue());
+                        checkType(binding.type(), expectedBinding.type());
                     }
                     return (R) typeRecord;
                 } else {
-                    throw new RuntimeException("ERROR_UNEXPECTED_RECORD");
+                    throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_RECORD, aRecord.line_num, aRecord.col_num);
                 }
             }
         }
 
         public R visit(org.syntax.stella.Absyn.ConsList consList, A arg) { /* Code for ConsList goes here */
             if (arg.expected == null) {
-                var itemType = consList.expr_1.accept(new ExprVisitor<>(), arg);
+                var itemType = consList.expr_1.accept(exprVisitor, arg);
 
-                arg.expected = new TypeList(itemType);
-                var listType = consList.expr_2.accept(new ExprVisitor<>(), arg);
-                checkType(listType, new TypeList(itemType));
+                var expectedListType = types.list(itemType);
+                arg.expected = expectedListType;
+                var listType = consList.expr_2.accept(exprVisitor, arg);
+                checkType(listType, expectedListType);
 
                 return (R) listType;
             } else {
                 if (arg.expected instanceof TypeList typeList) {
                     var expectedTypeListType = typeList.type_;
-                    var expectedListType = new TypeList(expectedTypeListType);
+                    var expectedListType = types.list(expectedTypeListType);
 
                     arg.expected = expectedTypeListType;
-                    var actualType = consList.expr_1.accept(new ExprVisitor<>(), arg);
+                    var actualType = consList.expr_1.accept(exprVisitor, arg);
                     checkType(actualType, expectedTypeListType);
 
                     arg.expected = expectedListType;
-                    var listType = consList.expr_2.accept(new ExprVisitor<>(), arg);
+                    var listType = consList.expr_2.accept(exprVisitor, arg);
                     checkType(listType, expectedListType);
 
                     return (R) listType;
                 }
-                throw new RuntimeException("ERROR_UNEXPECTED_LIST");
+                throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_LIST, consList.line_num, consList.col_num);
             }
         }
 
         public R visit(org.syntax.stella.Absyn.Head head, A arg) { /* Code for Head goes here */
             if (arg.expected != null) {
-                var listExpectedType = new TypeList(arg.expected);
+                var listExpectedType = (TypeList) types.list(arg.expected);
 
                 arg.expected = listExpectedType;
-                var actualType = head.expr_.accept(new ExprVisitor<>(), arg);
+                var actualType = head.expr_.accept(exprVisitor, arg);
                 checkType(actualType, listExpectedType);
 
                 return (R) listExpectedType.type_;
             }
-            var actualType = head.expr_.accept(new ExprVisitor<>(), arg);
+            var actualType = head.expr_.accept(exprVisitor, arg);
             if (actualType instanceof TypeList) {
                 return (R) actualType;
             }
-            throw new RuntimeException("ERROR_NOT_A_LIST");
+            throw new StellaTypeError(ErrorCode.ERROR_NOT_A_LIST, head.line_num, head.col_num);
         }
 
         public R visit(org.syntax.stella.Absyn.IsEmpty isEmpty, A arg) { /* Code for IsEmpty goes here */
             checkType(TypeKind.TYPE_BOOL.getStellaType(), arg.expected);
 
             arg.expected = null;
-            var maybeList = isEmpty.expr_.accept(new ExprVisitor<>(), arg);
+            var maybeList = isEmpty.expr_.accept(exprVisitor, arg);
 
             if (maybeList instanceof TypeList) {
                 return (R) TypeKind.TYPE_BOOL.getStellaType();
             }
-            throw new RuntimeException("ERROR_NOT_A_LIST");
+            throw new StellaTypeError(ErrorCode.ERROR_NOT_A_LIST, isEmpty.line_num, isEmpty.col_num);
         }
 
         public R visit(org.syntax.stella.Absyn.Tail tail, A arg) { /* Code for Tail goes here */
             if (arg.expected != null) {
                 var expectedType = arg.expected;
-                var actualType = tail.expr_.accept(new ExprVisitor<>(), arg);
+                var actualType = tail.expr_.accept(exprVisitor, arg);
                 checkType(actualType, expectedType);
 
                 return (R) actualType;
             }
-            var actualType = tail.expr_.accept(new ExprVisitor<>(), arg);
+            var actualType = tail.expr_.accept(exprVisitor, arg);
             if (actualType instanceof TypeList) {
                 return (R) actualType;
             }
-            throw new RuntimeException("ERROR_NOT_A_LIST");
+            throw new StellaTypeError(ErrorCode.ERROR_NOT_A_LIST, tail.line_num, tail.col_num);
         }
 
         @Override
@@ -1073,23 +1303,23 @@ public class VisitTypeCheck {
             if (arg.expected != null) {
                 return (R) arg.expected;
             }
-            throw new RuntimeException("ERROR_AMBIGUOUS_PANIC_TYPE");
+            throw new StellaTypeError(ErrorCode.ERROR_AMBIGUOUS_PANIC_TYPE, panic.line_num, panic.col_num);
         }
 
         @Override
         public R visit(Throw aThrow, A arg) {
             var exceptionType = arg.getException();
             if (exceptionType == null) {
-                throw new RuntimeException("ERROR_EXCEPTION_TYPE_NOT_DECLARED");
+                throw new StellaTypeError(ErrorCode.ERROR_EXCEPTION_TYPE_NOT_DECLARED, aThrow.line_num, aThrow.col_num);
             }
 
             if (arg.expected == null) {
-                throw new RuntimeException("ERROR_AMBIGUOUS_THROW_TYPE");
+                throw new StellaTypeError(ErrorCode.ERROR_AMBIGUOUS_THROW_TYPE, aThrow.line_num, aThrow.col_num);
             }
 
             var expectedType = arg.expected;
             arg.expected = exceptionType;
-            aThrow.expr_.accept(new ExprVisitor<>(), arg);
+            aThrow.expr_.accept(exprVisitor, arg);
             return (R) expectedType;
         }
 
@@ -1098,22 +1328,22 @@ public class VisitTypeCheck {
 
             var exceptionType = arg.getException();
             if (exceptionType == null) {
-                throw new RuntimeException("ERROR_EXCEPTION_TYPE_NOT_DECLARED");
+                throw new StellaTypeError(ErrorCode.ERROR_EXCEPTION_TYPE_NOT_DECLARED, tryCatch.line_num, tryCatch.col_num);
             }
 
             var expectedType = arg.expected;
-            var actualTryType = tryCatch.expr_1.accept(new ExprVisitor<>(), arg);
+            var actualTryType = tryCatch.expr_1.accept(exprVisitor, arg);
             checkType(actualTryType, expectedType);
 
-            arg.scopes.add(new HashMap<>());
+            arg.scopes.push();
             arg.expected_pattern = exceptionType;
-            tryCatch.pattern_.accept(new PatternVisitor<>(), arg);
+            tryCatch.pattern_.accept(patternVisitor, arg);
 
             arg.expected = expectedType;
-            var actualWithType = tryCatch.expr_2.accept(new ExprVisitor<>(), arg);
+            var actualWithType = tryCatch.expr_2.accept(exprVisitor, arg);
             checkType(actualWithType, expectedType);
 
-            arg.scopes.removeLast();
+            arg.scopes.pop();
             checkType(actualTryType, actualWithType);
 
             return (R) actualTryType;
@@ -1123,10 +1353,10 @@ public class VisitTypeCheck {
         public R visit(TryWith tryWith, A arg) {
             var expectedType = arg.expected;
 
-            var actualTryType = tryWith.expr_1.accept(new ExprVisitor<>(), arg);
+            var actualTryType = tryWith.expr_1.accept(exprVisitor, arg);
             checkType(actualTryType, expectedType);
 
-            var actualWithType = tryWith.expr_2.accept(new ExprVisitor<>(), arg);
+            var actualWithType = tryWith.expr_2.accept(exprVisitor, arg);
             checkType(actualWithType, expectedType);
             checkType(actualTryType, actualWithType);
             return (R) actualTryType;
@@ -1134,110 +1364,105 @@ public class VisitTypeCheck {
 
         public R visit(org.syntax.stella.Absyn.Inl inl, A arg) { /* Code for Inl goes here */
             if (arg.expected == null) {
-                throw new RuntimeException("ERROR_AMBIGUOUS_SUM_TYPE");
+                throw new StellaTypeError(ErrorCode.ERROR_AMBIGUOUS_SUM_TYPE, inl.line_num, inl.col_num);
             }
             if (arg.expected instanceof TypeSum typeSum) {
                 var leftType = typeSum.type_1;
                 arg.expected = leftType;
-                var actualType = inl.expr_.accept(new ExprVisitor<>(), arg);
+                var actualType = inl.expr_.accept(exprVisitor, arg);
                 checkType(actualType, leftType);
                 return (R) typeSum;
             }
-            throw new RuntimeException("ERROR_UNEXPECTED_INJECTION");
+            throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_INJECTION, inl.line_num, inl.col_num);
         }
 
         public R visit(org.syntax.stella.Absyn.Inr inr, A arg) { /* Code for Inr goes here */
             if (arg.expected == null) {
-                throw new RuntimeException("ERROR_AMBIGUOUS_SUM_TYPE");
+                throw new StellaTypeError(ErrorCode.ERROR_AMBIGUOUS_SUM_TYPE, inr.line_num, inr.col_num);
             }
             if (arg.expected instanceof TypeSum typeSum) {
                 var rightType = typeSum.type_2;
                 arg.expected = rightType;
-                var actualType = inr.expr_.accept(new ExprVisitor<>(), arg);
+                var actualType = inr.expr_.accept(exprVisitor, arg);
                 arg.expected = null;
                 checkType(actualType, rightType);
                 return (R) typeSum;
             }
-            throw new RuntimeException("ERROR_UNEXPECTED_INJECTION");
+            throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_INJECTION, inr.line_num, inr.col_num);
         }
 
         public R visit(org.syntax.stella.Absyn.Succ succ, A arg) { /* Code for Succ goes here */
             checkType(TypeKind.TYPE_NAT.getStellaType(), arg.expected);
-            var type = succ.expr_.accept(new ExprVisitor<>(), arg);
+            var type = succ.expr_.accept(exprVisitor, arg);
             checkType(type, TypeKind.TYPE_NAT.getStellaType());
             return (R) type;
         }
 
         public R visit(org.syntax.stella.Absyn.LogicNot logicNot, A arg) { /* Code for LogicNot goes here */
-            logicNot.expr_.accept(new ExprVisitor<>(), arg);
+            logicNot.expr_.accept(exprVisitor, arg);
             return null;
         }
 
         public R visit(org.syntax.stella.Absyn.Pred pred, A arg) { /* Code for Pred goes here */
-            pred.expr_.accept(new ExprVisitor<>(), arg);
+            pred.expr_.accept(exprVisitor, arg);
             return null;
         }
 
         public R visit(org.syntax.stella.Absyn.IsZero isZero, A arg) { /* Code for IsZero goes here */
             checkType(TypeKind.TYPE_BOOL.getStellaType(), arg.expected);
             arg.expected = TypeKind.TYPE_NAT.getStellaType();
-            checkType(isZero.expr_.accept(new ExprVisitor<>(), arg), TypeKind.TYPE_NAT.getStellaType());
-            return TypeKind.TYPE_BOOL.getStellaType().accept(new TypeVisitor<>(), arg);
+            checkType(isZero.expr_.accept(exprVisitor, arg), TypeKind.TYPE_NAT.getStellaType());
+            return (R) TypeKind.TYPE_BOOL.getStellaType().accept(typeVisitor, arg);
         }
 
         public R visit(org.syntax.stella.Absyn.Fix fix, A arg) { /* Code for Fix goes here */
             var expectedType = arg.expected;
             if (arg.expected != null) {
-                var newListType = new ListType();
-                newListType.add(expectedType);
-
-                var newExpectedType = new TypeFun(newListType, expectedType);
+                var newExpectedType = types.fun(expectedType, expectedType);
                 arg.expected = newExpectedType;
-                var actualType = fix.expr_.accept(new ExprVisitor<>(), arg);
+                var actualType = fix.expr_.accept(exprVisitor, arg);
 
                 checkType(actualType, newExpectedType);
                 return (R) expectedType;
             }
 
-            if (fix.expr_.accept(new ExprVisitor<>(), arg) instanceof TypeFun typeFun) {
+            if (fix.expr_.accept(exprVisitor, arg) instanceof TypeFun typeFun) {
                 if (typeFun.listtype_.size() != 1) {
-                    throw new RuntimeException("ERROR_UNEXPECTED_NUMBER_OF_PARAMETERS_IN_LAMBDA");
+                    throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_NUMBER_OF_PARAMETERS_IN_LAMBDA, fix.line_num, fix.col_num);
                 }
                 checkType(typeFun.type_, typeFun.listtype_.get(0));
                 return (R) typeFun.type_;
             }
-            throw new RuntimeException("ERROR_NOT_A_FUNCTION");
+            throw new StellaTypeError(ErrorCode.ERROR_NOT_A_FUNCTION, fix.line_num, fix.col_num);
         }
 
         public R visit(org.syntax.stella.Absyn.NatRec natRec, A arg) { /* Code for NatRec goes here */
             var expectedType = arg.expected;
 
             arg.expected = TypeKind.TYPE_NAT.getStellaType();
-            var natType = natRec.expr_1.accept(new ExprVisitor<>(), arg);
+            var natType = natRec.expr_1.accept(exprVisitor, arg);
             checkType(natType, TypeKind.TYPE_NAT.getStellaType());
 
             arg.expected = expectedType;
-            var type = natRec.expr_2.accept(new ExprVisitor<>(), arg);
+            var type = natRec.expr_2.accept(exprVisitor, arg);
             checkType(type, expectedType);
 
-            var functionType = new TypeFun(new ListType(), new TypeFun(new ListType(), type));
-            functionType.listtype_.add(natType);
-            ((TypeFun) functionType.type_).listtype_.add(type);
+            var functionType = types.fun(natType, types.fun(type, type));
 
             arg.expected = null;
-            checkType(natRec.expr_3.accept(new ExprVisitor<>(), arg), functionType);
+            checkType(natRec.expr_3.accept(exprVisitor, arg), functionType);
             return (R) type;
         }
 
         public R visit(org.syntax.stella.Absyn.Fold fold, A arg) { /* Code for Fold goes here */
-            fold.type_.accept(new TypeVisitor<>(), arg);
-            fold.expr_.accept(new ExprVisitor<>(), arg);
+            fold.type_.accept(typeVisitor, arg);
+            fold.expr_.accept(exprVisitor, arg);
             return null;
         }
 
         public R visit(org.syntax.stella.Absyn.Unfold unfold, A arg) { /* Code for Unfold goes here */
-            unfold.type_.accept(new TypeVisitor<>(), arg);
-            unfold.expr_.accept(new ExprVisitor<>(), arg);
+            unfold.type_.accept(typeVisitor, arg);
+            unfold.expr_.accept(exprVisitor, arg);
             return null;
         }
 
@@ -1259,26 +1484,29 @@ public class VisitTypeCheck {
         public R visit(org.syntax.stella.Absyn.ConstInt constInt, A arg) { /* Code for ConstInt goes here */
             checkType(TypeKind.TYPE_NAT.getStellaType(), arg.expected);
             if (constInt.integer_ < 0) {
-                throw new RuntimeException("ERROR_ILLEGAL_NEGATIVE_LITERAL");
+                throw new StellaTypeError(ErrorCode.ERROR_ILLEGAL_NEGATIVE_LITERAL, constInt.line_num, constInt.col_num);
             }
-            return TypeKind.TYPE_NAT.getStellaType().accept(new TypeVisitor<>(), arg);
+            return (R) TypeKind.TYPE_NAT.getStellaType().accept(typeVisitor, arg);
         }
 
         @Override
         public R visit(ConstMemory constMemory, A arg) {
             if (arg.expected == null) {
-                throw new RuntimeException("ERROR_AMBIGUOUS_REFERENCE_TYPE");
+                throw new StellaTypeError(ErrorCode.ERROR_AMBIGUOUS_REFERENCE_TYPE, constMemory.line_num, constMemory.col_num);
             }
             if (!(arg.expected instanceof TypeRef typeRef)) {
-                throw new RuntimeException("ERROR_UNEXPECTED_MEMORY_ADDRESS");
+                throw new StellaTypeError(ErrorCode.ERROR_UNEXPECTED_MEMORY_ADDRESS, constMemory.line_num, constMemory.col_num);
             }
             return (R) typeRef;
         }
 
         public R visit(org.syntax.stella.Absyn.Var variable, A arg) { /* Code for Var goes here */
-            var type = arg.findVariableType(variable.stellaident_);
+            var slot = names != null ? names.slotOf(variable) : NameResolver.NO_SLOT;
+            var type = slot != NameResolver.NO_SLOT
+                    ? arg.scopes.lookup(variable.stellaident_, NameResolver.depth(slot), NameResolver.index(slot))
+                    : arg.findVariableType(variable.stellaident_);
             if (type == null) {
-                throw new RuntimeException("ERROR_UNDEFINED_VARIABLE");
+                throw new StellaTypeError(ErrorCode.ERROR_UNDEFINED_VARIABLE, variable.line_num, variable.col_num);
             }
             checkType(type, arg.expected);
             return (R) type;
@@ -1292,23 +1520,23 @@ public class VisitTypeCheck {
 
     public class PatternBindingVisitor<R extends Type, A extends ContextAndExpectedType> implements org.syntax.stella.Absyn.PatternBinding.Visitor<R, A> {
         public R visit(org.syntax.stella.Absyn.APatternBinding aPatternBinding, A arg) { /* Code for APatternBinding goes here */
-            arg.expected_pattern = aPatternBinding.expr_.accept(new ExprVisitor<>(), arg);
+            arg.expected_pattern = aPatternBinding.expr_.accept(exprVisitor, arg);
             ;
-            aPatternBinding.pattern_.accept(new PatternVisitor<>(), arg);
+            aPatternBinding.pattern_.accept(patternVisitor, arg);
             return null;
         }
     }
 
-    public class VariantFieldTypeVisitor<R extends Pair<String, ReT>, ReT extends Type, A extends ContextAndExpectedType> implements org.syntax.stella.Absyn.VariantFieldType.Visitor<R, A> {
-        public R visit(org.syntax.stella.Absyn.AVariantFieldType aVariantFieldType, A arg) { /* Code for AVariantFieldType goes here */
-            ReT type = aVariantFieldType.optionaltyping_.accept(new OptionalTypingVisitor<>(), arg);
-            return (R) new Pair<>(aVariantFieldType.stellaident_, type);
+    public class VariantFieldTypeVisitor<A extends ContextAndExpectedType> implements org.syntax.stella.Absyn.VariantFieldType.Visitor<Field, A> {
+        public Field visit(org.syntax.stella.Absyn.AVariantFieldType aVariantFieldType, A arg) { /* Code for AVariantFieldType goes here */
+            Type type = aVariantFieldType.optionaltyping_.accept(optionalTypingVisitor, arg);
+            return new Field(aVariantFieldType.stellaident_, type);
         }
     }
 
-    public class RecordFieldTypeVisitor<R extends Pair<String, ReT>, ReT extends Type, A extends ContextAndExpectedType> implements org.syntax.stella.Absyn.RecordFieldType.Visitor<R, A> {
-        public R visit(org.syntax.stella.Absyn.ARecordFieldType aRecordFieldType, A arg) { /* Code for ARecordFieldType goes here */
-            return (R) new Pair<>(aRecordFieldType.stellaident_, aRecordFieldType.type_);
+    public class RecordFieldTypeVisitor<A extends ContextAndExpectedType> implements org.syntax.stella.Absyn.RecordFieldType.Visitor<Field, A> {
+        public Field visit(org.syntax.stella.Absyn.ARecordFieldType aRecordFieldType, A arg) { /* Code for ARecordFieldType goes here */
+            return new Field(aRecordFieldType.stellaident_, aRecordFieldType.type_);
         }
     }
 }
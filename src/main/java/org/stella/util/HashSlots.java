@@ -0,0 +1,19 @@
+package org.stella.util;
+
+/**
+ * Slot arithmetic for the open-addressing tables of names used across the compiler: tables have a
+ * power-of-two capacity and probe linearly from {@link #first(int, int)}.
+ */
+public final class HashSlots {
+    private HashSlots() {
+    }
+
+    /**
+     * First slot for {@code hash} in a table of {@code capacity} slots, a power of two. Names such as
+     * {@code x1}, {@code x2} have consecutive hash codes, so the top bits of a multiplicative hash are
+     * used rather than the low bits of the hash code.
+     */
+    public static int first(int hash, int capacity) {
+        return (hash * 0x9E3779B9) >>> (32 - Integer.numberOfTrailingZeros(capacity));
+    }
+}
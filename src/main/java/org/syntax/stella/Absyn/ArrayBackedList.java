@@ -0,0 +1,133 @@
+package org.syntax.stella.Absyn;
+
+/**
+ * Array-backed base class for the abstract syntax list types.
+ * <p>
+ * BNFC generates the {@code List*} classes as subclasses of {@link java.util.LinkedList}, which makes
+ * indexed access linear. This class keeps the part of the {@code LinkedList} API used by the
+ * generated parser ({@code addFirst}/{@code addLast} for right- and left-recursive list rules) while
+ * storing elements contiguously: {@code get(i)} is constant time and both ends grow in amortized
+ * constant time.
+ */
+public class ArrayBackedList<E> extends java.util.AbstractList<E> implements java.util.RandomAccess, java.io.Serializable {
+  private static final int INITIAL_CAPACITY = 4;
+
+  private Object[] elements = new Object[INITIAL_CAPACITY];
+  // Elements occupy elements[start, end); spare capacity is kept at both ends.
+  private int start = INITIAL_CAPACITY / 2;
+  private int end = INITIAL_CAPACITY / 2;
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public E get(int index) {
+    java.util.Objects.checkIndex(index, end - start);
+    return (E) elements[start + index];
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public E set(int index, E element) {
+    java.util.Objects.checkIndex(index, end - start);
+    E previous = (E) elements[start + index];
+    elements[start + index] = element;
+    return previous;
+  }
+
+  @Override
+  public int size() {
+    return end - start;
+  }
+
+  @Override
+  public boolean add(E element) {
+    addLast(element);
+    return true;
+  }
+
+  @Override
+  public void add(int index, E element) {
+    java.util.Objects.checkIndex(index, end - start + 1);
+    if (index == 0) {
+      addFirst(element);
+      return;
+    }
+    if (end == elements.length) {
+      grow(false);
+    }
+    System.arraycopy(elements, start + index, elements, start + index + 1, end - start - index);
+    elements[start + index] = element;
+    end++;
+    modCount++;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public E remove(int index) {
+    java.util.Objects.checkIndex(index, end - start);
+    E removed = (E) elements[start + index];
+    if (index == 0) {
+      elements[start++] = null;
+    } else {
+      System.arraycopy(elements, start + index + 1, elements, start + index, end - start - index - 1);
+      elements[--end] = null;
+    }
+    modCount++;
+    return removed;
+  }
+
+  @Override
+  public void clear() {
+    java.util.Arrays.fill(elements, start, end, null);
+    start = end = elements.length / 2;
+    modCount++;
+  }
+
+  public void addFirst(E element) {
+    if (start == 0) {
+      grow(true);
+    }
+    elements[--start] = element;
+    modCount++;
+  }
+
+  public void addLast(E element) {
+    if (end == elements.length) {
+      grow(false);
+    }
+    elements[end++] = element;
+    modCount++;
+  }
+
+  public E getFirst() {
+    if (start == end) throw new java.util.NoSuchElementException();
+    return get(0);
+  }
+
+  public E getLast() {
+    if (start == end) throw new java.util.NoSuchElementException();
+    return get(end - start - 1);
+  }
+
+  public E removeFirst() {
+    if (start == end) throw new java.util.NoSuchElementException();
+    return remove(0);
+  }
+
+  public E removeLast() {
+    if (start == end) throw new java.util.NoSuchElementException();
+    return remove(end - start - 1);
+  }
+
+  /**
+   * Doubles the capacity, leaving the new spare room at the end that ran out of space.
+   */
+  private void grow(boolean atFront) {
+    int size = end - start;
+    Object[] grown = new Object[Math.max(INITIAL_CAPACITY, elements.length * 2)];
+    int newStart = atFront ? grown.length - size - (elements.length - end) : start;
+    System.arraycopy(elements, start, grown, newStart, size);
+    elements = grown;
+    start = newStart;
+    end = newStart + size;
+  }
+}
@@ -2,5 +2,5 @@
 
 package org.syntax.stella.Absyn;
 
-public class ListAnnotation extends java.util.LinkedList<Annotation> {
+public class ListAnnotation extends org.syntax.stella.Absyn.ArrayBackedList<Annotation> {
 }
@@ -2,5 +2,5 @@
 
 package org.syntax.stella.Absyn;
 
-public class ListBinding extends java.util.LinkedList<Binding> {
+public class ListBinding extends org.syntax.stella.Absyn.ArrayBackedList<Binding> {
 }
@@ -2,5 +2,5 @@
 
 package org.syntax.stella.Absyn;
 
-public class ListDecl extends java.util.LinkedList<Decl> {
+public class ListDecl extends org.syntax.stella.Absyn.ArrayBackedList<Decl> {
 }
@@ -2,5 +2,5 @@
 
 package org.syntax.stella.Absyn;
 
-public class ListExpr extends java.util.LinkedList<Expr> {
+public class ListExpr extends org.syntax.stella.Absyn.ArrayBackedList<Expr> {
 }
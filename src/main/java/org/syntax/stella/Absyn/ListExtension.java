@@ -2,5 +2,5 @@
 
 package org.syntax.stella.Absyn;
 
-public class ListExtension extends java.util.LinkedList<Extension> {
+public class ListExtension extends org.syntax.stella.Absyn.ArrayBackedList<Extension> {
 }
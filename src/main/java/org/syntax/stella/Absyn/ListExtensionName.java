@@ -2,5 +2,5 @@
 
 package org.syntax.stella.Absyn;
 
-public class ListExtensionName extends java.util.LinkedList<String> {
+public class ListExtensionName extends org.syntax.stella.Absyn.ArrayBackedList<String> {
 }
@@ -2,5 +2,5 @@
 
 package org.syntax.stella.Absyn;
 
-public class ListLabelledPattern extends java.util.LinkedList<LabelledPattern> {
+public class ListLabelledPattern extends org.syntax.stella.Absyn.ArrayBackedList<LabelledPattern> {
 }
@@ -2,5 +2,5 @@
 
 package org.syntax.stella.Absyn;
 
-public class ListLocalDecl extends java.util.LinkedList<LocalDecl> {
+public class ListLocalDecl extends org.syntax.stella.Absyn.ArrayBackedList<LocalDecl> {
 }
@@ -2,5 +2,5 @@
 
 package org.syntax.stella.Absyn;
 
-public class ListMatchCase extends java.util.LinkedList<MatchCase> {
+public class ListMatchCase extends org.syntax.stella.Absyn.ArrayBackedList<MatchCase> {
 }
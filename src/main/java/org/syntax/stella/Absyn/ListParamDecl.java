@@ -2,5 +2,5 @@
 
 package org.syntax.stella.Absyn;
 
-public class ListParamDecl extends java.util.LinkedList<ParamDecl> {
+public class ListParamDecl extends org.syntax.stella.Absyn.ArrayBackedList<ParamDecl> {
 }
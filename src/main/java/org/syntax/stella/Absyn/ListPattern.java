@@ -2,5 +2,5 @@
 
 package org.syntax.stella.Absyn;
 
-public class ListPattern extends java.util.LinkedList<Pattern> {
+public class ListPattern extends org.syntax.stella.Absyn.ArrayBackedList<Pattern> {
 }
@@ -2,5 +2,5 @@
 
 package org.syntax.stella.Absyn;
 
-public class ListPatternBinding extends java.util.LinkedList<PatternBinding> {
+public class ListPatternBinding extends org.syntax.stella.Absyn.ArrayBackedList<PatternBinding> {
 }
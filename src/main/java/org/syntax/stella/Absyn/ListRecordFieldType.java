@@ -2,5 +2,5 @@
 
 package org.syntax.stella.Absyn;
 
-public class ListRecordFieldType extends java.util.LinkedList<RecordFieldType> {
+public class ListRecordFieldType extends org.syntax.stella.Absyn.ArrayBackedList<RecordFieldType> {
 }
@@ -2,5 +2,5 @@
 
 package org.syntax.stella.Absyn;
 
-public class ListStellaIdent extends java.util.LinkedList<String> {
+public class ListStellaIdent extends org.syntax.stella.Absyn.ArrayBackedList<String> {
 }
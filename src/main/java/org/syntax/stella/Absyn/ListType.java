@@ -2,5 +2,5 @@
 
 package org.syntax.stella.Absyn;
 
-public class ListType extends java.util.LinkedList<Type> {
+public class ListType extends org.syntax.stella.Absyn.ArrayBackedList<Type> {
 }
@@ -2,5 +2,5 @@
 
 package org.syntax.stella.Absyn;
 
-public class ListVariantFieldType extends java.util.LinkedList<VariantFieldType> {
+public class ListVariantFieldType extends org.syntax.stella.Absyn.ArrayBackedList<VariantFieldType> {
 }
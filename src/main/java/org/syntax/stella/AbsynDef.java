@@ -4,7 +4,7 @@ package org.syntax.stella;
 
 public class AbsynDef {
 
-  public static <B,A extends java.util.LinkedList<? super B>> A cons(B x, A xs) {
+  public static <B,A extends org.syntax.stella.Absyn.ArrayBackedList<? super B>> A cons(B x, A xs) {
     xs.addFirst(x);
     return xs;
   }
@@ -4,6 +4,7 @@ package org.syntax.stella;
 
 public class PrettyPrinter
 {
+  //Printing state lives in a per-call instance, so print and show are safe to call from many threads.
   //For certain applications increasing the initial size of the buffer may improve performance.
   private static final int INITIAL_BUFFER_SIZE = 128;
   private static final int INDENT_WIDTH = 2;
@@ -11,7 +12,7 @@ public class PrettyPrinter
   private static final String _L_PAREN = new String("(");
   private static final String _R_PAREN = new String(")");
   //You may wish to change render
-  private static void render(String s)
+  private void render(String s)
   {
     if (s.equals("{"))
     {
@@ -67,577 +68,501 @@ public class PrettyPrinter
   //  print and show methods are defined for each category.
   public static String print(org.syntax.stella.Absyn.Program foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.Program foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.ListStellaIdent foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.ListStellaIdent foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.LanguageDecl foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.LanguageDecl foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.Extension foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.Extension foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.ListExtensionName foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.ListExtensionName foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.ListExtension foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.ListExtension foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.Decl foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.Decl foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.ListDecl foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.ListDecl foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.LocalDecl foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.LocalDecl foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.ListLocalDecl foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.ListLocalDecl foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.Annotation foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.Annotation foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.ListAnnotation foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.ListAnnotation foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.ParamDecl foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.ParamDecl foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.ListParamDecl foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.ListParamDecl foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.ReturnType foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.ReturnType foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.ThrowType foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.ThrowType foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.Type foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.Type foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.ListType foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.ListType foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.MatchCase foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.MatchCase foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.ListMatchCase foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.ListMatchCase foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.OptionalTyping foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.OptionalTyping foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.PatternData foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.PatternData foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.ExprData foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.ExprData foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.Pattern foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.Pattern foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.ListPattern foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.ListPattern foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.LabelledPattern foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.LabelledPattern foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.ListLabelledPattern foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.ListLabelledPattern foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.Binding foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.Binding foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.ListBinding foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.ListBinding foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.Expr foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.Expr foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.ListExpr foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.ListExpr foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.PatternBinding foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.PatternBinding foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.ListPatternBinding foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.ListPatternBinding foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.VariantFieldType foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.VariantFieldType foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.ListVariantFieldType foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.ListVariantFieldType foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.RecordFieldType foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.RecordFieldType foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.ListRecordFieldType foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.ListRecordFieldType foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   public static String print(org.syntax.stella.Absyn.Typing foo)
   {
-    pp(foo, 0);
-    trim();
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.pp(foo, 0);
+    printer.trim();
+    return printer.buf_.toString();
   }
   public static String show(org.syntax.stella.Absyn.Typing foo)
   {
-    sh(foo);
-    String temp = buf_.toString();
-    buf_.delete(0,buf_.length());
-    return temp;
+    PrettyPrinter printer = new PrettyPrinter();
+    printer.sh(foo);
+    return printer.buf_.toString();
   }
   /***   You shouldn't need to change anything beyond this point.   ***/
 
-  private static void pp(org.syntax.stella.Absyn.Program foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.Program foo, int _i_)
   {
     if (foo instanceof org.syntax.stella.Absyn.AProgram)
     {
@@ -651,12 +576,12 @@ public class PrettyPrinter
 
   }
 
-  private static void pp(org.syntax.stella.Absyn.ListStellaIdent foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.ListStellaIdent foo, int _i_)
   {
     ppListStellaIdent(foo.iterator(), _i_);
   }
 
-  private static void ppListStellaIdent(java.util.Iterator<String> it, int _i_)
+  private void ppListStellaIdent(java.util.Iterator<String> it, int _i_)
   {
     if (it.hasNext())
     {
@@ -673,7 +598,7 @@ public class PrettyPrinter
   }
 
 
-  private static void pp(org.syntax.stella.Absyn.LanguageDecl foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.LanguageDecl foo, int _i_)
   {
     if (foo instanceof org.syntax.stella.Absyn.LanguageCore)
     {
@@ -687,7 +612,7 @@ public class PrettyPrinter
 
   }
 
-  private static void pp(org.syntax.stella.Absyn.Extension foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.Extension foo, int _i_)
   {
     if (foo instanceof org.syntax.stella.Absyn.AnExtension)
     {
@@ -701,12 +626,12 @@ public class PrettyPrinter
 
   }
 
-  private static void pp(org.syntax.stella.Absyn.ListExtensionName foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.ListExtensionName foo, int _i_)
   {
     ppListExtensionName(foo.iterator(), _i_);
   }
 
-  private static void ppListExtensionName(java.util.Iterator<String> it, int _i_)
+  private void ppListExtensionName(java.util.Iterator<String> it, int _i_)
   {
     if (it.hasNext())
     {
@@ -723,12 +648,12 @@ public class PrettyPrinter
   }
 
 
-  private static void pp(org.syntax.stella.Absyn.ListExtension foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.ListExtension foo, int _i_)
   {
     ppListExtension(foo.iterator(), _i_);
   }
 
-  private static void ppListExtension(java.util.Iterator<org.syntax.stella.Absyn.Extension> it, int _i_)
+  private void ppListExtension(java.util.Iterator<org.syntax.stella.Absyn.Extension> it, int _i_)
   {
     if (it.hasNext())
     { /* cons */
@@ -738,7 +663,7 @@ public class PrettyPrinter
   }
 
 
-  private static void pp(org.syntax.stella.Absyn.Decl foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.Decl foo, int _i_)
   {
     if (foo instanceof org.syntax.stella.Absyn.DeclFun)
     {
@@ -816,12 +741,12 @@ public class PrettyPrinter
 
   }
 
-  private static void pp(org.syntax.stella.Absyn.ListDecl foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.ListDecl foo, int _i_)
   {
     ppListDecl(foo.iterator(), _i_);
   }
 
-  private static void ppListDecl(java.util.Iterator<org.syntax.stella.Absyn.Decl> it, int _i_)
+  private void ppListDecl(java.util.Iterator<org.syntax.stella.Absyn.Decl> it, int _i_)
   {
     if (it.hasNext())
     { /* cons */
@@ -831,7 +756,7 @@ public class PrettyPrinter
   }
 
 
-  private static void pp(org.syntax.stella.Absyn.LocalDecl foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.LocalDecl foo, int _i_)
   {
     if (foo instanceof org.syntax.stella.Absyn.ALocalDecl)
     {
@@ -843,12 +768,12 @@ public class PrettyPrinter
 
   }
 
-  private static void pp(org.syntax.stella.Absyn.ListLocalDecl foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.ListLocalDecl foo, int _i_)
   {
     ppListLocalDecl(foo.iterator(), _i_);
   }
 
-  private static void ppListLocalDecl(java.util.Iterator<org.syntax.stella.Absyn.LocalDecl> it, int _i_)
+  private void ppListLocalDecl(java.util.Iterator<org.syntax.stella.Absyn.LocalDecl> it, int _i_)
   {
     if (it.hasNext())
     { /* cons */
@@ -858,7 +783,7 @@ public class PrettyPrinter
   }
 
 
-  private static void pp(org.syntax.stella.Absyn.Annotation foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.Annotation foo, int _i_)
   {
     if (foo instanceof org.syntax.stella.Absyn.InlineAnnotation)
     {
@@ -870,12 +795,12 @@ public class PrettyPrinter
 
   }
 
-  private static void pp(org.syntax.stella.Absyn.ListAnnotation foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.ListAnnotation foo, int _i_)
   {
     ppListAnnotation(foo.iterator(), _i_);
   }
 
-  private static void ppListAnnotation(java.util.Iterator<org.syntax.stella.Absyn.Annotation> it, int _i_)
+  private void ppListAnnotation(java.util.Iterator<org.syntax.stella.Absyn.Annotation> it, int _i_)
   {
     if (it.hasNext())
     { /* cons */
@@ -885,7 +810,7 @@ public class PrettyPrinter
   }
 
 
-  private static void pp(org.syntax.stella.Absyn.ParamDecl foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.ParamDecl foo, int _i_)
   {
     if (foo instanceof org.syntax.stella.Absyn.AParamDecl)
     {
@@ -899,12 +824,12 @@ public class PrettyPrinter
 
   }
 
-  private static void pp(org.syntax.stella.Absyn.ListParamDecl foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.ListParamDecl foo, int _i_)
   {
     ppListParamDecl(foo.iterator(), _i_);
   }
 
-  private static void ppListParamDecl(java.util.Iterator<org.syntax.stella.Absyn.ParamDecl> it, int _i_)
+  private void ppListParamDecl(java.util.Iterator<org.syntax.stella.Absyn.ParamDecl> it, int _i_)
   {
     if (it.hasNext())
     {
@@ -921,7 +846,7 @@ public class PrettyPrinter
   }
 
 
-  private static void pp(org.syntax.stella.Absyn.ReturnType foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.ReturnType foo, int _i_)
   {
     if (foo instanceof org.syntax.stella.Absyn.NoReturnType)
     {
@@ -940,7 +865,7 @@ public class PrettyPrinter
 
   }
 
-  private static void pp(org.syntax.stella.Absyn.ThrowType foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.ThrowType foo, int _i_)
   {
     if (foo instanceof org.syntax.stella.Absyn.NoThrowType)
     {
@@ -959,7 +884,7 @@ public class PrettyPrinter
 
   }
 
-  private static void pp(org.syntax.stella.Absyn.Type foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.Type foo, int _i_)
   {
     if (foo instanceof org.syntax.stella.Absyn.TypeAuto)
     {
@@ -1098,12 +1023,12 @@ public class PrettyPrinter
 
   }
 
-  private static void pp(org.syntax.stella.Absyn.ListType foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.ListType foo, int _i_)
   {
     ppListType(foo.iterator(), _i_);
   }
 
-  private static void ppListType(java.util.Iterator<org.syntax.stella.Absyn.Type> it, int _i_)
+  private void ppListType(java.util.Iterator<org.syntax.stella.Absyn.Type> it, int _i_)
   {
     if (it.hasNext())
     {
@@ -1128,7 +1053,7 @@ public class PrettyPrinter
   }
 
 
-  private static void pp(org.syntax.stella.Absyn.MatchCase foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.MatchCase foo, int _i_)
   {
     if (foo instanceof org.syntax.stella.Absyn.AMatchCase)
     {
@@ -1142,12 +1067,12 @@ public class PrettyPrinter
 
   }
 
-  private static void pp(org.syntax.stella.Absyn.ListMatchCase foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.ListMatchCase foo, int _i_)
   {
     ppListMatchCase(foo.iterator(), _i_);
   }
 
-  private static void ppListMatchCase(java.util.Iterator<org.syntax.stella.Absyn.MatchCase> it, int _i_)
+  private void ppListMatchCase(java.util.Iterator<org.syntax.stella.Absyn.MatchCase> it, int _i_)
   {
     if (it.hasNext())
     {
@@ -1164,7 +1089,7 @@ public class PrettyPrinter
   }
 
 
-  private static void pp(org.syntax.stella.Absyn.OptionalTyping foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.OptionalTyping foo, int _i_)
   {
     if (foo instanceof org.syntax.stella.Absyn.NoTyping)
     {
@@ -1183,7 +1108,7 @@ public class PrettyPrinter
 
   }
 
-  private static void pp(org.syntax.stella.Absyn.PatternData foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.PatternData foo, int _i_)
   {
     if (foo instanceof org.syntax.stella.Absyn.NoPatternData)
     {
@@ -1202,7 +1127,7 @@ public class PrettyPrinter
 
   }
 
-  private static void pp(org.syntax.stella.Absyn.ExprData foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.ExprData foo, int _i_)
   {
     if (foo instanceof org.syntax.stella.Absyn.NoExprData)
     {
@@ -1221,7 +1146,7 @@ public class PrettyPrinter
 
   }
 
-  private static void pp(org.syntax.stella.Absyn.Pattern foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.Pattern foo, int _i_)
   {
     if (foo instanceof org.syntax.stella.Absyn.PatternCastAs)
     {
@@ -1359,12 +1284,12 @@ public class PrettyPrinter
 
   }
 
-  private static void pp(org.syntax.stella.Absyn.ListPattern foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.ListPattern foo, int _i_)
   {
     ppListPattern(foo.iterator(), _i_);
   }
 
-  private static void ppListPattern(java.util.Iterator<org.syntax.stella.Absyn.Pattern> it, int _i_)
+  private void ppListPattern(java.util.Iterator<org.syntax.stella.Absyn.Pattern> it, int _i_)
   {
     if (it.hasNext())
     {
@@ -1381,7 +1306,7 @@ public class PrettyPrinter
   }
 
 
-  private static void pp(org.syntax.stella.Absyn.LabelledPattern foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.LabelledPattern foo, int _i_)
   {
     if (foo instanceof org.syntax.stella.Absyn.ALabelledPattern)
     {
@@ -1395,12 +1320,12 @@ public class PrettyPrinter
 
   }
 
-  private static void pp(org.syntax.stella.Absyn.ListLabelledPattern foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.ListLabelledPattern foo, int _i_)
   {
     ppListLabelledPattern(foo.iterator(), _i_);
   }
 
-  private static void ppListLabelledPattern(java.util.Iterator<org.syntax.stella.Absyn.LabelledPattern> it, int _i_)
+  private void ppListLabelledPattern(java.util.Iterator<org.syntax.stella.Absyn.LabelledPattern> it, int _i_)
   {
     if (it.hasNext())
     {
@@ -1417,7 +1342,7 @@ public class PrettyPrinter
   }
 
 
-  private static void pp(org.syntax.stella.Absyn.Binding foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.Binding foo, int _i_)
   {
     if (foo instanceof org.syntax.stella.Absyn.ABinding)
     {
@@ -1431,12 +1356,12 @@ public class PrettyPrinter
 
   }
 
-  private static void pp(org.syntax.stella.Absyn.ListBinding foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.ListBinding foo, int _i_)
   {
     ppListBinding(foo.iterator(), _i_);
   }
 
-  private static void ppListBinding(java.util.Iterator<org.syntax.stella.Absyn.Binding> it, int _i_)
+  private void ppListBinding(java.util.Iterator<org.syntax.stella.Absyn.Binding> it, int _i_)
   {
     if (it.hasNext())
     {
@@ -1453,7 +1378,7 @@ public class PrettyPrinter
   }
 
 
-  private static void pp(org.syntax.stella.Absyn.Expr foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.Expr foo, int _i_)
   {
     if (foo instanceof org.syntax.stella.Absyn.Sequence)
     {
@@ -2023,12 +1948,12 @@ public class PrettyPrinter
 
   }
 
-  private static void pp(org.syntax.stella.Absyn.ListExpr foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.ListExpr foo, int _i_)
   {
     ppListExpr(foo.iterator(), _i_);
   }
 
-  private static void ppListExpr(java.util.Iterator<org.syntax.stella.Absyn.Expr> it, int _i_)
+  private void ppListExpr(java.util.Iterator<org.syntax.stella.Absyn.Expr> it, int _i_)
   {
     if (it.hasNext())
     {
@@ -2053,7 +1978,7 @@ public class PrettyPrinter
   }
 
 
-  private static void pp(org.syntax.stella.Absyn.PatternBinding foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.PatternBinding foo, int _i_)
   {
     if (foo instanceof org.syntax.stella.Absyn.APatternBinding)
     {
@@ -2067,12 +1992,12 @@ public class PrettyPrinter
 
   }
 
-  private static void pp(org.syntax.stella.Absyn.ListPatternBinding foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.ListPatternBinding foo, int _i_)
   {
     ppListPatternBinding(foo.iterator(), _i_);
   }
 
-  private static void ppListPatternBinding(java.util.Iterator<org.syntax.stella.Absyn.PatternBinding> it, int _i_)
+  private void ppListPatternBinding(java.util.Iterator<org.syntax.stella.Absyn.PatternBinding> it, int _i_)
   {
     if (it.hasNext())
     {
@@ -2089,7 +2014,7 @@ public class PrettyPrinter
   }
 
 
-  private static void pp(org.syntax.stella.Absyn.VariantFieldType foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.VariantFieldType foo, int _i_)
   {
     if (foo instanceof org.syntax.stella.Absyn.AVariantFieldType)
     {
@@ -2102,12 +2027,12 @@ public class PrettyPrinter
 
   }
 
-  private static void pp(org.syntax.stella.Absyn.ListVariantFieldType foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.ListVariantFieldType foo, int _i_)
   {
     ppListVariantFieldType(foo.iterator(), _i_);
   }
 
-  private static void ppListVariantFieldType(java.util.Iterator<org.syntax.stella.Absyn.VariantFieldType> it, int _i_)
+  private void ppListVariantFieldType(java.util.Iterator<org.syntax.stella.Absyn.VariantFieldType> it, int _i_)
   {
     if (it.hasNext())
     {
@@ -2124,7 +2049,7 @@ public class PrettyPrinter
   }
 
 
-  private static void pp(org.syntax.stella.Absyn.RecordFieldType foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.RecordFieldType foo, int _i_)
   {
     if (foo instanceof org.syntax.stella.Absyn.ARecordFieldType)
     {
@@ -2138,12 +2063,12 @@ public class PrettyPrinter
 
   }
 
-  private static void pp(org.syntax.stella.Absyn.ListRecordFieldType foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.ListRecordFieldType foo, int _i_)
   {
     ppListRecordFieldType(foo.iterator(), _i_);
   }
 
-  private static void ppListRecordFieldType(java.util.Iterator<org.syntax.stella.Absyn.RecordFieldType> it, int _i_)
+  private void ppListRecordFieldType(java.util.Iterator<org.syntax.stella.Absyn.RecordFieldType> it, int _i_)
   {
     if (it.hasNext())
     {
@@ -2160,7 +2085,7 @@ public class PrettyPrinter
   }
 
 
-  private static void pp(org.syntax.stella.Absyn.Typing foo, int _i_)
+  private void pp(org.syntax.stella.Absyn.Typing foo, int _i_)
   {
     if (foo instanceof org.syntax.stella.Absyn.ATyping)
     {
@@ -2175,7 +2100,7 @@ public class PrettyPrinter
   }
 
 
-  private static void sh(org.syntax.stella.Absyn.Program foo)
+  private void sh(org.syntax.stella.Absyn.Program foo)
   {
     if (foo instanceof org.syntax.stella.Absyn.AProgram)
     {
@@ -2193,7 +2118,7 @@ public class PrettyPrinter
     }
   }
 
-  private static void sh(org.syntax.stella.Absyn.ListStellaIdent foo)
+  private void sh(org.syntax.stella.Absyn.ListStellaIdent foo)
   {
      for (java.util.Iterator<String> it = foo.iterator(); it.hasNext();)
      {
@@ -2203,7 +2128,7 @@ public class PrettyPrinter
      }
   }
 
-  private static void sh(org.syntax.stella.Absyn.LanguageDecl foo)
+  private void sh(org.syntax.stella.Absyn.LanguageDecl foo)
   {
     if (foo instanceof org.syntax.stella.Absyn.LanguageCore)
     {
@@ -2212,7 +2137,7 @@ public class PrettyPrinter
     }
   }
 
-  private static void sh(org.syntax.stella.Absyn.Extension foo)
+  private void sh(org.syntax.stella.Absyn.Extension foo)
   {
     if (foo instanceof org.syntax.stella.Absyn.AnExtension)
     {
@@ -2226,7 +2151,7 @@ public class PrettyPrinter
     }
   }
 
-  private static void sh(org.syntax.stella.Absyn.ListExtensionName foo)
+  private void sh(org.syntax.stella.Absyn.ListExtensionName foo)
   {
      for (java.util.Iterator<String> it = foo.iterator(); it.hasNext();)
      {
@@ -2236,7 +2161,7 @@ public class PrettyPrinter
      }
   }
 
-  private static void sh(org.syntax.stella.Absyn.ListExtension foo)
+  private void sh(org.syntax.stella.Absyn.ListExtension foo)
   {
      for (java.util.Iterator<org.syntax.stella.Absyn.Extension> it = foo.iterator(); it.hasNext();)
      {
@@ -2246,7 +2171,7 @@ public class PrettyPrinter
      }
   }
 
-  private static void sh(org.syntax.stella.Absyn.Decl foo)
+  private void sh(org.syntax.stella.Absyn.Decl foo)
   {
     if (foo instanceof org.syntax.stella.Absyn.DeclFun)
     {
@@ -2319,7 +2244,7 @@ public class PrettyPrinter
     }
   }
 
-  private static void sh(org.syntax.stella.Absyn.ListDecl foo)
+  private void sh(org.syntax.stella.Absyn.ListDecl foo)
   {
      for (java.util.Iterator<org.syntax.stella.Absyn.Decl> it = foo.iterator(); it.hasNext();)
      {
@@ -2329,7 +2254,7 @@ public class PrettyPrinter
      }
   }
 
-  private static void sh(org.syntax.stella.Absyn.LocalDecl foo)
+  private void sh(org.syntax.stella.Absyn.LocalDecl foo)
   {
     if (foo instanceof org.syntax.stella.Absyn.ALocalDecl)
     {
@@ -2341,7 +2266,7 @@ public class PrettyPrinter
     }
   }
 
-  private static void sh(org.syntax.stella.Absyn.ListLocalDecl foo)
+  private void sh(org.syntax.stella.Absyn.ListLocalDecl foo)
   {
      for (java.util.Iterator<org.syntax.stella.Absyn.LocalDecl> it = foo.iterator(); it.hasNext();)
      {
@@ -2351,7 +2276,7 @@ public class PrettyPrinter
      }
   }
 
-  private static void sh(org.syntax.stella.Absyn.Annotation foo)
+  private void sh(org.syntax.stella.Absyn.Annotation foo)
   {
     if (foo instanceof org.syntax.stella.Absyn.InlineAnnotation)
     {
@@ -2360,7 +2285,7 @@ public class PrettyPrinter
     }
   }
 
-  private static void sh(org.syntax.stella.Absyn.ListAnnotation foo)
+  private void sh(org.syntax.stella.Absyn.ListAnnotation foo)
   {
      for (java.util.Iterator<org.syntax.stella.Absyn.Annotation> it = foo.iterator(); it.hasNext();)
      {
@@ -2370,7 +2295,7 @@ public class PrettyPrinter
      }
   }
 
-  private static void sh(org.syntax.stella.Absyn.ParamDecl foo)
+  private void sh(org.syntax.stella.Absyn.ParamDecl foo)
   {
     if (foo instanceof org.syntax.stella.Absyn.AParamDecl)
     {
@@ -2383,7 +2308,7 @@ public class PrettyPrinter
     }
   }
 
-  private static void sh(org.syntax.stella.Absyn.ListParamDecl foo)
+  private void sh(org.syntax.stella.Absyn.ListParamDecl foo)
   {
      for (java.util.Iterator<org.syntax.stella.Absyn.ParamDecl> it = foo.iterator(); it.hasNext();)
      {
@@ -2393,7 +2318,7 @@ public class PrettyPrinter
      }
   }
 
-  private static void sh(org.syntax.stella.Absyn.ReturnType foo)
+  private void sh(org.syntax.stella.Absyn.ReturnType foo)
   {
     if (foo instanceof org.syntax.stella.Absyn.NoReturnType)
     {
@@ -2410,7 +2335,7 @@ public class PrettyPrinter
     }
   }
 
-  private static void sh(org.syntax.stella.Absyn.ThrowType foo)
+  private void sh(org.syntax.stella.Absyn.ThrowType foo)
   {
     if (foo instanceof org.syntax.stella.Absyn.NoThrowType)
     {
@@ -2429,7 +2354,7 @@ public class PrettyPrinter
     }
   }
 
-  private static void sh(org.syntax.stella.Absyn.Type foo)
+  private void sh(org.syntax.stella.Absyn.Type foo)
   {
     if (foo instanceof org.syntax.stella.Absyn.TypeAuto)
     {
@@ -2557,7 +2482,7 @@ public class PrettyPrinter
     }
   }
 
-  private static void sh(org.syntax.stella.Absyn.ListType foo)
+  private void sh(org.syntax.stella.Absyn.ListType foo)
   {
      for (java.util.Iterator<org.syntax.stella.Absyn.Type> it = foo.iterator(); it.hasNext();)
      {
@@ -2567,7 +2492,7 @@ public class PrettyPrinter
      }
   }
 
-  private static void sh(org.syntax.stella.Absyn.MatchCase foo)
+  private void sh(org.syntax.stella.Absyn.MatchCase foo)
   {
     if (foo instanceof org.syntax.stella.Absyn.AMatchCase)
     {
@@ -2580,7 +2505,7 @@ public class PrettyPrinter
     }
   }
 
-  private static void sh(org.syntax.stella.Absyn.ListMatchCase foo)
+  private void sh(org.syntax.stella.Absyn.ListMatchCase foo)
   {
      for (java.util.Iterator<org.syntax.stella.Absyn.MatchCase> it = foo.iterator(); it.hasNext();)
      {
@@ -2590,7 +2515,7 @@ public class PrettyPrinter
      }
   }
 
-  private static void sh(org.syntax.stella.Absyn.OptionalTyping foo)
+  private void sh(org.syntax.stella.Absyn.OptionalTyping foo)
   {
     if (foo instanceof org.syntax.stella.Absyn.NoTyping)
     {
@@ -2607,7 +2532,7 @@ public class PrettyPrinter
     }
   }
 
-  private static void sh(org.syntax.stella.Absyn.PatternData foo)
+  private void sh(org.syntax.stella.Absyn.PatternData foo)
   {
     if (foo instanceof org.syntax.stella.Absyn.NoPatternData)
     {
@@ -2624,7 +2549,7 @@ public class PrettyPrinter
     }
   }
 
-  private static void sh(org.syntax.stella.Absyn.ExprData foo)
+  private void sh(org.syntax.stella.Absyn.ExprData foo)
   {
     if (foo instanceof org.syntax.stella.Absyn.NoExprData)
     {
@@ -2641,7 +2566,7 @@ public class PrettyPrinter
     }
   }
 
-  private static void sh(org.syntax.stella.Absyn.Pattern foo)
+  private void sh(org.syntax.stella.Absyn.Pattern foo)
   {
     if (foo instanceof org.syntax.stella.Absyn.PatternCastAs)
     {
@@ -2766,7 +2691,7 @@ public class PrettyPrinter
     }
   }
 
-  private static void sh(org.syntax.stella.Absyn.ListPattern foo)
+  private void sh(org.syntax.stella.Absyn.ListPattern foo)
   {
      for (java.util.Iterator<org.syntax.stella.Absyn.Pattern> it = foo.iterator(); it.hasNext();)
      {
@@ -2776,7 +2701,7 @@ public class PrettyPrinter
      }
   }
 
-  private static void sh(org.syntax.stella.Absyn.LabelledPattern foo)
+  private void sh(org.syntax.stella.Absyn.LabelledPattern foo)
   {
     if (foo instanceof org.syntax.stella.Absyn.ALabelledPattern)
     {
@@ -2789,7 +2714,7 @@ public class PrettyPrinter
     }
   }
 
-  private static void sh(org.syntax.stella.Absyn.ListLabelledPattern foo)
+  private void sh(org.syntax.stella.Absyn.ListLabelledPattern foo)
   {
      for (java.util.Iterator<org.syntax.stella.Absyn.LabelledPattern> it = foo.iterator(); it.hasNext();)
      {
@@ -2799,7 +2724,7 @@ public class PrettyPrinter
      }
   }
 
-  private static void sh(org.syntax.stella.Absyn.Binding foo)
+  private void sh(org.syntax.stella.Absyn.Binding foo)
   {
     if (foo instanceof org.syntax.stella.Absyn.ABinding)
     {
@@ -2812,7 +2737,7 @@ public class PrettyPrinter
     }
   }
 
-  private static void sh(org.syntax.stella.Absyn.ListBinding foo)
+  private void sh(org.syntax.stella.Absyn.ListBinding foo)
   {
      for (java.util.Iterator<org.syntax.stella.Absyn.Binding> it = foo.iterator(); it.hasNext();)
      {
@@ -2822,7 +2747,7 @@ public class PrettyPrinter
      }
   }
 
-  private static void sh(org.syntax.stella.Absyn.Expr foo)
+  private void sh(org.syntax.stella.Absyn.Expr foo)
   {
     if (foo instanceof org.syntax.stella.Absyn.Sequence)
     {
@@ -3330,7 +3255,7 @@ public class PrettyPrinter
     }
   }
 
-  private static void sh(org.syntax.stella.Absyn.ListExpr foo)
+  private void sh(org.syntax.stella.Absyn.ListExpr foo)
   {
      for (java.util.Iterator<org.syntax.stella.Absyn.Expr> it = foo.iterator(); it.hasNext();)
      {
@@ -3340,7 +3265,7 @@ public class PrettyPrinter
      }
   }
 
-  private static void sh(org.syntax.stella.Absyn.PatternBinding foo)
+  private void sh(org.syntax.stella.Absyn.PatternBinding foo)
   {
     if (foo instanceof org.syntax.stella.Absyn.APatternBinding)
     {
@@ -3353,7 +3278,7 @@ public class PrettyPrinter
     }
   }
 
-  private static void sh(org.syntax.stella.Absyn.ListPatternBinding foo)
+  private void sh(org.syntax.stella.Absyn.ListPatternBinding foo)
   {
      for (java.util.Iterator<org.syntax.stella.Absyn.PatternBinding> it = foo.iterator(); it.hasNext();)
      {
@@ -3363,7 +3288,7 @@ public class PrettyPrinter
      }
   }
 
-  private static void sh(org.syntax.stella.Absyn.VariantFieldType foo)
+  private void sh(org.syntax.stella.Absyn.VariantFieldType foo)
   {
     if (foo instanceof org.syntax.stella.Absyn.AVariantFieldType)
     {
@@ -3376,7 +3301,7 @@ public class PrettyPrinter
     }
   }
 
-  private static void sh(org.syntax.stella.Absyn.ListVariantFieldType foo)
+  private void sh(org.syntax.stella.Absyn.ListVariantFieldType foo)
   {
      for (java.util.Iterator<org.syntax.stella.Absyn.VariantFieldType> it = foo.iterator(); it.hasNext();)
      {
@@ -3386,7 +3311,7 @@ public class PrettyPrinter
      }
   }
 
-  private static void sh(org.syntax.stella.Absyn.RecordFieldType foo)
+  private void sh(org.syntax.stella.Absyn.RecordFieldType foo)
   {
     if (foo instanceof org.syntax.stella.Absyn.ARecordFieldType)
     {
@@ -3399,7 +3324,7 @@ public class PrettyPrinter
     }
   }
 
-  private static void sh(org.syntax.stella.Absyn.ListRecordFieldType foo)
+  private void sh(org.syntax.stella.Absyn.ListRecordFieldType foo)
   {
      for (java.util.Iterator<org.syntax.stella.Absyn.RecordFieldType> it = foo.iterator(); it.hasNext();)
      {
@@ -3409,7 +3334,7 @@ public class PrettyPrinter
      }
   }
 
-  private static void sh(org.syntax.stella.Absyn.Typing foo)
+  private void sh(org.syntax.stella.Absyn.Typing foo)
   {
     if (foo instanceof org.syntax.stella.Absyn.ATyping)
     {
@@ -3423,16 +3348,16 @@ public class PrettyPrinter
   }
 
 
-  private static void pp(Integer n, int _i_) { buf_.append(n); buf_.append(" "); }
-  private static void pp(Double d, int _i_) { buf_.append(String.format(java.util.Locale.ROOT, "%.15g ", d)); }
-  private static void pp(String s, int _i_) { buf_.append(s); buf_.append(" "); }
-  private static void pp(Character c, int _i_) { buf_.append("'" + escape(c.toString()) + "'"); buf_.append(" "); }
-  private static void sh(Integer n) { render(n.toString()); }
-  private static void sh(Double d) { render(String.format(java.util.Locale.ROOT, "%.15g", d)); }
-  private static void sh(Character c) { render("'" + escape(c.toString()) + "'"); }
-  private static void sh(String s) { printQuoted(s); }
+  private void pp(Integer n, int _i_) { buf_.append(n); buf_.append(" "); }
+  private void pp(Double d, int _i_) { buf_.append(String.format(java.util.Locale.ROOT, "%.15g ", d)); }
+  private void pp(String s, int _i_) { buf_.append(s); buf_.append(" "); }
+  private void pp(Character c, int _i_) { buf_.append("'" + escape(c.toString()) + "'"); buf_.append(" "); }
+  private void sh(Integer n) { render(n.toString()); }
+  private void sh(Double d) { render(String.format(java.util.Locale.ROOT, "%.15g", d)); }
+  private void sh(Character c) { render("'" + escape(c.toString()) + "'"); }
+  private void sh(String s) { printQuoted(s); }
 
-  private static void printQuoted(String s) { render("\"" + escape(s) + "\""); }
+  private void printQuoted(String s) { render("\"" + escape(s) + "\""); }
 
   public static String escape(String s) {
     if (s == null) return null;
@@ -3445,7 +3370,7 @@ public class PrettyPrinter
             .replace("\"", "\\\"");
   }
 
-  private static void indent()
+  private void indent()
   {
     int n = _n_;
     while (n > 0)
@@ -3455,14 +3380,14 @@ public class PrettyPrinter
     }
   }
 
-  private static void backup()
+  private void backup()
   {
     int prev = buf_.length() - 1;
     if (prev >= 0 && buf_.charAt(prev) == ' ')
       buf_.setLength(prev);
   }
 
-  private static void trim()
+  private void trim()
   {
     // Trim initial spaces
     int end = 0;
@@ -3474,7 +3399,7 @@ public class PrettyPrinter
     removeTrailingSpaces();
   }
 
-  private static void removeTrailingSpaces()
+  private void removeTrailingSpaces()
   {
     int end = buf_.length();
     while (end > 0 && buf_.charAt(end-1) == ' ')
@@ -3482,7 +3407,7 @@ public class PrettyPrinter
     buf_.setLength(end);
   }
 
-  private static void removeTrailingWhitespace()
+  private void removeTrailingWhitespace()
   {
     int end = buf_.length();
     while (end > 0 && (buf_.charAt(end-1) == ' ' || buf_.charAt(end-1) == '\n'))
@@ -3490,7 +3415,7 @@ public class PrettyPrinter
     buf_.setLength(end);
   }
 
-  private static void onEmptyLine()
+  private void onEmptyLine()
   {
     removeTrailingSpaces();
     int len = buf_.length();
@@ -3498,7 +3423,7 @@ public class PrettyPrinter
     indent();
   }
 
-  private static int _n_ = 0;
-  private static StringBuilder buf_ = new StringBuilder(INITIAL_BUFFER_SIZE);
+  private int _n_ = 0;
+  private final StringBuilder buf_ = new StringBuilder(INITIAL_BUFFER_SIZE);
 }
 
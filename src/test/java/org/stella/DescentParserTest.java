@@ -0,0 +1,68 @@
+package org.stella;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+
+import org.antlr.v4.runtime.*;
+import org.junit.jupiter.api.Test;
+
+import org.syntax.stella.*;
+import org.syntax.stella.Absyn.*;
+
+class DescentParserTest {
+    @Test
+    void agreesWithAntlrOnEveryTestProgram() throws Exception {
+        for (var file : BatchTypeCheck.discover(Path.of("tests"))) {
+            Program expected;
+            try {
+                expected = antlr(CharStreams.fromPath(file));
+            } catch (TestError e) {
+                assertThrows(TestError.class, () -> descent(CharStreams.fromPath(file)), file::toString);
+                continue;
+            }
+            assertEquals(expected, descent(CharStreams.fromPath(file)), file::toString);
+        }
+    }
+
+    @Test
+    void agreesWithAntlrOnOperatorsAndSuffixes() {
+        var source = """
+                language core;
+                extend with #natural-literals, #sequencing, #references;
+                fn main(n : Nat) -> Nat {
+                  return f(n)(1).1.x [Nat] as Nat + 2 - 3 or g < h; *r := 0; succ(n) cast as Nat;
+                }
+                fn g(p : {Nat, Nat}) -> (Nat) {
+                  return match p { {a, b} => a | (x, xs) => 0 | <| l = {x = 0} |> => 1 }
+                }
+                """;
+        assertEquals(antlr(CharStreams.fromString(source)), descent(CharStreams.fromString(source)));
+    }
+
+    @Test
+    void reportsTheFirstUnexpectedToken() {
+        var error = assertThrows(TestError.class,
+                () -> descent(CharStreams.fromString("language core;\nfn main(n : Nat) -> Nat {\n  return n +\n}")));
+        assertEquals(4, error.line);
+        assertEquals(0, error.column);
+    }
+
+    private static Program antlr(CharStream input) {
+        var lexer = new stellaLexer(input);
+        lexer.removeErrorListeners();
+        lexer.addErrorListener(new BNFCErrorListener());
+        var parser = new stellaParser(new CommonTokenStream(lexer));
+        parser.removeErrorListeners();
+        parser.addErrorListener(new BNFCErrorListener());
+        return ProgramParser.parse(parser, ProgramParser.Strategy.LL);
+    }
+
+    private static Program descent(CharStream input) {
+        var lexer = new stellaLexer(input);
+        lexer.removeErrorListeners();
+        lexer.addErrorListener(new BNFCErrorListener());
+        return DescentParser.parse(lexer);
+    }
+}
@@ -0,0 +1,51 @@
+package org.stella;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+
+class DfaCacheTest {
+
+    private static final Path PROGRAM = Path.of("tests/core/well-typed/factorial.stella");
+
+    @AfterEach
+    void removeLimit() {
+        DfaCache.setLimit(DfaCache.Limit.NONE);
+    }
+
+    @Test
+    void statsNameTheRuleOfEveryDecision() throws Exception {
+        assertTrue(StellaCompiler.typecheck(PROGRAM).isOk());
+        var stats = DfaCache.stats();
+        assertTrue(stats.states() > 0);
+        for (var decision : stats.decisions()) {
+            assertNotNull(decision.rule());
+        }
+    }
+
+    @Test
+    void parsingStillWorksAfterAReset() throws Exception {
+        assertTrue(StellaCompiler.typecheck(PROGRAM).isOk());
+        var resets = DfaCache.stats().resets();
+        DfaCache.reset();
+        var stats = DfaCache.stats();
+        assertEquals(0, stats.states());
+        assertEquals(0, stats.contexts());
+        assertEquals(resets + 1, stats.resets());
+        assertTrue(StellaCompiler.typecheck(PROGRAM).isOk());
+        assertTrue(DfaCache.stats().states() > 0);
+    }
+
+    @Test
+    void limitResetsAnOversizedCache() throws Exception {
+        assertTrue(StellaCompiler.typecheck(PROGRAM).isOk());
+        var resets = DfaCache.stats().resets();
+        DfaCache.setLimit(new DfaCache.Limit(1, 0));
+        for (var i = 0; i < 200; i++) {
+            StellaCompiler.typecheck(PROGRAM);
+        }
+        assertTrue(DfaCache.stats().resets() > resets);
+    }
+}
@@ -0,0 +1,69 @@
+package org.stella;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.io.TempDir;
+
+class GrammarProfilerTest {
+
+    @Test
+    void reportRanksDecisionsByRule() throws Exception {
+        var out = new ByteArrayOutputStream();
+        var err = new ByteArrayOutputStream();
+        var failures = GrammarProfiler.run(Path.of("tests/core"), new PrintStream(out, true), new PrintStream(err, true));
+        assertEquals(0, failures, err::toString);
+        var lines = out.toString().lines().toList();
+        assertTrue(lines.get(0).startsWith("profiled "), lines.get(0));
+        assertTrue(lines.get(1).trim().startsWith("rank"), lines.get(1));
+        assertTrue(lines.size() > 2);
+        assertTrue(lines.stream().skip(2).anyMatch(line -> line.contains(" expr")), out::toString);
+    }
+
+    @Test
+    void reportGivesTheFiguresOfEachDecision(@TempDir Path root) throws Exception {
+        // 20 patterns: inl 0; inl succ n; inr {a, (x, xs)}; inr {a, []}; inr {a, [y]}.
+        Files.writeString(root.resolve("patterns.stella"), """
+                language core;
+                extend with #structural-patterns, #sum-types, #tuples, #lists, #natural-literals;
+
+                fn f(input : Nat + {Nat, [Nat]}) -> Nat {
+                  return match input {
+                      inl(0) => 0
+                    | inl(succ(n)) => n
+                    | inr({a, (x, xs)}) => x
+                    | inr({a, []}) => a
+                    | inr({a, [y]}) => y
+                  }
+                }
+
+                fn main(n : Nat) -> Nat { return f(inl(n)) }
+                """);
+        var out = new ByteArrayOutputStream();
+        assertEquals(0, GrammarProfiler.run(root, new PrintStream(out, true), System.err));
+        var rows = out.toString().lines().skip(2).map(line -> List.of(line.trim().split("\\s+"))).toList();
+
+        // rank, decision, rule, invocations, time(ms), SLL look, LL fallbacks, LL look, ambiguities, context-sensitive, errors
+        for (var i = 0; i < rows.size(); i++) {
+            assertEquals(String.valueOf(i + 1), rows.get(i).get(0));
+            if (i > 0) {
+                assertTrue(Double.parseDouble(rows.get(i - 1).get(4)) >= Double.parseDouble(rows.get(i).get(4)),
+                        out::toString);
+            }
+        }
+        var pattern = rows.stream().filter(row -> row.get(2).equals("pattern")).findFirst().orElseThrow();
+        assertEquals("20", pattern.get(3));
+        var sllLook = pattern.get(5).split("/");
+        assertTrue(Long.parseLong(sllLook[0]) >= 20, pattern::toString);
+        assertTrue(Long.parseLong(sllLook[1]) >= 1, pattern::toString);
+        // The grammar is SLL on this input: no fallback to full LL, hence no LL lookahead, and no ambiguity.
+        assertEquals(List.of("0", "0/0", "0", "0", "0"), pattern.subList(6, 11));
+    }
+}
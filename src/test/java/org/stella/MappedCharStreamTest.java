@@ -0,0 +1,62 @@
+package org.stella;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.antlr.v4.runtime.*;
+import org.syntax.stella.stellaLexer;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+
+class MappedCharStreamTest {
+
+    private static List<String> tokens(CharStream input) {
+        var lexer = new stellaLexer(input);
+        var tokens = new ArrayList<String>();
+        for (var token = lexer.nextToken(); token.getType() != Token.EOF; token = lexer.nextToken()) {
+            tokens.add(token.getType() + ":" + token.getText() + "@" + token.getLine() + ":" + token.getCharPositionInLine());
+        }
+        return tokens;
+    }
+
+    @Test
+    void corpusLexesLikeDecodedStreams() throws Exception {
+        for (var file : BatchTypeCheck.discover(Path.of("tests"))) {
+            var mapped = MappedCharStream.open(file);
+            assertInstanceOf(MappedCharStream.class, mapped, file::toString);
+            assertEquals(tokens(CharStreams.fromPath(file)), tokens(mapped), file::toString);
+        }
+    }
+
+    @Test
+    void nonAsciiUtf8FallsBackToDecoding(@TempDir Path dir) throws Exception {
+        var file = dir.resolve("unicode.stella");
+        Files.writeString(file, "language core;\n\n// \u03bb\nfn main(n : Nat) -> Nat {\n  return n\n}\n", StandardCharsets.UTF_8);
+        var input = MappedCharStream.open(file);
+        assertFalse(input instanceof MappedCharStream);
+        assertEquals(tokens(CharStreams.fromPath(file)), tokens(input));
+    }
+
+    @Test
+    void latin1IsMappedByteForByte(@TempDir Path dir) throws Exception {
+        var file = dir.resolve("latin1.stella");
+        var source = "language core;\n\n// caf\u00e9\nfn main(n : Nat) -> Nat {\n  return n\n}\n";
+        Files.writeString(file, source, StandardCharsets.ISO_8859_1);
+        var input = MappedCharStream.open(file, StandardCharsets.ISO_8859_1);
+        assertInstanceOf(MappedCharStream.class, input);
+        assertEquals(source, input.toString());
+        assertEquals(tokens(CharStreams.fromString(source)), tokens(input));
+    }
+
+    @Test
+    void emptyFileIsAtEof(@TempDir Path dir) throws Exception {
+        var input = MappedCharStream.open(Files.createFile(dir.resolve("empty.stella")));
+        assertEquals(0, input.size());
+        assertEquals(IntStream.EOF, input.LA(1));
+    }
+}
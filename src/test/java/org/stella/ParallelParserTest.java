@@ -0,0 +1,105 @@
+package org.stella;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.antlr.v4.runtime.*;
+import org.junit.jupiter.api.*;
+
+import org.stella.gen.ProgramGenerator;
+import org.syntax.stella.stellaLexer;
+import org.syntax.stella.Absyn.Program;
+
+class ParallelParserTest {
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    void agreesWithSequentialParseOnEveryTestProgram() throws Exception {
+        for (var file : BatchTypeCheck.discover(Path.of("tests"))) {
+            Program expected;
+            try {
+                expected = ParserPool.parse(CharStreams.fromPath(file));
+            } catch (TestError e) {
+                continue;
+            }
+            // One chunk per declaration, so every boundary the pre-scan finds is exercised.
+            assertEquals(expected, ParallelParser.parse(tokens(Files.readString(file)), pool, 1),
+                    file::toString);
+        }
+    }
+
+    @Test
+    void agreesWithSequentialParseOnGeneratedPrograms() {
+        var source = new ProgramGenerator(7, ProgramGenerator.Options.ofSize(50)).generate().source();
+        var expected = ParserPool.parse(CharStreams.fromString(source));
+        assertEquals(expected, ParallelParser.parse(tokens(source), pool, 64));
+        assertEquals(expected, ParallelParser.parse(CharStreams.fromString(source), pool));
+    }
+
+    @Test
+    void splitsOnlyAtTopLevelDeclarations() {
+        var source = """
+                language core;
+                extend with #type-aliases, #exceptions, #exception-type-declaration;
+                type F = fn(Nat) -> {a : Nat}
+                fn f(g : fn(Nat) -> Nat) -> fn(Nat) -> Nat {
+                  fn h(n : Nat) -> Nat { return n }
+                  return fn(n : Nat) { return g(n) }
+                }
+                inline fn main(n : Nat) -> Nat { return n }
+                exception type = Nat
+                """;
+        var tokens = tokens(source);
+        var fn = new int[3];
+        var found = 0;
+        for (var i = 0; i < tokens.size(); i++) {
+            var type = tokens.get(i).getType();
+            if (type == stellaLexer.Surrogate_id_SYMB_51 && tokens.get(i - 1).getType() == stellaLexer.Surrogate_id_SYMB_5
+                    || type == stellaLexer.Surrogate_id_SYMB_58 || type == stellaLexer.Surrogate_id_SYMB_47) {
+                fn[found++] = i;
+            }
+        }
+        assertArrayEquals(new int[] {0, fn[0], fn[1], fn[2]}, ParallelParser.split(tokens, 1));
+        assertEquals(ParserPool.parse(CharStreams.fromString(source)), ParallelParser.parse(tokens, pool, 1));
+    }
+
+    @Test
+    void reportsTheSameSyntaxErrorAsASequentialParse() {
+        var source = new StringBuilder("language core;\n");
+        for (var i = 0; i < 32; i++) {
+            source.append("fn f").append(i).append("(n : Nat) -> Nat {\n  return n\n}\n");
+        }
+        source.append("fn broken(n : Nat) -> Nat {\n  return n +\n}\n");
+        for (var i = 0; i < 32; i++) {
+            source.append("fn g").append(i).append("(n : Nat) -> Nat {\n  return n\n}\n");
+        }
+        var expected = assertThrows(TestError.class, () -> ParserPool.parse(CharStreams.fromString(source.toString())));
+        var actual = assertThrows(TestError.class, () -> ParallelParser.parse(tokens(source.toString()), pool, 1));
+        assertEquals(expected.getMessage(), actual.getMessage());
+        assertEquals(expected.line, actual.line);
+        assertEquals(expected.column, actual.column);
+    }
+
+    private static List<Token> tokens(String source) {
+        var stream = new CommonTokenStream(new stellaLexer(CharStreams.fromString(source)));
+        stream.fill();
+        var tokens = stream.getTokens();
+        return tokens.subList(0, tokens.size() - 1);
+    }
+}
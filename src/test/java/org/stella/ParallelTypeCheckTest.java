@@ -0,0 +1,93 @@
+package org.stella;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.stella.gen.ProgramGenerator;
+import org.stella.typecheck.StellaTypeError;
+import org.stella.typecheck.TypeCheck;
+import org.syntax.stella.Absyn.Program;
+
+class ParallelTypeCheckTest {
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+
+    private static String outcome(Program program, ForkJoinPool pool) {
+        try {
+            if (pool == null) {
+                TypeCheck.typecheckProgram(program);
+            } else {
+                TypeCheck.typecheckProgram(program, pool);
+            }
+            return "OK";
+        } catch (StellaTypeError e) {
+            return e.code().name();
+        } catch (Exception e) {
+            return e.getClass().getName();
+        }
+    }
+
+    @Test
+    void parallelModeAgreesWithSequentialModeOnTheCorpus() throws Exception {
+        for (var file : BatchTypeCheck.discover(Path.of("tests"))) {
+            Program program;
+            try {
+                program = StellaCompiler.parse(CharStreams.fromPath(file));
+            } catch (TestError e) {
+                continue;
+            }
+            assertEquals(outcome(program, null), outcome(program, pool), file.toString());
+        }
+    }
+
+    @Test
+    void compilerParallelCheckAgreesWithSequentialCheckOnTheCorpus() throws Exception {
+        // What -Dstella.check=parallel makes StellaCompiler.typecheck do, with this test's pool.
+        for (var file : BatchTypeCheck.discover(Path.of("tests"))) {
+            var sequential = StellaCompiler.typecheckWhole(CharStreams.fromPath(file), null);
+            var parallel = StellaCompiler.typecheckWhole(CharStreams.fromPath(file), pool);
+            assertEquals(sequential.status(), parallel.status(), file.toString());
+            assertEquals(sequential.error(), parallel.error(), file.toString());
+        }
+    }
+
+    @Test
+    void firstErrorInSourceOrderWins() {
+        var source = new StringBuilder("language core;\n\n");
+        for (var i = 0; i < 64; i++) {
+            source.append("fn ok").append(i).append("(n : Nat) -> Nat {\n  return succ(n)\n}\n\n");
+        }
+        source.append("fn first(n : Nat) -> Nat {\n  return undefined\n}\n\n");
+        for (var i = 0; i < 64; i++) {
+            source.append("fn bad").append(i).append("(n : Nat) -> Nat {\n  return n(n)\n}\n\n");
+        }
+        source.append("fn main(n : Nat) -> Nat {\n  return n\n}\n");
+        var program = StellaCompiler.parse(CharStreams.fromString(source.toString()));
+        for (var attempt = 0; attempt < 20; attempt++) {
+            assertEquals("ERROR_UNDEFINED_VARIABLE", outcome(program, pool));
+        }
+    }
+
+    @Test
+    void largeGeneratedProgramsCheckInParallel() {
+        var generator = new ProgramGenerator(7, ProgramGenerator.Options.ofSize(200));
+        var program = generator.generate().program();
+        assertEquals("OK", outcome(program, pool));
+        var illTyped = generator.generate(org.stella.typecheck.ErrorCode.ERROR_NOT_A_RECORD).program();
+        assertEquals("ERROR_NOT_A_RECORD", outcome(illTyped, pool));
+    }
+}
@@ -0,0 +1,115 @@
+package org.stella;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.junit.jupiter.api.Test;
+
+import org.stella.typecheck.TypeCheck;
+import org.syntax.stella.Absyn.*;
+
+class PatternMatrixTest {
+    private static final String HEADER = """
+            language core;
+            extend with #structural-patterns, #sum-types, #records, #variants, #tuples, #lists,
+              #natural-literals, #unit-type, #pairs, #type-ascriptions;
+            """;
+
+    private static String match(String type, String arms) {
+        return HEADER + "fn f(input : " + type + ") -> Nat {\n  return match input {\n    " + arms + "\n  }\n}\n"
+                + "fn main(n : Nat) -> Nat { return n }\n";
+    }
+
+    private static String error(String type, String arms) {
+        return StellaCompiler.typecheck(match(type, arms)).error();
+    }
+
+    /**
+     * The positions of the redundant arms of the one match in {@code f}.
+     */
+    private static List<Integer> redundant(String type, String arms) throws Exception {
+        var program = (AProgram) ParserPool.parse(CharStreams.fromString(match(type, arms)));
+        var found = new ArrayList<MatchCase>();
+        TypeCheck.typecheckProgram(program, found);
+        var cases = ((Match) ((DeclFun) program.listdecl_.get(0)).expr_).listmatchcase_;
+        var positions = new ArrayList<Integer>();
+        for (var arm : found) {
+            positions.add(cases.indexOf(arm));
+        }
+        return positions;
+    }
+
+    @Test
+    void nestedSums() {
+        var type = "Nat + (Bool + (fn (Nat) -> Nat))";
+        assertNull(error(type, "inl(0) => 0 | inl(succ(n)) => n | inr(inl(true)) => 0 | inr(inl(false)) => 0 | inr(inr(g)) => 0"));
+        assertEquals("ERROR_NONEXHAUSTIVE_MATCH_PATTERNS",
+                error(type, "inl(0) => 0 | inl(succ(0)) => 0 | inr(inl(true)) => 0 | inr(inl(false)) => 0 | inr(inr(g)) => 0"));
+        assertNull(error(type, "inr(inl(b)) => 0 | x => 0"));
+    }
+
+    @Test
+    void naturals() {
+        assertNull(error("Nat", "0 => 0 | 1 => 0 | succ(succ(n)) => n"));
+        assertNull(error("Nat", "2 => 0 | succ(n) => n | 0 => 0"));
+        assertEquals("ERROR_NONEXHAUSTIVE_MATCH_PATTERNS", error("Nat", "0 => 0 | succ(succ(n)) => n"));
+        assertEquals("ERROR_NONEXHAUSTIVE_MATCH_PATTERNS", error("Nat", "0 => 0 | 1 => 0 | 2 => 0"));
+    }
+
+    @Test
+    void lists() {
+        assertNull(error("[Nat]", "[] => 0 | [x] => 0 | (x, (y, rest)) => 0"));
+        assertNull(error("[Nat]", "[] => 0 | (0, xs) => 0 | (succ(n), xs) => 0"));
+        assertEquals("ERROR_NONEXHAUSTIVE_MATCH_PATTERNS", error("[Nat]", "[] => 0 | [x] => 0 | [x, y, z] => 0"));
+        assertEquals("ERROR_NONEXHAUSTIVE_MATCH_PATTERNS", error("[Nat]", "[] => 0 | [0] => 0 | (x, (y, r)) => 0"));
+    }
+
+    @Test
+    void tuplesAndRecords() {
+        assertNull(error("{Bool, Bool}", "{true, x} => 0 | {false, true} => 0 | {false, false} => 0"));
+        assertEquals("ERROR_NONEXHAUSTIVE_MATCH_PATTERNS", error("{Bool, Bool}", "{true, x} => 0 | {false, true} => 0"));
+        assertNull(error("{a : Nat, b : Bool}", "{b = true, a = n} => n | {a = 0, b = false} => 0 | {a = succ(n), b = false} => n"));
+        assertEquals("ERROR_NONEXHAUSTIVE_MATCH_PATTERNS",
+                error("{current : Nat, next : Nat}", "{current = 0, next = 0} => 0 | {current = 0, next = succ(0)} => 0"));
+    }
+
+    @Test
+    void variants() {
+        var type = "<| value : Nat, failure : Unit, none |>";
+        assertNull(error(type, "<| value = succ(n) |> => n | <| value = 0 |> => 0 | <| failure = unit |> => 0 | <| none |> => 0"));
+        assertNull(error(type, "<| value = n |> => n | other => 0"));
+        assertEquals("ERROR_NONEXHAUSTIVE_MATCH_PATTERNS", error(type, "<| value = n |> => n | <| none |> => 0"));
+    }
+
+    @Test
+    void rejectsPatternsThatDoNotFitTheType() {
+        var source = HEADER + """
+                fn main(n : Nat) -> Nat {
+                  return match <| a = n |> as <| a : Nat, b : Nat |> { <| a = x |> => x | <| b = y |> => y | 0 => n }
+                }
+                """;
+        assertEquals("ERROR_UNEXPECTED_PATTERN_FOR_TYPE", StellaCompiler.typecheck(source).error());
+        source = HEADER + """
+                fn main(n : Nat) -> Nat {
+                  return match <| a = n |> as <| a : Nat |> { true => n }
+                }
+                """;
+        assertEquals("ERROR_UNEXPECTED_PATTERN_FOR_TYPE", StellaCompiler.typecheck(source).error());
+        assertEquals("ERROR_UNEXPECTED_PATTERN_FOR_TYPE", error("Unit", "[] => 0 | unit => 0"));
+        assertEquals("ERROR_UNEXPECTED_PATTERN_FOR_TYPE", error("{Nat, Nat}", "{x, y, z} => 0"));
+        assertEquals("ERROR_UNEXPECTED_PATTERN_FOR_TYPE", error("{a : Nat}", "{b = x} => 0"));
+    }
+
+    @Test
+    void reportsRedundantArms() throws Exception {
+        assertEquals(List.of(1), redundant("Nat + Bool", "inl(n) => n | inl(succ(0)) => 0 | inr(b) => 0"));
+        assertEquals(List.of(2, 3), redundant("Nat", "0 => 0 | n => n | 1 => 0 | succ(m) => m"));
+        assertEquals(List.of(3), redundant("{Bool, Bool}", "{true, x} => 0 | {x, true} => 0 | {false, false} => 0 | {false, true} => 0"));
+        assertEquals(List.of(), redundant("[Nat]", "[] => 0 | [x] => 0 | (x, xs) => 0"));
+        assertEquals(List.of(2), redundant("[Nat]", "[] => 0 | (x, xs) => 0 | [x] => 0"));
+    }
+}
@@ -0,0 +1,121 @@
+package org.stella;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.stella.typecheck.*;
+import org.syntax.stella.stellaLexer;
+import org.syntax.stella.stellaParser;
+import org.syntax.stella.Absyn.Program;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.*;
+
+class StellaCompilerTest {
+
+    @Test
+    void wellTypedProgramIsOk() throws Exception {
+        var result = StellaCompiler.typecheck(Path.of("tests/core/well-typed/factorial.stella"));
+        assertTrue(result.isOk(), () -> "unexpected error: " + result.error());
+    }
+
+    @Test
+    void illTypedProgramReportsErrorCode() throws Exception {
+        var result = StellaCompiler.typecheck(Path.of("tests/core/ill-typed/undefined-variable/undefined-variable-1.stella"));
+        assertEquals(CompileResult.Status.TYPE_ERROR, result.status());
+        assertEquals("ERROR_UNDEFINED_VARIABLE", result.error());
+    }
+
+    @Test
+    void typeErrorsAreStacklessAndCarryTheirCode() {
+        var program = StellaCompiler.parse(CharStreams.fromString("language core;\n\nfn main(n : Nat) -> Bool {\n  return succ(n)\n}\n"));
+        var error = assertThrows(TypeMismatchError.class, () -> TypeCheck.typecheckProgram(program));
+        assertEquals(ErrorCode.ERROR_UNEXPECTED_TYPE_FOR_EXPRESSION, error.code());
+        assertEquals(0, error.getStackTrace().length);
+        assertTrue(error.getMessage().startsWith("ERROR_UNEXPECTED_TYPE_FOR_EXPRESSION: expected Bool"), error.getMessage());
+    }
+
+    @Test
+    void syntaxErrorReportsPosition() {
+        var result = StellaCompiler.typecheck("language core;\n\nfn main(n : Nat) -> Nat {\n  return )\n}\n");
+        assertEquals(CompileResult.Status.SYNTAX_ERROR, result.status());
+        assertEquals(4, result.line());
+    }
+
+    @Test
+    void syntaxErrorsFallBackToFullLlParsing() {
+        var before = ProgramParser.stats();
+        var result = StellaCompiler.typecheck("language core;\n\nfn main(n : Nat) -> Nat {\n  return )\n}\n");
+        var after = ProgramParser.stats();
+        assertEquals(CompileResult.Status.SYNTAX_ERROR, result.status());
+        assertTrue(after.fallbacks() > before.fallbacks());
+    }
+
+    @Test
+    void sllAndLlParsesAgree() throws Exception {
+        for (var file : BatchTypeCheck.discover(Path.of("tests"))) {
+            Program ll;
+            try {
+                ll = parse(file, ProgramParser.Strategy.LL);
+            } catch (TestError e) {
+                continue;
+            }
+            assertEquals(ll, parse(file, ProgramParser.Strategy.SLL_THEN_LL), file::toString);
+        }
+    }
+
+    private static Program parse(Path file, ProgramParser.Strategy strategy) throws Exception {
+        var lexer = new stellaLexer(CharStreams.fromPath(file));
+        lexer.removeErrorListeners();
+        lexer.addErrorListener(new BNFCErrorListener());
+        var parser = new stellaParser(new CommonTokenStream(lexer));
+        parser.removeErrorListeners();
+        parser.addErrorListener(new BNFCErrorListener());
+        return ProgramParser.parse(parser, strategy);
+    }
+
+    @Test
+    void pooledParsersAreReusedAcrossErrors() throws Exception {
+        var file = Path.of("tests/core/well-typed/factorial.stella");
+        var expected = parse(file, ProgramParser.Strategy.LL);
+        var before = ParserPool.stats();
+        assertEquals(expected, StellaCompiler.parse(CharStreams.fromPath(file)));
+        assertThrows(TestError.class, () -> StellaCompiler.parse(CharStreams.fromString("language core;\nfn main(")));
+        assertEquals(expected, StellaCompiler.parse(CharStreams.fromPath(file)));
+        var after = ParserPool.stats();
+        assertEquals(3, after.parses() - before.parses());
+        assertTrue(after.reuses() - before.reuses() >= 2);
+    }
+
+    @Test
+    void concurrentCallsAgreeWithSequentialOnes() throws Exception {
+        var files = List.of(
+                "tests/core/well-typed/factorial.stella",
+                "tests/records/well-typed/records-1.stella",
+                "tests/variants/well-typed/variants-1.stella",
+                "tests/pairs/ill-typed/bad-pairs-1.stella",
+                "tests/sum-types/ill-typed/bad-sum-types-1.stella",
+                "tests/exceptions/ill-typed/ambiguous-throw-type-1.stella");
+        var pool = Executors.newFixedThreadPool(4);
+        try {
+            for (var file : files) {
+                var expected = StellaCompiler.typecheck(Path.of(file));
+                var futures = new java.util.ArrayList<Future<CompileResult>>();
+                for (var i = 0; i < 16; i++) {
+                    futures.add(pool.submit(() -> StellaCompiler.typecheck(Path.of(file))));
+                }
+                for (var future : futures) {
+                    var actual = future.get();
+                    assertEquals(expected.status(), actual.status(), file);
+                    assertEquals(expected.error(), actual.error(), file);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
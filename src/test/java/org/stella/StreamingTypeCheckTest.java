@@ -0,0 +1,118 @@
+package org.stella;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.nio.file.Path;
+
+import org.antlr.v4.runtime.*;
+import org.junit.jupiter.api.Test;
+
+import org.stella.gen.ProgramGenerator;
+import org.stella.typecheck.ErrorCode;
+import org.stella.typecheck.StellaTypeError;
+import org.stella.typecheck.TypeCheck;
+import org.syntax.stella.Absyn.Program;
+
+class StreamingTypeCheckTest {
+    private static String whole(CharStream input) {
+        Program program;
+        try {
+            program = ParserPool.parse(input);
+        } catch (TestError e) {
+            return "SYNTAX_ERROR";
+        }
+        try {
+            TypeCheck.typecheckProgram(program);
+            return "OK";
+        } catch (StellaTypeError e) {
+            return e.code().name();
+        } catch (Exception e) {
+            return e.getClass().getName();
+        }
+    }
+
+    private static String streaming(CharStream input) {
+        try {
+            return TypeCheck.typecheckDecls(new DeclStream(input)) ? "OK" : "REDEFINED";
+        } catch (TestError e) {
+            return "SYNTAX_ERROR";
+        } catch (StellaTypeError e) {
+            return e.code().name();
+        } catch (Exception e) {
+            return e.getClass().getName();
+        }
+    }
+
+    @Test
+    void agreesWithWholeProgramCheckOnEveryTestProgram() throws Exception {
+        for (var file : BatchTypeCheck.discover(Path.of("tests"))) {
+            var streaming = streaming(CharStreams.fromPath(file));
+            if (!streaming.equals("REDEFINED")) {
+                assertEquals(whole(CharStreams.fromPath(file)), streaming, file::toString);
+            }
+        }
+    }
+
+    @Test
+    void agreesWithWholeProgramCheckOnGeneratedPrograms() {
+        for (var error : new ErrorCode[] {null, ErrorCode.ERROR_UNDEFINED_VARIABLE, ErrorCode.ERROR_NOT_A_RECORD,
+                ErrorCode.ERROR_UNEXPECTED_VARIANT_LABEL}) {
+            for (var seed = 0; seed < 3; seed++) {
+                var generator = new ProgramGenerator(seed, ProgramGenerator.Options.ofSize(20));
+                var source = (error == null ? generator.generate() : generator.generate(error)).source();
+                assertEquals(whole(CharStreams.fromString(source)), streaming(CharStreams.fromString(source)), source);
+            }
+        }
+    }
+
+    @Test
+    void forwardReferencesAreCheckedOnceTheirSignaturesAreKnown() {
+        var source = """
+                language core;
+                fn main(n : Nat) -> Nat { return double(n) }
+                fn twice(n : Nat) -> Bool { return double(double(n)) }
+                fn double(n : Nat) -> Nat { return succ(n) }
+                """;
+        // twice fails only once double is known; main, deferred along with it, comes first and is fine.
+        assertEquals("ERROR_UNEXPECTED_TYPE_FOR_EXPRESSION", streaming(CharStreams.fromString(source)));
+        assertEquals(whole(CharStreams.fromString(source)), streaming(CharStreams.fromString(source)));
+    }
+
+    @Test
+    void firstErrorInSourceOrderWins() {
+        var source = """
+                language core;
+                fn first(n : Nat) -> Nat { return later(n) }
+                fn second(n : Nat) -> Nat { return n(n) }
+                fn later(n : Nat) -> Bool { return false }
+                fn main(n : Nat) -> Nat { return n }
+                """;
+        // first is deferred on later, so second fails first but first's error is earlier in source order.
+        assertEquals("ERROR_UNEXPECTED_TYPE_FOR_EXPRESSION", streaming(CharStreams.fromString(source)));
+        assertEquals(whole(CharStreams.fromString(source)), streaming(CharStreams.fromString(source)));
+    }
+
+    @Test
+    void missingMainIsReportedBeforeBodyErrors() {
+        var source = """
+                language core;
+                fn f(n : Nat) -> Nat { return true }
+                fn g(n : Nat) -> Nat { return n }
+                """;
+        assertEquals("ERROR_MISSING_MAIN", streaming(CharStreams.fromString(source)));
+    }
+
+    @Test
+    void redefinedGlobalsNeedAWholeProgramCheck() throws Exception {
+        var source = """
+                language core;
+                fn f(n : Nat) -> Nat { return n }
+                fn main(n : Nat) -> Nat { return f(n) }
+                fn f(n : Nat) -> Bool { return true }
+                """;
+        assertFalse(TypeCheck.typecheckDecls(new DeclStream(CharStreams.fromString(source))));
+        var result = StellaCompiler.typecheck(source);
+        assertEquals(whole(CharStreams.fromString(source)), result.isOk() ? "OK" : result.error());
+    }
+}
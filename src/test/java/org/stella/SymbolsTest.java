@@ -0,0 +1,37 @@
+package org.stella;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.antlr.v4.runtime.*;
+import org.junit.jupiter.api.Test;
+
+import org.syntax.stella.Absyn.*;
+
+class SymbolsTest {
+    @Test
+    void internsEqualTextsToOneInstance() {
+        var symbols = new Symbols();
+        for (var i = 0; i < 1000; i++) {
+            symbols.intern("x" + i);
+        }
+        var first = symbols.intern(new String("x42"));
+        assertSame(first, symbols.intern(new String("x42")));
+        assertEquals(1000, symbols.size());
+    }
+
+    @Test
+    void parsedProgramsShareIdentifierText() {
+        var program = (AProgram) ParserPool.parse(CharStreams.fromString("""
+                language core;
+                extend with #records;
+                fn main(n : {a : Nat}) -> Nat { return n.a }
+                """));
+        var main = (DeclFun) program.listdecl_.get(0);
+        var param = (AParamDecl) main.listparamdecl_.get(0);
+        var field = (ARecordFieldType) ((TypeRecord) param.type_).listrecordfieldtype_.get(0);
+        var body = (DotRecord) main.expr_;
+        assertSame(param.stellaident_, ((Var) body.expr_).stellaident_);
+        assertSame(field.stellaident_, body.stellaident_);
+    }
+}
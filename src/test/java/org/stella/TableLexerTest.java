@@ -0,0 +1,85 @@
+package org.stella;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.antlr.v4.runtime.*;
+import org.junit.jupiter.api.Test;
+
+import org.stella.gen.ProgramGenerator;
+import org.syntax.stella.stellaLexer;
+
+class TableLexerTest {
+    @Test
+    void agreesWithAntlrOnEveryTestProgram() throws Exception {
+        for (var file : BatchTypeCheck.discover(Path.of("tests"))) {
+            assertEquals(antlr(CharStreams.fromPath(file)), table(CharStreams.fromPath(file)), file::toString);
+            assertEquals(antlr(CharStreams.fromPath(file)), table(MappedCharStream.open(file)), file::toString);
+        }
+    }
+
+    @Test
+    void agreesWithAntlrOnGeneratedPrograms() {
+        var source = new ProgramGenerator(7, ProgramGenerator.Options.ofSize(50)).generate().source();
+        assertEquals(antlr(CharStreams.fromString(source)), table(CharStreams.fromString(source)));
+    }
+
+    @Test
+    void agreesWithAntlrOnLongestMatchCornerCases() {
+        var sources = List.of(
+                "x-1 a:Nat f! List::head List::heads panic! panic!! Nat::rec in inline _ _1",
+                "<0x1F> <0x> <0xG> <0x12 <| <= < |> == => = != ! -> - := :",
+                "a // line\nb // crlf\r\nc // cr only\rd // at end",
+                "a /* block */ b /*/ still */ c /* unterminated",
+                "#ext-name #- # #1 \u00b5X.X \u00e9t\u00e9 \u00d7 \u00ff\u00c0 \u20ac \ud83d\ude00 12ab 007",
+                "fn\tmain(n : Nat)\f{ return n }\n\n  ");
+        for (var source : sources) {
+            assertEquals(antlr(CharStreams.fromString(source)), table(CharStreams.fromString(source)), source);
+        }
+    }
+
+    @Test
+    void sharesTheTextOfRepeatedIdentifiers() {
+        var tokens = TableLexer.lex(CharStreams.fromString("foo bar foo #ext #ext fn"));
+        assertEquals(7, tokens.size());
+        assertSame(tokens.text(0), tokens.text(2));
+        assertSame(tokens.text(3), tokens.text(4));
+        assertEquals(stellaLexer.Surrogate_id_SYMB_51, tokens.type(5));
+        assertEquals(Token.EOF, tokens.type(6));
+    }
+
+    @Test
+    void internsIdentifiersInTheGivenSymbols() {
+        var symbols = new Symbols();
+        var foo = symbols.intern(new String("foo"));
+        var tokens = TableLexer.lex(CharStreams.fromString("foo bar #ext fn"), symbols);
+        assertSame(foo, tokens.text(0));
+        assertSame(symbols.intern(new String("bar")), tokens.text(1));
+        assertSame(symbols.intern(new String("#ext")), tokens.text(2));
+        assertEquals(3, symbols.size());
+    }
+
+    private static List<String> antlr(CharStream input) {
+        return describe(new stellaLexer(input));
+    }
+
+    private static List<String> table(CharStream input) {
+        return describe(TableLexer.lex(input).source());
+    }
+
+    private static List<String> describe(TokenSource source) {
+        var tokens = new ArrayList<String>();
+        Token token;
+        do {
+            token = source.nextToken();
+            tokens.add(token.getType() + " " + token.getChannel() + " " + token.getStartIndex() + ":"
+                    + token.getStopIndex() + " " + token.getLine() + ":" + token.getCharPositionInLine()
+                    + " '" + token.getText() + "'");
+        } while (token.getType() != Token.EOF);
+        return tokens;
+    }
+}
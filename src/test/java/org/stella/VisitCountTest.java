@@ -0,0 +1,74 @@
+package org.stella;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.junit.jupiter.api.Test;
+
+import org.stella.gen.Towers;
+import org.stella.typecheck.TypeCheck;
+import org.syntax.stella.PrettyPrinter;
+import org.syntax.stella.Absyn.Program;
+
+class VisitCountTest {
+    @Test
+    void everyTestProgramVisitsEachExpressionOnce() throws Exception {
+        for (var file : BatchTypeCheck.discover(Path.of("tests"))) {
+            Program program;
+            try {
+                program = ParserPool.parse(CharStreams.fromPath(file));
+            } catch (TestError e) {
+                continue;
+            }
+            try {
+                TypeCheck.typecheckProgramCountingVisits(program);
+            } catch (IllegalStateException e) {
+                throw new AssertionError(file + ": " + e.getMessage(), e);
+            } catch (RuntimeException e) {
+                // a type error, or a program the checker cannot handle; either way it stopped early
+            }
+        }
+    }
+
+    @Test
+    void fixTowerVisitsEachExpressionOnce() throws Exception {
+        // Each level is a fix and an abstraction; the innermost abstraction returns a variable; main returns n.
+        assertEquals(2 * 2000 + 2 + 1, countVisits(Towers.fix(2000)));
+    }
+
+    @Test
+    void headTowerVisitsEachExpressionOnce() throws Exception {
+        // One List::head per level around a variable, and main's n.
+        assertEquals(2000 + 1 + 1, countVisits(Towers.head(2000)));
+    }
+
+    @Test
+    void towersAreWellTypedStella() {
+        for (var tower : List.of(Towers.fix(3), Towers.head(3))) {
+            var result = StellaCompiler.typecheck(PrettyPrinter.print(tower));
+            assertTrue(result.isOk(), result::error);
+        }
+    }
+
+    // Checking recurses once per level of nesting.
+    private static int countVisits(Program program) throws Exception {
+        var result = new Object[1];
+        var thread = new Thread(null, () -> {
+            try {
+                result[0] = TypeCheck.typecheckProgramCountingVisits(program);
+            } catch (Exception e) {
+                result[0] = e;
+            }
+        }, "tower", 256L << 20);
+        thread.start();
+        thread.join();
+        if (result[0] instanceof Exception e) {
+            throw e;
+        }
+        return (Integer) result[0];
+    }
+}
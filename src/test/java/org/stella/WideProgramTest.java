@@ -0,0 +1,88 @@
+package org.stella;
+
+import java.util.List;
+
+import org.junit.jupiter.api.*;
+
+import org.stella.gen.WidePrograms;
+import org.stella.typecheck.TypeCheck;
+import org.syntax.stella.PrettyPrinter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WideProgramTest {
+
+    // The generated parser recurses once per element of a right-recursive list rule.
+    private static CompileResult typecheckWithLargeStack(String source) throws InterruptedException {
+        var result = new CompileResult[1];
+        var thread = new Thread(null, () -> result[0] = StellaCompiler.typecheck(source), "wide-program", 256L << 20);
+        thread.start();
+        thread.join();
+        return result[0];
+    }
+
+    // Built as syntax trees: parsing them takes far longer than checking them. WideBenchmark times larger ones.
+    @Test
+    void wideRecordTypechecks() throws Exception {
+        TypeCheck.typecheckProgram(WidePrograms.record(2000));
+    }
+
+    @Test
+    void wideApplicationTypechecks() throws Exception {
+        TypeCheck.typecheckProgram(WidePrograms.application(500));
+    }
+
+    @Test
+    void wideProgramsAreWellTypedStella() {
+        for (var program : List.of(WidePrograms.record(3), WidePrograms.application(3))) {
+            var result = StellaCompiler.typecheck(PrettyPrinter.print(program));
+            assertTrue(result.isOk(), result::error);
+        }
+    }
+
+    private static String variantType(int width) {
+        var labels = new StringBuilder();
+        for (var i = 0; i < width; i++) {
+            labels.append(i > 0 ? ", " : "").append("l").append(i).append(" : Nat");
+        }
+        return "<|" + labels + "|>";
+    }
+
+    private static String matchSource(int width, int cases) {
+        var arms = new StringBuilder();
+        for (var i = 0; i < cases; i++) {
+            arms.append(i > 0 ? "\n    | " : "").append("<|l").append(i).append(" = x|> => x");
+        }
+        return "language core;\nextend with #variants;\n\n"
+                + "fn main(v : " + variantType(width) + ") -> Nat {\n  return match v {\n    " + arms + "\n  }\n}\n";
+    }
+
+    @Test
+    void wideVariantMatchIsCheckedForExhaustiveness() throws Exception {
+        var result = typecheckWithLargeStack(matchSource(300, 300));
+        assertTrue(result.isOk(), () -> "unexpected error: " + result.error());
+        assertEquals("ERROR_NONEXHAUSTIVE_MATCH_PATTERNS", typecheckWithLargeStack(matchSource(300, 299)).error());
+    }
+
+    @Test
+    void wideVariantLabelsAreFound() throws Exception {
+        var source = "language core;\nextend with #variants;\n\n"
+                + "fn main(n : Nat) -> " + variantType(300) + " {\n  return <|l299 = n|>\n}\n";
+        var result = typecheckWithLargeStack(source);
+        assertTrue(result.isOk(), () -> "unexpected error: " + result.error());
+        assertEquals("ERROR_UNEXPECTED_VARIANT_LABEL", typecheckWithLargeStack(source.replace("l299 = n", "l300 = n")).error());
+    }
+
+    @Test
+    void manyExceptionVariantsAreFound() throws Exception {
+        var source = new StringBuilder("language core;\nextend with #exceptions, #open-variant-exceptions, #variants;\n\n");
+        for (var i = 0; i < 100; i++) {
+            source.append("exception variant e").append(i).append(" : ").append(i % 2 == 0 ? "Nat" : "Bool").append("\n");
+        }
+        source.append("\nfn main(n : Nat) -> Nat {\n  return try { throw(<|e98 = n|>) } catch { <|e98 = m|> => m }\n}\n");
+        var result = typecheckWithLargeStack(source.toString());
+        assertTrue(result.isOk(), () -> "unexpected error: " + result.error());
+        var mistyped = typecheckWithLargeStack(source.toString().replace("<|e98 = n|>", "<|e99 = n|>"));
+        assertEquals("ERROR_UNEXPECTED_TYPE_FOR_EXPRESSION", mistyped.error());
+    }
+}
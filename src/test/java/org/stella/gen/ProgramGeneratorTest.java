@@ -0,0 +1,48 @@
+package org.stella.gen;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.*;
+import org.junit.jupiter.params.provider.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.stella.CompileResult;
+import org.stella.StellaCompiler;
+import org.stella.typecheck.ErrorCode;
+
+class ProgramGeneratorTest {
+
+    @ParameterizedTest(name = "{index} well-typed program with seed {0}")
+    @ValueSource(longs = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10})
+    void generatedProgramsAreWellTyped(long seed) {
+        var options = new ProgramGenerator.Options(6, 3, 3, 3, 3);
+        var source = new ProgramGenerator(seed, options).generate().source();
+        var result = StellaCompiler.typecheck(source);
+        assertTrue(result.isOk(), () -> result.error() + "\n" + source);
+    }
+
+    @ParameterizedTest(name = "{index} ill-typed program with {0}")
+    @EnumSource(value = ErrorCode.class, names = {
+            "ERROR_UNDEFINED_VARIABLE",
+            "ERROR_UNEXPECTED_TYPE_FOR_EXPRESSION",
+            "ERROR_NOT_A_FUNCTION",
+            "ERROR_NOT_A_RECORD",
+            "ERROR_UNEXPECTED_FIELD_ACCESS",
+            "ERROR_UNEXPECTED_VARIANT_LABEL",
+            "ERROR_NONEXHAUSTIVE_MATCH_PATTERNS"})
+    void generatedErrorsAreReported(ErrorCode error) {
+        for (var seed = 0; seed < 5; seed++) {
+            var source = new ProgramGenerator(seed, ProgramGenerator.Options.ofSize(4)).generate(error).source();
+            var result = StellaCompiler.typecheck(source);
+            assertEquals(CompileResult.Status.TYPE_ERROR, result.status(), source);
+            assertEquals(error.name(), result.error(), source);
+        }
+    }
+
+    @Test
+    void sameSeedGivesSameProgram() {
+        var options = ProgramGenerator.Options.ofSize(20);
+        assertEquals(new ProgramGenerator(42, options).generate().source(), new ProgramGenerator(42, options).generate().source());
+        assertNotEquals(new ProgramGenerator(42, options).generate().source(), new ProgramGenerator(43, options).generate().source());
+    }
+}
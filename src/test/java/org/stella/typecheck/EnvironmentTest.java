@@ -0,0 +1,96 @@
+package org.stella.typecheck;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Test;
+
+import org.syntax.stella.Absyn.*;
+
+class EnvironmentTest {
+    private static final Type NAT = new TypeNat();
+    private static final Type BOOL = new TypeBool();
+
+    @Test
+    void rebindingInALargeScopeReplacesTheBinding() {
+        var environment = new Environment();
+        environment.push();
+        for (var i = 0; i < 1000; i++) {
+            environment.bind("x" + i, NAT);
+        }
+        environment.bind("x7", BOOL);
+        environment.bind("x700", BOOL);
+        assertSame(BOOL, environment.lookup("x7"));
+        assertSame(BOOL, environment.lookup("x700", 1, 700));
+        assertSame(NAT, environment.lookup("x999", 1, 999));
+        environment.bind("y", BOOL);
+        assertSame(BOOL, environment.lookup("y", 1, 1000));
+        assertEquals(0, environment.misses);
+    }
+
+    @Test
+    void closingALargeScopeForgetsItsNames() {
+        var environment = new Environment();
+        environment.push();
+        environment.bind("outer", NAT);
+        environment.push();
+        for (var i = 0; i < 100; i++) {
+            environment.bind("x" + i, NAT);
+        }
+        environment.pop();
+        environment.push();
+        for (var i = 0; i < 20; i++) {
+            environment.bind("y" + i, BOOL);
+        }
+        environment.bind("y3", NAT);
+        assertSame(NAT, environment.lookup("y3", 2, 3));
+        assertNull(environment.lookup("x5"));
+        assertSame(NAT, environment.lookup("outer"));
+    }
+
+    @Test
+    void largeGlobalScopeSurvivesForks() {
+        var environment = new Environment();
+        for (var i = 0; i < 100; i++) {
+            environment.bind("g" + i, NAT);
+        }
+        var fork = environment.fork();
+        fork.bind("g50", BOOL);
+        fork.bind("h", BOOL);
+        assertSame(NAT, environment.lookup("g50", 0, 50));
+        assertNull(environment.lookup("h"));
+        assertSame(BOOL, fork.lookup("g50", 0, 50));
+        assertSame(BOOL, fork.lookup("h", 0, 100));
+    }
+
+    @Test
+    void reopeningLargeScopesAllocatesNothing() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var names = new String[200];
+        for (var i = 0; i < names.length; i++) {
+            names[i] = "x" + i;
+        }
+        var environment = new Environment();
+        for (var round = 0; round < 2; round++) {
+            var before = threads.getCurrentThreadAllocatedBytes();
+            for (var repeat = 0; repeat < 1000; repeat++) {
+                environment.push();
+                for (var name : names) {
+                    environment.bind(name, NAT);
+                }
+                environment.push();
+                for (var i = 0; i < 20; i++) {
+                    environment.bind(names[i], BOOL);
+                }
+                environment.pop();
+                environment.pop();
+            }
+            var allocated = threads.getCurrentThreadAllocatedBytes() - before;
+            // The first round grows the arrays and indexes; the second has to reuse them.
+            if (round == 1) {
+                assertTrue(allocated < 1024, allocated + " bytes allocated");
+            }
+        }
+    }
+}